@@ -0,0 +1,240 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed backup container made of independently deflated, CRC32C-checked blocks
+ *
+ * Layout: the 8-byte magic "CALBAK1\n", then blocks of
+ *   int rawLength, int compressedLength, int crc32c(raw bytes), compressedLength bytes
+ * ended by a block with rawLength 0. The payload is the plain text backup format, so the
+ * archive is written and read as a stream; a damaged block is reported by number on restore.
+ * Blocks use the fastest deflate level: CSV text still shrinks about 3x and writing costs less
+ * than the plain text it replaces.
+ */
+public final class BackupArchive {
+    static final byte[] MAGIC = {'C', 'A', 'L', 'B', 'A', 'K', '1', '\n'};
+    static final int BLOCK_SIZE = 256 * 1024;
+
+    private BackupArchive() {
+    }
+
+    /**
+     * Open a backup for reading, decompressing it if it starts with the archive magic
+     */
+    public static InputStream openBackup(Path path) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path));
+        in.mark(MAGIC.length);
+        byte[] header = in.readNBytes(MAGIC.length);
+        if (Arrays.equals(header, MAGIC)) {
+            return new BlockInputStream(in);
+        }
+        in.reset(); // Plain text backup
+        return in;
+    }
+
+    /**
+     * Buffers written bytes and emits them as compressed, checksummed blocks
+     */
+    public static final class BlockOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final CRC32C crc = new CRC32C();
+        private final byte[] block = new byte[BLOCK_SIZE];
+        private byte[] compressed = new byte[BLOCK_SIZE];
+        private int count;
+        private boolean closed;
+
+        public BlockOutputStream(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.out.write(MAGIC);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == block.length) {
+                writeBlock();
+            }
+            block[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (count == block.length) {
+                    writeBlock();
+                }
+                int chunk = Math.min(length, block.length - count);
+                System.arraycopy(bytes, offset, block, count, chunk);
+                count += chunk;
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            crc.reset();
+            crc.update(block, 0, count);
+
+            deflater.reset();
+            deflater.setInput(block, 0, count);
+            deflater.finish();
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+
+            out.writeInt(count);
+            out.writeInt(compressedLength);
+            out.writeInt((int) crc.getValue());
+            out.write(compressed, 0, compressedLength);
+            count = 0;
+        }
+
+        /**
+         * Only whole blocks are written, so flushing does not cut the current block short
+         */
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                writeBlock();
+                out.writeInt(0); // End marker
+                out.flush();
+            } finally {
+                deflater.end();
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Reads blocks written by BlockOutputStream, verifying each block's checksum
+     */
+    public static final class BlockInputStream extends InputStream {
+        private final DataInputStream in;
+        private final Inflater inflater = new Inflater();
+        private final CRC32C crc = new CRC32C();
+        private byte[] block = new byte[BLOCK_SIZE];
+        private byte[] compressed = new byte[BLOCK_SIZE];
+        private int length;
+        private int position;
+        private int blockNumber;
+        private boolean finished;
+
+        BlockInputStream(InputStream in) {
+            this.in = new DataInputStream(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == length && !nextBlock()) {
+                return -1;
+            }
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position == length && !nextBlock()) {
+                return -1;
+            }
+            int chunk = Math.min(len, length - position);
+            System.arraycopy(block, position, bytes, offset, chunk);
+            position += chunk;
+            return chunk;
+        }
+
+        private boolean nextBlock() throws IOException {
+            if (finished) {
+                return false;
+            }
+            blockNumber++;
+            try {
+                int rawLength = in.readInt();
+                if (rawLength == 0) {
+                    finished = true;
+                    return false;
+                }
+                int compressedLength = in.readInt();
+                int expectedCrc = in.readInt();
+                if (rawLength < 0 || rawLength > 64 * BLOCK_SIZE
+                        || compressedLength < 0 || compressedLength > rawLength + rawLength / 8 + 1024) {
+                    throw corrupted("invalid block header");
+                }
+                if (compressed.length < compressedLength) {
+                    compressed = new byte[compressedLength];
+                }
+                if (block.length < rawLength) {
+                    block = new byte[rawLength];
+                }
+                in.readFully(compressed, 0, compressedLength);
+
+                inflater.reset();
+                inflater.setInput(compressed, 0, compressedLength);
+                int inflated = 0;
+                while (inflated < rawLength && !inflater.finished()) {
+                    int n = inflater.inflate(block, inflated, rawLength - inflated);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += n;
+                }
+                if (inflated != rawLength) {
+                    throw corrupted("decompressed size mismatch");
+                }
+
+                crc.reset();
+                crc.update(block, 0, rawLength);
+                if ((int) crc.getValue() != expectedCrc) {
+                    throw corrupted("checksum mismatch");
+                }
+                length = rawLength;
+                position = 0;
+                return true;
+            } catch (EOFException e) {
+                throw corrupted("file is truncated");
+            } catch (DataFormatException e) {
+                throw corrupted(e.getMessage());
+            }
+        }
+
+        private IOException corrupted(String reason) {
+            return new IOException("Backup block " + blockNumber + " is corrupted: " + reason);
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            in.close();
+        }
+    }
+}
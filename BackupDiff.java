@@ -0,0 +1,54 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Changes between two points of the change sequence, as stored in a differential backup
+ * Holds the current values of events created or updated after the base sequence, their
+ * recurring configurations, and the IDs of events deleted since then.
+ */
+public final class BackupDiff {
+    private final long baseSequence;
+    private final long sequence;
+    private final List<ImmutableEvent> events;
+    private final List<RecurringEvent> recurringEvents;
+    private final List<Integer> deletedIds;
+
+    public BackupDiff(long baseSequence, long sequence, List<ImmutableEvent> events,
+                      List<RecurringEvent> recurringEvents, List<Integer> deletedIds) {
+        this.baseSequence = baseSequence;
+        this.sequence = sequence;
+        this.events = Collections.unmodifiableList(events);
+        this.recurringEvents = Collections.unmodifiableList(recurringEvents);
+        this.deletedIds = Collections.unmodifiableList(deletedIds);
+    }
+
+    /**
+     * Change sequence of the backup this diff applies on top of
+     */
+    public long getBaseSequence() {
+        return baseSequence;
+    }
+
+    /**
+     * Change sequence of the state after applying this diff
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public List<ImmutableEvent> getEvents() {
+        return events;
+    }
+
+    public List<RecurringEvent> getRecurringEvents() {
+        return recurringEvents;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Merges backup records into existing data without creating duplicate event IDs
+ * Used by the streaming append restore, one record at a time: every ID in use is kept in a hash
+ * set and a backup event whose ID is already taken gets a fresh ID from the ID source. Recurring
+ * configurations follow their event to its new ID (backups list events before recurring
+ * configurations, so the mapping is known by then). Optionally, an event with the same title,
+ * description and times as one already present is dropped and its recurring configuration is
+ * attached to the kept event instead. Each record costs expected O(1).
+ */
+public final class BackupMerger {
+    private final IntSupplier idSource;
+    private final Set<Integer> usedIds;
+    private final Map<Integer, Integer> idsFromBackup = new HashMap<>(); // Backup ID -> merged ID
+    private final Set<Integer> recurringIds = new HashSet<>();
+    private final Map<EventContent, Integer> idsByContent; // null when duplicates are kept
+    private int remappedCount;
+    private int skippedCount;
+
+    /**
+     * Fields compared when skipping duplicate events
+     */
+    private record EventContent(String title, String description, LocalDateTime start, LocalDateTime end) {
+        static EventContent of(Event event) {
+            return new EventContent(event.getTitle(), event.getDescription(),
+                    event.getStartDateTime(), event.getEndDateTime());
+        }
+    }
+
+    /**
+     * @param idSource hands out IDs for colliding backup events; IDs it returns that are
+     *                 already in use are skipped
+     */
+    public BackupMerger(Collection<Event> events, Collection<RecurringEvent> recurringEvents,
+                        IntSupplier idSource, boolean skipDuplicates) {
+        this.idSource = idSource;
+        this.usedIds = new HashSet<>(Math.max(16, events.size() * 2));
+        this.idsByContent = skipDuplicates ? new HashMap<>(Math.max(16, events.size() * 2)) : null;
+        for (Event event : events) {
+            usedIds.add(event.getEventId());
+            if (idsByContent != null) {
+                idsByContent.putIfAbsent(EventContent.of(event), event.getEventId());
+            }
+        }
+        for (RecurringEvent recurringEvent : recurringEvents) {
+            recurringIds.add(recurringEvent.getEventId());
+        }
+    }
+
+    /**
+     * Give a backup event a free ID
+     * Returns the event to add, or null if it duplicates an event that is already present.
+     */
+    public Event mergeEvent(Event event) {
+        int backupId = event.getEventId();
+        if (idsByContent != null) {
+            Integer existingId = idsByContent.get(EventContent.of(event));
+            if (existingId != null) {
+                idsFromBackup.putIfAbsent(backupId, existingId);
+                skippedCount++;
+                return null;
+            }
+        }
+
+        int id = backupId;
+        if (!usedIds.add(id)) {
+            do {
+                id = idSource.getAsInt();
+            } while (!usedIds.add(id));
+            event.setEventId(id);
+            remappedCount++;
+        }
+        // Recurring configurations refer to the first backup event with this ID
+        idsFromBackup.putIfAbsent(backupId, id);
+        if (idsByContent != null) {
+            idsByContent.put(EventContent.of(event), id);
+        }
+        return event;
+    }
+
+    /**
+     * Point a backup recurring configuration at its event's merged ID
+     * Returns null if its event is not in the backup or the merged event already has a configuration.
+     */
+    public RecurringEvent mergeRecurringEvent(RecurringEvent recurringEvent) {
+        Integer id = idsFromBackup.get(recurringEvent.getEventId());
+        if (id == null || !recurringIds.add(id)) {
+            skippedCount++;
+            return null;
+        }
+        recurringEvent.setEventId(id);
+        return recurringEvent;
+    }
+
+    /**
+     * Number of backup events that were given a new ID
+     */
+    public int getRemappedCount() {
+        return remappedCount;
+    }
+
+    /**
+     * Number of backup events and recurring configurations that were dropped
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+}
@@ -1,33 +1,157 @@
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Handles CSV file operations for events and recurring events
+ *
+ * Events are kept either in a single events.csv or, with sharded storage, in one file per start
+ * month (events/yyyy-MM.csv) listed in events/index.csv. Sharded storage is used when the index
+ * exists or the system property calendar.storage=sharded is set; an existing events.csv is then
+ * split into shards once and renamed to events.csv.migrated.
+ *
+ * With calendar.storage=lsm, or once the store/ directory exists, events and recurring
+ * configurations live in an LsmEventStore instead and the EventStore methods pass through to it;
+ * existing CSV data is imported once and the CSV files are renamed to *.migrated.
  */
-public class CSVHandler {
+public final class CSVHandler implements EventStore {
+    public static final String STORAGE_PROPERTY = "calendar.storage";
     private static final String EVENTS_FILE = "events.csv";
     private static final String RECURRING_FILE = "recurrent.csv";
+    private static final String ID_FILE = "nextid.txt";
+    private static final String CHANGES_FILE = "changes.log";
+    private static final String SEQUENCE_HEADER = "# BACKUP_SEQUENCE ";
+    private static final String DIFF_HEADER = "# DIFF_SEQUENCE ";
+    private static final String SHARD_DIRECTORY = "events";
+    private static final String SHARD_INDEX_FILE = "index.csv";
+    private static final String STORE_DIRECTORY = "store";
+
+    private final StringPool stringPool;
+    private final DurableFileWriter fileWriter;
+    private NavigableMap<YearMonth, ShardInfo> shardIndex; // null for single-file storage; guarded by this
+    private LsmEventStore keyValueStore; // null unless events are kept in the key-value store
+
+    /**
+     * Index entry of one month's shard
+     * maxEnd bounds the end of the shard's events, so a range query can skip earlier shards
+     * that cannot overlap it.
+     */
+    public record ShardInfo(int count, LocalDateTime maxEnd) {
+    }
+
+    public CSVHandler() {
+        this(new StringPool());
+    }
+
+    public CSVHandler(StringPool stringPool) {
+        this(stringPool, DurableFileWriter.getDefault());
+    }
+
+    /**
+     * @param fileWriter replaces files atomically and applies the fsync policy
+     */
+    public CSVHandler(StringPool stringPool, DurableFileWriter fileWriter) {
+        this.stringPool = stringPool;
+        this.fileWriter = fileWriter;
+        if (LsmEventStore.exists(Paths.get(STORE_DIRECTORY))) {
+            this.keyValueStore = openKeyValueStore();
+        } else {
+            this.shardIndex = openShardIndex();
+            if ("lsm".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY))) {
+                migrateToKeyValueStore();
+            }
+        }
+    }
+
+    private LsmEventStore openKeyValueStore() {
+        try {
+            return new LsmEventStore(Paths.get(STORE_DIRECTORY), stringPool, fileWriter);
+        } catch (IOException | RuntimeException e) {
+            // Falling back to the CSV files would hide the stored events and later overwrite them
+            throw new IllegalStateException("Cannot open event store: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Import the events and recurring configurations into a new key-value store
+     * The CSV files are renamed only after the store holds everything.
+     */
+    private void migrateToKeyValueStore() {
+        List<ImmutableEvent> events = new ArrayList<>();
+        for (Event event : readEvents()) {
+            events.add(ImmutableEvent.of(event));
+        }
+        List<RecurringEvent> recurringEvents = readRecurringEvents();
+        LsmEventStore store = openKeyValueStore();
+        if (!store.replaceAll(events, recurringEvents)) {
+            deleteQuietly(Paths.get(STORE_DIRECTORY, "MANIFEST")); // Keep using the CSV files
+            return;
+        }
+        for (String name : List.of(EVENTS_FILE, RECURRING_FILE, SHARD_DIRECTORY)) {
+            try {
+                Files.move(Paths.get(name), Paths.get(name + ".migrated"), StandardCopyOption.REPLACE_EXISTING);
+            } catch (NoSuchFileException e) {
+                // Nothing to migrate
+            } catch (IOException e) {
+                System.err.println("Error renaming migrated file " + name + ": " + e.getMessage());
+            }
+        }
+        shardIndex = null;
+        keyValueStore = store;
+    }
+
+    /**
+     * Share title/description instances with the pool so repeated text is stored once
+     */
+    private Event dedupe(Event event) {
+        event.setTitle(stringPool.intern(event.getTitle()));
+        event.setDescription(stringPool.intern(event.getDescription()));
+        return event;
+    }
 
     /**
      * Read all events from CSV file
      */
+    @Override
     public List<Event> readEvents() {
-        List<Event> events = new ArrayList<>();
-        Path path = Paths.get(EVENTS_FILE);
+        if (keyValueStore != null) {
+            return keyValueStore.readEvents();
+        }
+        if (isSharded()) {
+            List<Event> events = new ArrayList<>();
+            for (YearMonth month : getShardIndex().keySet()) {
+                events.addAll(readShard(month));
+            }
+            return events;
+        }
+        return readEventsFile(Paths.get(EVENTS_FILE));
+    }
 
+    private List<Event> readEventsFile(Path path) {
+        List<Event> events = new ArrayList<>();
         if (!Files.exists(path)) {
             return events; // Return empty list if file doesn't exist
         }
 
         try (BufferedReader reader = Files.newBufferedReader(path)) {
             String line;
-            while ((line = reader.readLine()) != null) {
+            while ((line = CsvCodec.readRecord(reader)) != null) {
                 if (!line.trim().isEmpty()) {
-                    events.add(Event.fromCSV(line));
+                    events.add(dedupe(Event.fromCSV(line)));
                 }
             }
         } catch (IOException e) {
@@ -39,22 +163,289 @@ public class CSVHandler {
 
     /**
      * Write all events to CSV file
+     * The file is replaced atomically, a failed write keeps the previous version.
      */
     public void writeEvents(List<Event> events) {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(EVENTS_FILE))) {
+        if (keyValueStore != null) {
+            keyValueStore.writeEvents(EventSnapshot.of(events, 0));
+            return;
+        }
+        if (isSharded()) {
+            List<ImmutableEvent> values = new ArrayList<>(events.size());
             for (Event event : events) {
-                writer.write(event.toCSV());
-                writer.newLine();
+                values.add(ImmutableEvent.of(event));
             }
+            replaceAllShards(values);
+            return;
+        }
+        try {
+            fileWriter.write(Paths.get(EVENTS_FILE), out -> {
+                try (CsvEventWriter writer = new CsvEventWriter(out)) {
+                    for (Event event : events) {
+                        writer.write(event);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error writing events file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write all events of an immutable snapshot to CSV file
+     */
+    @Override
+    public void writeEvents(EventSnapshot snapshot) {
+        if (keyValueStore != null) {
+            keyValueStore.writeEvents(snapshot);
+            return;
+        }
+        if (isSharded()) {
+            replaceAllShards(snapshot.getEvents());
+            return;
+        }
+        try {
+            fileWriter.write(Paths.get(EVENTS_FILE), out -> {
+                try (CsvEventWriter writer = new CsvEventWriter(out)) {
+                    for (ImmutableEvent event : snapshot.getEvents()) {
+                        writer.write(event);
+                    }
+                }
+            });
         } catch (IOException e) {
             System.err.println("Error writing events file: " + e.getMessage());
         }
     }
 
+    @Override
+    public List<Event> readEventsStartingBetween(LocalDateTime from, LocalDateTime to) {
+        if (keyValueStore != null) {
+            return keyValueStore.readEventsStartingBetween(from, to);
+        }
+        List<Event> events = new ArrayList<>();
+        if (isSharded()) {
+            for (YearMonth month : getShardIndex().subMap(YearMonth.from(from), true, YearMonth.from(to), true).keySet()) {
+                events.addAll(readShard(month));
+            }
+        } else {
+            events = readEvents();
+        }
+        events.removeIf(event -> event.getStartDateTime().isBefore(from) || !event.getStartDateTime().isBefore(to));
+        return events;
+    }
+
+    /**
+     * Whether events are stored in per-month shards
+     */
+    public synchronized boolean isSharded() {
+        return shardIndex != null;
+    }
+
+    /**
+     * Whether the key-value store holds the events, so changes can be written one by one
+     */
+    @Override
+    public boolean supportsPointUpdates() {
+        return keyValueStore != null;
+    }
+
+    /**
+     * Whether a single month's events can be read without reading the others
+     * True for sharded storage and the key-value store; getShardIndex() and readShard() serve both.
+     */
+    public synchronized boolean canReadByMonth() {
+        return shardIndex != null || keyValueStore != null;
+    }
+
+    /**
+     * Months that have a shard, with their event count and latest end time
+     */
+    public synchronized NavigableMap<YearMonth, ShardInfo> getShardIndex() {
+        if (keyValueStore != null) {
+            return keyValueStore.getMonthIndex();
+        }
+        if (shardIndex == null) {
+            return Collections.emptyNavigableMap();
+        }
+        return Collections.unmodifiableNavigableMap(new TreeMap<>(shardIndex));
+    }
+
+    /**
+     * Read the events starting in one month (empty if the month has no shard)
+     */
+    public List<Event> readShard(YearMonth month) {
+        if (keyValueStore != null) {
+            return keyValueStore.readEventsStartingBetween(month.atDay(1).atStartOfDay(),
+                    month.plusMonths(1).atDay(1).atStartOfDay());
+        }
+        return readEventsFile(shardPath(month));
+    }
+
+    /**
+     * Rewrite the shards of the given months with their complete contents
+     * An empty list deletes the month's shard. The index is written first: a shard it lists
+     * that is missing reads as empty, and an entry's end bound never shrinks here, so a crash
+     * between the files cannot hide a stored event from range queries.
+     * Returns false if a file could not be written.
+     */
+    public synchronized boolean writeShards(Map<YearMonth, ? extends Collection<ImmutableEvent>> shards) {
+        if (shardIndex == null) {
+            throw new IllegalStateException("Events are not stored in shards");
+        }
+        if (shards.isEmpty()) {
+            return true;
+        }
+        NavigableMap<YearMonth, ShardInfo> index = new TreeMap<>(shardIndex);
+        for (Map.Entry<YearMonth, ? extends Collection<ImmutableEvent>> shard : shards.entrySet()) {
+            putShardInfo(index, shard.getKey(), shard.getValue(), true);
+        }
+        try {
+            writeShardIndex(index);
+            shardIndex = index;
+            for (Map.Entry<YearMonth, ? extends Collection<ImmutableEvent>> shard : shards.entrySet()) {
+                writeShard(shard.getKey(), shard.getValue());
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing event shards: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replace every shard with the given events
+     * The index keeps the larger end bounds until all shards are written, then becomes exact.
+     */
+    private synchronized boolean replaceAllShards(Collection<ImmutableEvent> events) {
+        NavigableMap<YearMonth, List<ImmutableEvent>> shards = new TreeMap<>();
+        for (ImmutableEvent event : events) {
+            shards.computeIfAbsent(YearMonth.from(event.startDateTime()), m -> new ArrayList<>()).add(event);
+        }
+        for (YearMonth month : shardIndex.keySet()) {
+            shards.putIfAbsent(month, List.of()); // Months left without events are deleted
+        }
+
+        NavigableMap<YearMonth, ShardInfo> merged = new TreeMap<>(shardIndex);
+        NavigableMap<YearMonth, ShardInfo> exact = new TreeMap<>();
+        for (Map.Entry<YearMonth, List<ImmutableEvent>> shard : shards.entrySet()) {
+            putShardInfo(merged, shard.getKey(), shard.getValue(), true);
+            putShardInfo(exact, shard.getKey(), shard.getValue(), false);
+        }
+        try {
+            writeShardIndex(merged);
+            shardIndex = merged;
+            for (Map.Entry<YearMonth, List<ImmutableEvent>> shard : shards.entrySet()) {
+                writeShard(shard.getKey(), shard.getValue());
+            }
+            writeShardIndex(exact);
+            shardIndex = exact;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing event shards: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void putShardInfo(NavigableMap<YearMonth, ShardInfo> index, YearMonth month,
+                                     Collection<ImmutableEvent> events, boolean keepLargerEnd) {
+        if (events.isEmpty()) {
+            index.remove(month);
+            return;
+        }
+        LocalDateTime maxEnd = null;
+        for (ImmutableEvent event : events) {
+            if (maxEnd == null || event.endDateTime().isAfter(maxEnd)) {
+                maxEnd = event.endDateTime();
+            }
+        }
+        ShardInfo previous = index.get(month);
+        if (keepLargerEnd && previous != null && previous.maxEnd().isAfter(maxEnd)) {
+            maxEnd = previous.maxEnd();
+        }
+        index.put(month, new ShardInfo(events.size(), maxEnd));
+    }
+
+    private void writeShard(YearMonth month, Collection<ImmutableEvent> events) throws IOException {
+        Path path = shardPath(month);
+        if (events.isEmpty()) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        fileWriter.write(path, out -> {
+            try (CsvEventWriter writer = new CsvEventWriter(out)) {
+                for (ImmutableEvent event : events) {
+                    writer.write(event);
+                }
+            }
+        });
+    }
+
+    private void writeShardIndex(NavigableMap<YearMonth, ShardInfo> index) throws IOException {
+        Files.createDirectories(Paths.get(SHARD_DIRECTORY));
+        fileWriter.writeText(Paths.get(SHARD_DIRECTORY, SHARD_INDEX_FILE), writer -> {
+            for (Map.Entry<YearMonth, ShardInfo> entry : index.entrySet()) {
+                writer.write(entry.getKey() + "," + entry.getValue().count() + "," + entry.getValue().maxEnd());
+                writer.newLine();
+            }
+        });
+    }
+
+    /**
+     * Load the shard index, or switch to sharded storage if requested and split events.csv
+     * Returns null for single-file storage.
+     */
+    private NavigableMap<YearMonth, ShardInfo> openShardIndex() {
+        Path indexPath = Paths.get(SHARD_DIRECTORY, SHARD_INDEX_FILE);
+        if (Files.exists(indexPath)) {
+            NavigableMap<YearMonth, ShardInfo> index = new TreeMap<>();
+            try (BufferedReader reader = Files.newBufferedReader(indexPath)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    String[] parts = line.split(",");
+                    index.put(YearMonth.parse(parts[0]),
+                            new ShardInfo(Integer.parseInt(parts[1]), IsoTimestampCodec.parse(parts[2])));
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error reading shard index: " + e.getMessage());
+            }
+            return index;
+        }
+        if (!"sharded".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY))) {
+            return null;
+        }
+
+        Path eventsPath = Paths.get(EVENTS_FILE);
+        List<ImmutableEvent> events = new ArrayList<>();
+        for (Event event : readEventsFile(eventsPath)) {
+            events.add(ImmutableEvent.of(event));
+        }
+        shardIndex = new TreeMap<>();
+        if (!replaceAllShards(events)) {
+            return null; // Keep using events.csv
+        }
+        try {
+            Files.move(eventsPath, Paths.get(EVENTS_FILE + ".migrated"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException e) {
+            // Nothing to migrate
+        } catch (IOException e) {
+            System.err.println("Error renaming migrated events file: " + e.getMessage());
+        }
+        return shardIndex;
+    }
+
+    private static Path shardPath(YearMonth month) {
+        return Paths.get(SHARD_DIRECTORY, month + ".csv");
+    }
+
     /**
      * Read all recurring events from CSV file
      */
+    @Override
     public List<RecurringEvent> readRecurringEvents() {
+        if (keyValueStore != null) {
+            return keyValueStore.readRecurringEvents();
+        }
         List<RecurringEvent> recurringEvents = new ArrayList<>();
         Path path = Paths.get(RECURRING_FILE);
 
@@ -79,21 +470,67 @@ public class CSVHandler {
     /**
      * Write all recurring events to CSV file
      */
+    @Override
     public void writeRecurringEvents(List<RecurringEvent> recurringEvents) {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(RECURRING_FILE))) {
-            for (RecurringEvent recurringEvent : recurringEvents) {
-                writer.write(recurringEvent.toCSV());
-                writer.newLine();
-            }
+        if (keyValueStore != null) {
+            keyValueStore.writeRecurringEvents(recurringEvents);
+            return;
+        }
+        try {
+            fileWriter.writeText(Paths.get(RECURRING_FILE), writer -> {
+                for (RecurringEvent recurringEvent : recurringEvents) {
+                    writer.write(recurringEvent.toCSV());
+                    writer.newLine();
+                }
+            });
         } catch (IOException e) {
             System.err.println("Error writing recurring events file: " + e.getMessage());
         }
     }
 
+    /**
+     * Apply a change set to the stored events
+     * CSV files cannot be updated in place, so they are read, changed and rewritten completely;
+     * EventManager writes CSV storage from memory instead and only uses this with the key-value store.
+     */
+    @Override
+    public boolean applyChanges(BackupDiff changes) {
+        if (keyValueStore != null) {
+            return keyValueStore.applyChanges(changes);
+        }
+        Map<Integer, Event> events = new LinkedHashMap<>();
+        for (Event event : readEvents()) {
+            events.putIfAbsent(event.getEventId(), event);
+        }
+        Map<Integer, RecurringEvent> recurringEvents = new LinkedHashMap<>();
+        for (RecurringEvent recurringEvent : readRecurringEvents()) {
+            recurringEvents.put(recurringEvent.getEventId(), recurringEvent);
+        }
+        for (ImmutableEvent event : changes.getEvents()) {
+            events.put(event.eventId(), event.toEvent());
+        }
+        for (RecurringEvent recurringEvent : changes.getRecurringEvents()) {
+            recurringEvents.put(recurringEvent.getEventId(), recurringEvent);
+        }
+        for (int eventId : changes.getDeletedIds()) {
+            events.remove(eventId);
+            recurringEvents.remove(eventId);
+        }
+        writeEvents(new ArrayList<>(events.values()));
+        writeRecurringEvents(new ArrayList<>(recurringEvents.values()));
+        return true;
+    }
+
     /**
      * Get the next available event ID
+     * Uses the persisted ID high-water mark and only scans the events file if none exists
      */
     public int getNextEventId() {
+        int highWaterMark = readIdHighWaterMark();
+        if (highWaterMark > 0) {
+            return highWaterMark;
+        }
+
         List<Event> events = readEvents();
         int maxId = 0;
         for (Event event : events) {
@@ -104,77 +541,423 @@ public class CSVHandler {
         return maxId + 1;
     }
 
+    /**
+     * Read the persisted ID high-water mark, or -1 if none has been saved
+     */
+    public int readIdHighWaterMark() {
+        Path path = Paths.get(ID_FILE);
+        if (!Files.exists(path)) {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(Files.readString(path).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading event ID file: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Persist the ID high-water mark (all IDs below it may be in use)
+     */
+    public void writeIdHighWaterMark(int highWaterMark) {
+        try {
+            fileWriter.writeText(Paths.get(ID_FILE), writer -> writer.write(Integer.toString(highWaterMark)));
+        } catch (IOException e) {
+            System.err.println("Error writing event ID file: " + e.getMessage());
+        }
+    }
+
     /**
      * Create backup of all data to a single file
+     * Reads the CSV files; prefer the overload taking in-memory state when it is available.
      */
     public boolean createBackup(String backupFilePath) {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(backupFilePath))) {
-            // Write events section
-            writer.write("# EVENTS");
-            writer.newLine();
-            List<Event> events = readEvents();
-            for (Event event : events) {
-                writer.write(event.toCSV());
-                writer.newLine();
-            }
+        return createBackup(backupFilePath, EventSnapshot.of(readEvents(), 0), readRecurringEvents());
+    }
 
-            // Write recurring events section
-            writer.newLine();
-            writer.write("# RECURRING_EVENTS");
-            writer.newLine();
-            List<RecurringEvent> recurringEvents = readRecurringEvents();
-            for (RecurringEvent recurringEvent : recurringEvents) {
-                writer.write(recurringEvent.toCSV());
-                writer.newLine();
-            }
+    /**
+     * Create backup directly from in-memory state, without reading the CSV files
+     */
+    public boolean createBackup(String backupFilePath, EventSnapshot events, List<RecurringEvent> recurringEvents) {
+        return createBackup(backupFilePath, events, recurringEvents, false);
+    }
 
-            return true;
+    /**
+     * Create backup from in-memory state, optionally as a compressed, checksummed archive
+     */
+    public boolean createBackup(String backupFilePath, EventSnapshot events, List<RecurringEvent> recurringEvents,
+                                boolean compressed) {
+        try {
+            fileWriter.write(Paths.get(backupFilePath), out -> {
+                try (BufferedWriter writer = openBackupWriter(out, compressed)) {
+                    // Change sequence the backup reflects, the base for later differential backups
+                    writer.write(SEQUENCE_HEADER + events.getVersion());
+                    writer.newLine();
+
+                    // Write events section
+                    writer.write("# EVENTS");
+                    writer.newLine();
+                    for (ImmutableEvent event : events.getEvents()) {
+                        writer.write(event.toCSV());
+                        writer.newLine();
+                    }
+
+                    // Write recurring events section
+                    writer.newLine();
+                    writer.write("# RECURRING_EVENTS");
+                    writer.newLine();
+                    for (RecurringEvent recurringEvent : recurringEvents) {
+                        writer.write(recurringEvent.toCSV());
+                        writer.newLine();
+                    }
+                }
+            });
         } catch (IOException e) {
             System.err.println("Error creating backup: " + e.getMessage());
             return false;
         }
+        // Later changes must get higher sequence numbers, even after a restart
+        appendChangeJournal(Map.of(), events.getVersion());
+        return true;
     }
 
     /**
-     * Restore data from backup file
+     * Write a differential backup holding only the changes in the diff
      */
-    public boolean restoreFromBackup(String backupFilePath, boolean append) {
+    public boolean writeDifferentialBackup(String backupFilePath, BackupDiff diff, boolean compressed) {
+        try {
+            fileWriter.write(Paths.get(backupFilePath), out -> {
+                try (BufferedWriter writer = openBackupWriter(out, compressed)) {
+                    writer.write(DIFF_HEADER + diff.getBaseSequence() + " " + diff.getSequence());
+                    writer.newLine();
+
+                    writer.write("# EVENTS");
+                    writer.newLine();
+                    for (ImmutableEvent event : diff.getEvents()) {
+                        writer.write(event.toCSV());
+                        writer.newLine();
+                    }
+
+                    writer.write("# RECURRING_EVENTS");
+                    writer.newLine();
+                    for (RecurringEvent recurringEvent : diff.getRecurringEvents()) {
+                        writer.write(recurringEvent.toCSV());
+                        writer.newLine();
+                    }
+
+                    writer.write("# DELETED");
+                    writer.newLine();
+                    for (int eventId : diff.getDeletedIds()) {
+                        writer.write(Integer.toString(eventId));
+                        writer.newLine();
+                    }
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error creating differential backup: " + e.getMessage());
+            return false;
+        }
+        appendChangeJournal(Map.of(), diff.getSequence());
+        return true;
+    }
+
+    /**
+     * Read a differential backup, or return null if it is missing, damaged or a full backup
+     */
+    public BackupDiff readDifferentialBackup(String backupFilePath) {
         Path path = Paths.get(backupFilePath);
         if (!Files.exists(path)) {
             System.err.println("Backup file does not exist: " + backupFilePath);
-            return false;
+            return null;
         }
 
-        List<Event> events = append ? readEvents() : new ArrayList<>();
-        List<RecurringEvent> recurringEvents = append ? readRecurringEvents() : new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(BackupArchive.openBackup(path), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(DIFF_HEADER)) {
+                System.err.println("Not a differential backup: " + backupFilePath);
+                return null;
+            }
+            String[] sequences = header.substring(DIFF_HEADER.length()).trim().split(" ");
+            long baseSequence = Long.parseLong(sequences[0]);
+            long sequence = Long.parseLong(sequences[1]);
 
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            List<ImmutableEvent> events = new ArrayList<>();
+            List<RecurringEvent> recurringEvents = new ArrayList<>();
+            List<Integer> deletedIds = new ArrayList<>();
             String line;
             String currentSection = "";
-
-            while ((line = reader.readLine()) != null) {
+            while ((line = CsvCodec.readRecord(reader)) != null) {
                 line = line.trim();
                 if (line.isEmpty()) continue;
 
                 if (line.startsWith("#")) {
                     currentSection = line;
-                    continue;
-                }
-
-                if (currentSection.equals("# EVENTS")) {
-                    events.add(Event.fromCSV(line));
+                } else if (currentSection.equals("# EVENTS")) {
+                    events.add(ImmutableEvent.of(dedupe(Event.fromCSV(line))));
                 } else if (currentSection.equals("# RECURRING_EVENTS")) {
                     recurringEvents.add(RecurringEvent.fromCSV(line));
+                } else if (currentSection.equals("# DELETED")) {
+                    deletedIds.add(Integer.parseInt(line));
                 }
             }
+            return new BackupDiff(baseSequence, sequence, events, recurringEvents, deletedIds);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading differential backup: " + e.getMessage());
+            return null;
+        }
+    }
 
-            writeEvents(events);
-            writeRecurringEvents(recurringEvents);
-            return true;
+    /**
+     * Read the change sequence recorded in a full or differential backup, or -1 if it has none
+     */
+    public long readBackupSequence(String backupFilePath) {
+        Path path = Paths.get(backupFilePath);
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(BackupArchive.openBackup(path), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return -1;
+            }
+            if (header.startsWith(SEQUENCE_HEADER)) {
+                return Long.parseLong(header.substring(SEQUENCE_HEADER.length()).trim());
+            }
+            if (header.startsWith(DIFF_HEADER)) {
+                String[] sequences = header.substring(DIFF_HEADER.length()).trim().split(" ");
+                return Long.parseLong(sequences[1]);
+            }
+            return -1; // Backup written before change sequences were recorded
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading backup header: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static BufferedWriter openBackupWriter(OutputStream out, boolean compressed) throws IOException {
+        if (compressed) {
+            out = new BackupArchive.BlockOutputStream(out);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
 
+    /**
+     * Load the change journal into eventId -> last change sequence
+     * Returns the highest sequence recorded (0 if none). The journal is compacted when it
+     * holds many superseded entries.
+     */
+    public long readChangeJournal(Map<Integer, Long> sequenceById) {
+        Path path = Paths.get(CHANGES_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        long maxSequence = 0;
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                lines++;
+                int comma = line.indexOf(',');
+                long sequence = Long.parseLong(comma < 0 ? line : line.substring(0, comma));
+                maxSequence = Math.max(maxSequence, sequence);
+                if (comma >= 0) {
+                    // Entries may be out of order when flushes race; keep the latest
+                    sequenceById.merge(Integer.parseInt(line.substring(comma + 1)), sequence, Math::max);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading change journal: " + e.getMessage());
+        }
+
+        if (lines > 2 * sequenceById.size() + 1024) {
+            writeChangeJournal(sequenceById, maxSequence);
+        }
+        return maxSequence;
+    }
+
+    /**
+     * Append changed event IDs with their sequence, and a sequence marker if positive
+     * A marker records that a sequence was handed out (e.g. by a backup) without changing events.
+     */
+    public synchronized void appendChangeJournal(Map<Integer, Long> changes, long sequenceMarker) {
+        if (changes.isEmpty() && sequenceMarker <= 0) {
+            return;
+        }
+        try {
+            fileWriter.appendText(Paths.get(CHANGES_FILE), writer -> {
+                for (Map.Entry<Integer, Long> change : changes.entrySet()) {
+                    writer.write(change.getValue() + "," + change.getKey());
+                    writer.newLine();
+                }
+                if (sequenceMarker > 0) {
+                    writer.write(Long.toString(sequenceMarker));
+                    writer.newLine();
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error writing change journal: " + e.getMessage());
+        }
+    }
+
+    private synchronized void writeChangeJournal(Map<Integer, Long> sequenceById, long maxSequence) {
+        try {
+            fileWriter.writeText(Paths.get(CHANGES_FILE), writer -> {
+                for (Map.Entry<Integer, Long> entry : sequenceById.entrySet()) {
+                    writer.write(entry.getValue() + "," + entry.getKey());
+                    writer.newLine();
+                }
+                writer.write(Long.toString(maxSequence));
+                writer.newLine();
+            });
         } catch (IOException e) {
+            System.err.println("Error compacting change journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restore data from backup file
+     * Appending gives backup events whose IDs are already taken new IDs above the highest one in use.
+     */
+    public boolean restoreFromBackup(String backupFilePath, boolean append) {
+        if (!append) {
+            return restoreFromBackup(backupFilePath, new ArrayList<>(), new ArrayList<>());
+        }
+        List<Event> events = readEvents();
+        List<RecurringEvent> recurringEvents = readRecurringEvents();
+        int maxId = Math.max(0, readIdHighWaterMark() - 1);
+        for (Event event : events) {
+            maxId = Math.max(maxId, event.getEventId());
+        }
+        int[] nextId = {maxId + 1};
+        BackupMerger merger = new BackupMerger(events, recurringEvents, () -> nextId[0]++, false);
+        return restoreFromBackup(backupFilePath, events, recurringEvents, merger);
+    }
+
+    /**
+     * Restore a backup in a single pass
+     * The given lists hold the data to keep (empty to replace everything); each backup record is
+     * added to them and written to the primary files as it is read. The files are written to
+     * temporary copies and only replaced once the whole backup has been read.
+     * Compressed archives are detected by their header; a damaged block fails the restore.
+     * With sharded storage the events are collected first and every shard is rewritten at the end;
+     * the key-value store is replaced as a whole at the end.
+     */
+    public boolean restoreFromBackup(String backupFilePath, List<Event> events, List<RecurringEvent> recurringEvents) {
+        return restoreFromBackup(backupFilePath, events, recurringEvents, null);
+    }
+
+    /**
+     * Restore a backup in a single pass, passing each record through the merger
+     * The merger gives colliding backup events new IDs and may drop duplicates; null restores
+     * the records unchanged.
+     */
+    public boolean restoreFromBackup(String backupFilePath, List<Event> events, List<RecurringEvent> recurringEvents,
+                                     BackupMerger merger) {
+        Path path = Paths.get(backupFilePath);
+        if (!Files.exists(path)) {
+            System.err.println("Backup file does not exist: " + backupFilePath);
+            return false;
+        }
+
+        boolean sharded = isSharded();
+        boolean keyValue = keyValueStore != null; // Written from the collected lists at the end, like shards
+        Path eventsTemp = DurableFileWriter.tempFor(Paths.get(EVENTS_FILE));
+        Path recurringTemp = DurableFileWriter.tempFor(Paths.get(RECURRING_FILE));
+        try {
+            try (BufferedReader reader = new BufferedReader(
+                         new InputStreamReader(BackupArchive.openBackup(path), StandardCharsets.UTF_8));
+                 BufferedWriter eventsWriter = new BufferedWriter(sharded || keyValue
+                         ? Writer.nullWriter() : Files.newBufferedWriter(eventsTemp));
+                 BufferedWriter recurringWriter = new BufferedWriter(keyValue
+                         ? Writer.nullWriter() : Files.newBufferedWriter(recurringTemp))) {
+                // Data being kept goes first, then the backup's records in file order
+                for (Event event : sharded || keyValue ? List.<Event>of() : events) {
+                    eventsWriter.write(event.toCSV());
+                    eventsWriter.newLine();
+                }
+                for (RecurringEvent recurringEvent : recurringEvents) {
+                    recurringWriter.write(recurringEvent.toCSV());
+                    recurringWriter.newLine();
+                }
+
+                String line;
+                String currentSection = "";
+                while ((line = CsvCodec.readRecord(reader)) != null) {
+                    line = line.trim();
+                    if (line.isEmpty()) continue;
+
+                    if (line.startsWith("#")) {
+                        if (line.startsWith(DIFF_HEADER)) {
+                            throw new IOException("this is a differential backup; restore it together with its base backup");
+                        }
+                        currentSection = line;
+                        continue;
+                    }
+
+                    if (currentSection.equals("# EVENTS")) {
+                        Event event = dedupe(Event.fromCSV(line));
+                        if (merger != null && (event = merger.mergeEvent(event)) == null) {
+                            continue;
+                        }
+                        events.add(event);
+                        eventsWriter.write(event.toCSV());
+                        eventsWriter.newLine();
+                    } else if (currentSection.equals("# RECURRING_EVENTS")) {
+                        RecurringEvent recurringEvent = RecurringEvent.fromCSV(line);
+                        if (merger != null && (recurringEvent = merger.mergeRecurringEvent(recurringEvent)) == null) {
+                            continue;
+                        }
+                        recurringEvents.add(recurringEvent);
+                        recurringWriter.write(recurringEvent.toCSV());
+                        recurringWriter.newLine();
+                    }
+                }
+            }
+
+            if (keyValue) {
+                List<ImmutableEvent> values = new ArrayList<>(events.size());
+                for (Event event : events) {
+                    values.add(ImmutableEvent.of(event));
+                }
+                if (!keyValueStore.replaceAll(values, recurringEvents)) {
+                    throw new IOException("event store could not be written");
+                }
+                return true;
+            }
+            if (sharded) {
+                List<ImmutableEvent> values = new ArrayList<>(events.size());
+                for (Event event : events) {
+                    values.add(ImmutableEvent.of(event));
+                }
+                if (!replaceAllShards(values)) {
+                    throw new IOException("event shards could not be written");
+                }
+            } else {
+                fileWriter.commit(eventsTemp, Paths.get(EVENTS_FILE));
+            }
+            fileWriter.commit(recurringTemp, Paths.get(RECURRING_FILE));
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            // Malformed records surface as runtime parse errors; leave the primary files untouched
             System.err.println("Error restoring from backup: " + e.getMessage());
+            deleteQuietly(eventsTemp);
+            deleteQuietly(recurringTemp);
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Error deleting temporary file: " + e.getMessage());
+        }
+    }
+}
@@ -10,6 +10,8 @@ import java.util.Scanner;
  * Main Calendar Application
  */
 public class CalendarApp {
+    private static final int LIST_PAGE_SIZE = 20;
+
     private EventManager eventManager;
     private CalendarView calendarView;
     private ReminderManager reminderManager;
@@ -24,7 +26,23 @@ public class CalendarApp {
         this.scanner = new Scanner(System.in);
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            // Headless mode: serve the calendar over HTTP instead of the interactive menu
+            CalendarServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--export")) {
+            // Batch mode: render month, week and list reports to text files
+            ReportExporter.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--script")) {
+            // Batch mode: apply commands from a file or stdin and print JSON results
+            ScriptRunner.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         CalendarApp app = new CalendarApp();
         app.run();
     }
@@ -202,19 +220,20 @@ public class CalendarApp {
         System.out.println("5. Back to Main Menu");
 
         int choice = getIntInput("Enter your choice: ");
-        List<Event> allEvents = eventManager.getAllEvents();
+        // Group once; month navigation re-renders from the same index
+        EventDateIndex index = EventDateIndex.of(eventManager.getAllEvents());
 
         switch (choice) {
             case 1:
-                monthViewWithNavigation(allEvents);
+                monthViewWithNavigation(index);
                 break;
             case 2:
                 LocalDate weekStart = getDateInput("Enter start of week (yyyy-MM-dd): ");
-                calendarView.displayWeekView(weekStart, allEvents);
+                calendarView.displayWeekView(weekStart, index);
                 break;
             case 3:
                 LocalDate day = getDateInput("Enter date (yyyy-MM-dd): ");
-                calendarView.displayDayView(day, allEvents);
+                calendarView.displayDayView(day, index);
                 break;
             case 4:
                 LocalDate startDate = getDateInput("Enter start date (yyyy-MM-dd): ");
@@ -222,7 +241,7 @@ public class CalendarApp {
                 if (endDate.isBefore(startDate)) {
                     System.out.println("Error: End date cannot be before start date.");
                 } else {
-                    calendarView.displayListView(startDate, endDate, allEvents);
+                    pagedListView(startDate, endDate);
                 }
                 break;
             case 5:
@@ -232,11 +251,11 @@ public class CalendarApp {
         }
     }
 
-    private void monthViewWithNavigation(List<Event> allEvents) {
+    private void monthViewWithNavigation(EventDateIndex index) {
         YearMonth yearMonth = getYearMonthInput("Enter month and year (yyyy-MM): ");
 
         while (true) {
-            calendarView.displayMonthView(yearMonth, allEvents);
+            calendarView.displayMonthView(yearMonth, index);
 
             System.out.println("\n=== NAVIGATION ===");
             System.out.println("1. Previous Month (or press 'P')");
@@ -284,6 +303,33 @@ public class CalendarApp {
         }
     }
 
+    /**
+     * Display a list view one page at a time, fetching each page only when requested
+     */
+    private void pagedListView(LocalDate startDate, LocalDate endDate) {
+        calendarView.displayListHeader(startDate, endDate);
+
+        String token = null;
+        boolean first = true;
+        do {
+            EventPage<Event> page = eventManager.getEventsPage(startDate, endDate, LIST_PAGE_SIZE, token);
+            if (first && page.getEvents().isEmpty()) {
+                System.out.println("No events found in the specified date range.");
+                return;
+            }
+            calendarView.displayListEntries(page.getEvents());
+            token = page.getNextToken();
+            first = false;
+
+            if (token != null) {
+                String more = getStringInput("Press Enter for more events, or Q to stop: ");
+                if (more.equalsIgnoreCase("Q")) {
+                    return;
+                }
+            }
+        } while (token != null);
+    }
+
     private void searchEventsMenu() {
         System.out.println("\n=== SEARCH EVENTS ===");
         System.out.println("1. Search by Date");
@@ -390,14 +436,19 @@ public class CalendarApp {
         System.out.println("\n=== BACKUP/RESTORE ===");
         System.out.println("1. Create Backup");
         System.out.println("2. Restore from Backup");
-        System.out.println("3. Back to Main Menu");
+        System.out.println("3. Create Differential Backup");
+        System.out.println("4. Restore Backup Chain (full + differentials)");
+        System.out.println("5. Back to Main Menu");
 
         int choice = getIntInput("Enter your choice: ");
 
         switch (choice) {
             case 1:
                 String backupPath = getStringInput("Enter backup file path (e.g., backup.txt): ");
-                if (eventManager.createBackup(backupPath)) {
+                String compressChoice = getStringInput("Compress backup? (y/n): ");
+                boolean compressed = compressChoice.equalsIgnoreCase("y");
+
+                if (eventManager.createBackup(backupPath, compressed)) {
                     System.out.println("Backup completed successfully to: " + backupPath);
                 } else {
                     System.out.println("Failed to create backup.");
@@ -407,14 +458,46 @@ public class CalendarApp {
                 String restorePath = getStringInput("Enter backup file path to restore from: ");
                 String appendChoice = getStringInput("Append to existing events? (y/n): ");
                 boolean append = appendChoice.equalsIgnoreCase("y");
+                boolean skipDuplicates = false;
+                if (append) {
+                    String skipChoice = getStringInput("Skip events identical to existing ones? (y/n): ");
+                    skipDuplicates = skipChoice.equalsIgnoreCase("y");
+                }
                 
-                if (eventManager.restoreFromBackup(restorePath, append)) {
+                if (eventManager.restoreFromBackup(restorePath, append, skipDuplicates)) {
                     System.out.println("Restore completed successfully.");
                 } else {
                     System.out.println("Failed to restore from backup.");
                 }
                 break;
             case 3:
+                String diffPath = getStringInput("Enter differential backup file path: ");
+                String previousPath = getStringInput("Enter the previous backup (full or differential) it builds on: ");
+                String compressDiff = getStringInput("Compress backup? (y/n): ");
+
+                if (eventManager.createDifferentialBackup(diffPath, previousPath, compressDiff.equalsIgnoreCase("y"))) {
+                    System.out.println("Differential backup completed successfully to: " + diffPath);
+                } else {
+                    System.out.println("Failed to create differential backup.");
+                }
+                break;
+            case 4:
+                String basePath = getStringInput("Enter full backup file path: ");
+                String diffList = getStringInput("Enter differential backup paths, oldest first, separated by commas: ");
+                List<String> diffPaths = new java.util.ArrayList<>();
+                for (String path : diffList.split(",")) {
+                    if (!path.isBlank()) {
+                        diffPaths.add(path.trim());
+                    }
+                }
+
+                if (eventManager.restoreFromBackupChain(basePath, diffPaths)) {
+                    System.out.println("Restore completed successfully (" + diffPaths.size() + " differential backups applied).");
+                } else {
+                    System.out.println("Failed to restore backup chain.");
+                }
+                break;
+            case 5:
                 return;
             default:
                 System.out.println("Invalid choice.");
@@ -482,12 +565,11 @@ public class CalendarApp {
 
     private LocalDateTime getDateTimeInput(String prompt) {
         while (true) {
-            try {
-                String input = getStringInput(prompt);
-                return LocalDateTime.parse(input, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-            } catch (DateTimeParseException e) {
-                System.out.println("Invalid date/time format. Please use yyyy-MM-dd HH:mm.");
+            LocalDateTime value = IsoTimestampCodec.tryParse(getStringInput(prompt));
+            if (value != null) {
+                return value;
             }
+            System.out.println("Invalid date/time format. Please use yyyy-MM-dd HH:mm.");
         }
     }
 
@@ -498,14 +580,14 @@ public class CalendarApp {
         }
         
         while (true) {
-            try {
-                return LocalDateTime.parse(input, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-            } catch (DateTimeParseException e) {
-                System.out.println("Invalid date/time format. Please use yyyy-MM-dd HH:mm or leave blank.");
-                input = getStringInput(prompt);
-                if (input.isEmpty()) {
-                    return defaultValue;
-                }
+            LocalDateTime value = IsoTimestampCodec.tryParse(input);
+            if (value != null) {
+                return value;
+            }
+            System.out.println("Invalid date/time format. Please use yyyy-MM-dd HH:mm or leave blank.");
+            input = getStringInput(prompt);
+            if (input.isEmpty()) {
+                return defaultValue;
             }
         }
     }
@@ -13,6 +13,7 @@ import javax.swing.*;
  */
 public class CalendarGUI {
     private EventManager eventManager;
+    private MonthPrefetcher monthPrefetcher;
     private CalendarView calendarView;
     private JFrame frame;
     private JPanel monthGrid;
@@ -24,6 +25,7 @@ public class CalendarGUI {
 
     public CalendarGUI(EventManager em) {
         this.eventManager = em;
+        this.monthPrefetcher = new MonthPrefetcher(em);
         this.calendarView = new CalendarView();
         initUI();
     }
@@ -518,6 +520,13 @@ public class CalendarGUI {
         filePanel.add(fileInputPanel);
         mainPanel.add(filePanel);
 
+        // Backup options panel
+        JPanel backupOptionsPanel = new JPanel(new GridLayout(0, 1, 5, 5));
+        backupOptionsPanel.setBorder(javax.swing.BorderFactory.createTitledBorder("Backup Options"));
+        JCheckBox compressBox = new JCheckBox("🗜️ Compress backup (smaller file, checksummed blocks)");
+        backupOptionsPanel.add(compressBox);
+        mainPanel.add(backupOptionsPanel);
+
         // Restore options panel
         JPanel restoreOptionsPanel = new JPanel(new GridLayout(0, 1, 5, 5));
         restoreOptionsPanel.setBorder(javax.swing.BorderFactory.createTitledBorder("Restore Options"));
@@ -528,16 +537,22 @@ public class CalendarGUI {
         restoreGroup.add(appendRb);
         restoreOptionsPanel.add(replaceRb);
         restoreOptionsPanel.add(appendRb);
+        JCheckBox skipDuplicatesBox = new JCheckBox("🧹 When appending, skip events identical to existing ones");
+        restoreOptionsPanel.add(skipDuplicatesBox);
         mainPanel.add(restoreOptionsPanel);
 
         // Enable/disable restore options based on operation selection
         backupRb.addActionListener(e -> {
             replaceRb.setEnabled(false);
             appendRb.setEnabled(false);
+            skipDuplicatesBox.setEnabled(false);
+            compressBox.setEnabled(true);
         });
         restoreRb.addActionListener(e -> {
             replaceRb.setEnabled(true);
             appendRb.setEnabled(true);
+            skipDuplicatesBox.setEnabled(true);
+            compressBox.setEnabled(false); // Restore detects the format itself
         });
 
         int res = JOptionPane.showConfirmDialog(frame, mainPanel,
@@ -554,7 +569,7 @@ public class CalendarGUI {
 
                 if (backupRb.isSelected()) {
                     // CREATE BACKUP
-                    if (eventManager.createBackup(filePath)) {
+                    if (eventManager.createBackup(filePath, compressBox.isSelected())) {
                         java.nio.file.Path backupPath = java.nio.file.Paths.get(filePath);
                         long fileSize = java.nio.file.Files.size(backupPath);
                         int eventCount = eventManager.getAllEvents().size();
@@ -607,7 +622,7 @@ public class CalendarGUI {
                         append ? JOptionPane.QUESTION_MESSAGE : JOptionPane.WARNING_MESSAGE);
 
                     if (confirmRes == JOptionPane.YES_OPTION) {
-                        if (eventManager.restoreFromBackup(filePath, append)) {
+                        if (eventManager.restoreFromBackup(filePath, append, skipDuplicatesBox.isSelected())) {
                             loadMonth(); // Refresh calendar display
 
                             long fileSize = java.nio.file.Files.size(backupPath);
@@ -1136,6 +1151,9 @@ public class CalendarGUI {
             monthGrid.add(lbl);
         }
 
+        // Occurrences per day, precomputed in the background when the user pages months
+        MonthPrefetcher.MonthData monthData = monthPrefetcher.getMonth(ym);
+
         // Determine starting offset
         int firstDayOffset = ym.atDay(1).getDayOfWeek().getValue() % 7; // Sunday=0
         for (int i = 0; i < firstDayOffset; i++) {
@@ -1148,8 +1166,8 @@ public class CalendarGUI {
 
         for (int day = 1; day <= ym.lengthOfMonth(); day++) {
             LocalDate current = ym.atDay(day);
-            // Use EventManager.searchEventsByDate which checks for event intervals overlapping the date
-            List<Event> dayEvents = eventManager.searchEventsByDate(current);
+            // Events whose interval overlaps the date
+            List<ImmutableEvent> dayEvents = monthData.getEventsOn(current);
 
             boolean hasEvents = !dayEvents.isEmpty();
             JButton dayBtn = new JButton(String.valueOf(day) + (hasEvents ? " •" : ""));
@@ -1163,10 +1181,10 @@ public class CalendarGUI {
             if (hasEvents) {
                 StringBuilder tooltip = new StringBuilder("<html>");
                 dayEvents.forEach(ev -> {
-                    tooltip.append("<b>").append(ev.getTitle()).append("</b><br>");
-                    tooltip.append(ev.getStartDateTime().toLocalTime()).append(" - ").append(ev.getEndDateTime().toLocalTime());
-                    if (!ev.getDescription().isEmpty()) {
-                        tooltip.append("<br><i>").append(ev.getDescription()).append("</i>");
+                    tooltip.append("<b>").append(ev.title()).append("</b><br>");
+                    tooltip.append(ev.startDateTime().toLocalTime()).append(" - ").append(ev.endDateTime().toLocalTime());
+                    if (!ev.description().isEmpty()) {
+                        tooltip.append("<br><i>").append(ev.description()).append("</i>");
                     }
                     tooltip.append("<br><br>");
                 });
@@ -1197,27 +1215,26 @@ public class CalendarGUI {
         detailsArea.append("=".repeat(60) + "\n\n");
 
         // For month overview, include events that overlap the month range (handles multi-day events)
-        LocalDate monthStart = ym.atDay(1);
-        LocalDate monthEnd = ym.atEndOfMonth();
-        List<Event> monthEvents = eventManager.searchEventsByDateRange(monthStart, monthEnd).stream()
-                .sorted((e1, e2) -> e1.getStartDateTime().compareTo(e2.getStartDateTime()))
-                .collect(java.util.stream.Collectors.toList());
+        List<ImmutableEvent> monthEvents = monthData.getEvents();
 
         if (monthEvents.isEmpty()) {
             detailsArea.append("No events scheduled for this month.\n");
         } else {
             detailsArea.append("Total Events: " + monthEvents.size() + "\n\n");
-            for (Event ev : monthEvents) {
-                detailsArea.append("┌─ 📌 " + ev.getTitle() + " (ID: " + ev.getEventId() + ")\n");
-                detailsArea.append("├─ 📅 Date: " + ev.getStartDateTime().toLocalDate().format(DATE_FMT) + "\n");
-                detailsArea.append("├─ ⏰ Time: " + ev.getStartDateTime().toLocalTime()
-                        + " - " + ev.getEndDateTime().toLocalTime() + "\n");
-                if (!ev.getDescription().isEmpty()) {
-                    detailsArea.append("├─ 📝 Description: " + ev.getDescription() + "\n");
+            for (ImmutableEvent ev : monthEvents) {
+                detailsArea.append("┌─ 📌 " + ev.title() + " (ID: " + ev.eventId() + ")\n");
+                detailsArea.append("├─ 📅 Date: " + ev.startDateTime().toLocalDate().format(DATE_FMT) + "\n");
+                detailsArea.append("├─ ⏰ Time: " + ev.startDateTime().toLocalTime()
+                        + " - " + ev.endDateTime().toLocalTime() + "\n");
+                if (!ev.description().isEmpty()) {
+                    detailsArea.append("├─ 📝 Description: " + ev.description() + "\n");
                 }
                 detailsArea.append("└─ Click on day number to see full details\n\n");
             }
         }
+
+        // Have the neighbouring months ready so paging is instant
+        monthPrefetcher.prefetchAround(ym);
     }
 
     private Color getMonthColor(int month) {
@@ -1507,17 +1524,12 @@ public class CalendarGUI {
             sb.append("\n").append(ym.getMonth()).append(" ").append(year).append("\n");
             sb.append("Su Mo Tu We Th Fr Sa\n");
 
-            // Get all events for this month
-            List<Event> allEvents = eventManager.getAllEvents();
-            java.util.Map<LocalDate, List<Event>> eventsByDate = allEvents.stream()
-                    .filter(e -> {
-                        LocalDate eventDate = e.getStartDateTime().toLocalDate();
-                        return eventDate.getMonth() == ym.getMonth() && eventDate.getYear() == ym.getYear();
-                    })
-                    .collect(java.util.stream.Collectors.groupingBy(e -> e.getStartDateTime().toLocalDate()));
-
             LocalDate firstDay = ym.atDay(1);
             LocalDate lastDay = ym.atEndOfMonth();
+
+            // Get only the events starting this month, already grouped by day in date order
+            java.util.NavigableMap<LocalDate, List<Event>> eventsByDate =
+                    eventManager.groupEventsByStartDay(firstDay, lastDay);
             int firstDayOfWeek = firstDay.getDayOfWeek().getValue() % 7;  // Sunday = 0
 
             // Print leading spaces
@@ -1528,7 +1540,7 @@ public class CalendarGUI {
             // Print days
             for (int day = 1; day <= lastDay.getDayOfMonth(); day++) {
                 LocalDate currentDate = ym.atDay(day);
-                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, new java.util.ArrayList<>());
+                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, java.util.Collections.emptyList());
 
                 if (!dayEvents.isEmpty()) {
                     sb.append(String.format("%2d*", day));
@@ -1543,15 +1555,7 @@ public class CalendarGUI {
 
             // Display events for the month
             sb.append("\n");
-            java.util.Map<LocalDate, List<Event>> sortedEvents = eventsByDate.entrySet().stream()
-                    .sorted(java.util.Map.Entry.comparingByKey())
-                    .collect(java.util.stream.Collectors.toMap(
-                            java.util.Map.Entry::getKey,
-                            java.util.Map.Entry::getValue,
-                            (e1, e2) -> e1,
-                            java.util.LinkedHashMap::new));
-
-            for (java.util.Map.Entry<LocalDate, List<Event>> entry : sortedEvents.entrySet()) {
+            for (java.util.Map.Entry<LocalDate, List<Event>> entry : eventsByDate.entrySet()) {
                 sb.append("* ").append(entry.getKey()).append(":\n");
                 for (Event ev : entry.getValue()) {
                     sb.append("  ").append(ev.getStartDateTime().toLocalTime())
@@ -1603,17 +1607,16 @@ public class CalendarGUI {
             sb.append("=== Week of ").append(mondayOfWeek).append(" ===\n");
             sb.append("Su Mo Tu We Th Fr Sa\n");
 
-            // Get all events for this week
-            List<Event> allEvents = eventManager.getAllEvents();
-            java.util.Map<LocalDate, List<Event>> eventsByDate = allEvents.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> e.getStartDateTime().toLocalDate()));
-
             // Display 7 days starting from Sunday
             LocalDate sundayOfWeek = mondayOfWeek.minusDays(1);
 
+            // Get only the events starting this week, grouped by day
+            java.util.Map<LocalDate, List<Event>> eventsByDate =
+                    eventManager.groupEventsByStartDay(sundayOfWeek, sundayOfWeek.plusDays(6));
+
             for (int i = 0; i < 7; i++) {
                 LocalDate currentDate = sundayOfWeek.plusDays(i);
-                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, new java.util.ArrayList<>());
+                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, java.util.Collections.emptyList());
 
                 if (!dayEvents.isEmpty()) {
                     sb.append(String.format("%2d*", currentDate.getDayOfMonth()));
@@ -1630,7 +1633,7 @@ public class CalendarGUI {
             boolean hasEvents = false;
             for (int i = 0; i < 7; i++) {
                 LocalDate currentDate = sundayOfWeek.plusDays(i);
-                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, new java.util.ArrayList<>());
+                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, java.util.Collections.emptyList());
 
                 if (!dayEvents.isEmpty()) {
                     hasEvents = true;
@@ -1692,17 +1695,16 @@ public class CalendarGUI {
             sb.append("=== Week of ").append(mondayOfWeek).append(" ===\n");
             sb.append("Su Mo Tu We Th Fr Sa\n");
 
-            // Get all events for this week
-            List<Event> allEvents = eventManager.getAllEvents();
-            java.util.Map<LocalDate, List<Event>> eventsByDate = allEvents.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> e.getStartDateTime().toLocalDate()));
-
             // Display 7 days starting from Sunday
             LocalDate sundayOfWeek = mondayOfWeek.minusDays(1);
 
+            // Get only the events starting this week, grouped by day
+            java.util.Map<LocalDate, List<Event>> eventsByDate =
+                    eventManager.groupEventsByStartDay(sundayOfWeek, sundayOfWeek.plusDays(6));
+
             for (int i = 0; i < 7; i++) {
                 LocalDate currentDate = sundayOfWeek.plusDays(i);
-                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, new java.util.ArrayList<>());
+                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, java.util.Collections.emptyList());
 
                 if (!dayEvents.isEmpty()) {
                     sb.append(String.format("%2d*", currentDate.getDayOfMonth()));
@@ -1719,7 +1721,7 @@ public class CalendarGUI {
             boolean hasEvents = false;
             for (int i = 0; i < 7; i++) {
                 LocalDate currentDate = sundayOfWeek.plusDays(i);
-                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, new java.util.ArrayList<>());
+                List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, java.util.Collections.emptyList());
 
                 if (!dayEvents.isEmpty()) {
                     hasEvents = true;
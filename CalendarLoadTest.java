@@ -0,0 +1,119 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-test client for CalendarServer
+ * Usage: java CalendarLoadTest [port] [clients] [requestsPerClient] [--embedded]
+ * With --embedded an in-process server is started on the given port; it writes the CSV
+ * files of the working directory, so run it from a scratch directory.
+ */
+public class CalendarLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        boolean embedded = options.remove("--embedded");
+        int port = options.size() > 0 ? Integer.parseInt(options.get(0)) : CalendarServer.DEFAULT_PORT;
+        int clients = options.size() > 1 ? Integer.parseInt(options.get(1)) : 50;
+        int requestsPerClient = options.size() > 2 ? Integer.parseInt(options.get(2)) : 200;
+
+        CalendarServer server = null;
+        if (embedded) {
+            server = new CalendarServer(new ConcurrentEventManager(), port);
+            server.start();
+            port = server.getPort();
+        }
+
+        String baseUrl = "http://localhost:" + port;
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("Load test: %d clients x %d requests against %s%n", clients, requestsPerClient, baseUrl);
+
+        AtomicInteger errors = new AtomicInteger();
+        long startTime = System.nanoTime();
+        List<long[]> allLatencies = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                results.add(pool.submit(() -> runClient(client, baseUrl, requestsPerClient, errors)));
+            }
+            for (Future<long[]> result : results) {
+                allLatencies.add(result.get());
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        long[] latencies = allLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("Requests: %d, errors: %d, time: %.2f s, throughput: %.0f req/s%n",
+                latencies.length, errors.get(), seconds, latencies.length / seconds);
+        System.out.printf("Latency p50: %.2f ms, p95: %.2f ms, p99: %.2f ms, max: %.2f ms%n",
+                percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                percentile(latencies, 100));
+
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    /**
+     * Send a mix of creates, searches, lookups and stats requests
+     */
+    private static long[] runClient(HttpClient client, String baseUrl, int requests, AtomicInteger errors) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[requests];
+        int lastCreatedId = 1;
+
+        for (int i = 0; i < requests; i++) {
+            LocalDate day = LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365));
+            int roll = random.nextInt(100);
+            HttpRequest request;
+            if (roll < 20) {
+                LocalDateTime start = day.atTime(random.nextInt(8, 18), 0);
+                String body = JsonUtil.object("title", "Load test " + i, "description", "Generated",
+                        "start", start.toString(), "end", start.plusMinutes(45).toString());
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/events"))
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            } else if (roll < 70) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/search?date=" + day)).GET().build();
+            } else if (roll < 90) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/events/" + lastCreatedId)).GET().build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/stats")).GET().build();
+            }
+
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies[i] = System.nanoTime() - start;
+
+            if (response.statusCode() == 201) {
+                lastCreatedId = Integer.parseInt(JsonUtil.parseObject(response.body()).get("eventId"));
+            } else if (response.statusCode() >= 400 && response.statusCode() != 404) {
+                errors.incrementAndGet();
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
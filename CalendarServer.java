@@ -0,0 +1,342 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * Headless HTTP/JSON service exposing an EventManager
+ *
+ * Endpoints:
+ *   GET    /events                 all events (streamed page by page, in start-time order)
+ *   POST   /events                 create; body {title, description, start, end[, interval, times, endDate]}
+ *   GET    /events/{id}            single event
+ *   PUT    /events/{id}            update; body {title, description, start, end}
+ *   DELETE /events/{id}            delete
+ *   GET    /search?date=           events on a date
+ *   GET    /search?from=&to=       events in a date range
+ *   GET    /search?title=          events whose title contains a keyword
+ *   GET    /conflicts?start=&end=  events overlapping a time interval
+ *   GET    /stats                  summary statistics
+ * Requests are served on virtual threads; dates use ISO format (yyyy-MM-dd, yyyy-MM-ddTHH:mm).
+ * A recurring series may have at most MAX_OCCURRENCES occurrences.
+ */
+public class CalendarServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int PAGE_SIZE = 256;
+    private static final int MAX_OCCURRENCES = 10_000;
+
+    private final EventManager eventManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public CalendarServer(EventManager eventManager, int port) throws IOException {
+        this.eventManager = eventManager;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/events", this::handleEvents);
+        server.createContext("/search", this::handleSearch);
+        server.createContext("/conflicts", this::handleConflicts);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        CalendarServer calendarServer = new CalendarServer(new ConcurrentEventManager(), port);
+        calendarServer.start();
+        System.out.println("Calendar server listening on http://localhost:" + calendarServer.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+
+            if (path.equals("/events") || path.equals("/events/")) {
+                if (method.equals("GET")) {
+                    streamEvents(exchange, null, null, null);
+                } else if (method.equals("POST")) {
+                    createEvent(exchange);
+                } else {
+                    sendError(exchange, 405, "Method not allowed");
+                }
+                return;
+            }
+
+            int eventId = Integer.parseInt(path.substring("/events/".length()));
+            switch (method) {
+                case "GET": {
+                    Event event = eventManager.findEventById(eventId);
+                    if (event == null) {
+                        sendError(exchange, 404, "Event not found: " + eventId);
+                    } else {
+                        sendJson(exchange, 200, JsonUtil.toJson(ImmutableEvent.of(event)));
+                    }
+                    break;
+                }
+                case "PUT": {
+                    Map<String, String> body = readBody(exchange);
+                    LocalDateTime start = parseDateTime(required(body, "start"));
+                    LocalDateTime end = parseDateTime(required(body, "end"));
+                    validateInterval(start, end);
+                    String title = required(body, "title");
+                    String description = Objects.requireNonNullElse(body.get("description"), "");
+                    if (eventManager.updateEvent(eventId, title, description, start, end)) {
+                        // The values just stored; looking the event up again could race with a delete
+                        sendJson(exchange, 200, JsonUtil.toJson(new ImmutableEvent(eventId, title, description, start, end)));
+                    } else {
+                        sendError(exchange, 404, "Event not found: " + eventId);
+                    }
+                    break;
+                }
+                case "DELETE":
+                    if (eventManager.deleteEvent(eventId)) {
+                        exchange.sendResponseHeaders(204, -1);
+                    } else {
+                        sendError(exchange, 404, "Event not found: " + eventId);
+                    }
+                    break;
+                default:
+                    sendError(exchange, 405, "Method not allowed");
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void createEvent(HttpExchange exchange) throws IOException {
+        Map<String, String> body = readBody(exchange);
+        String title = required(body, "title");
+        String description = Objects.requireNonNullElse(body.get("description"), "");
+        LocalDateTime start = parseDateTime(required(body, "start"));
+        LocalDateTime end = parseDateTime(required(body, "end"));
+        validateInterval(start, end);
+
+        Event event;
+        String interval = body.get("interval");
+        if (interval == null) {
+            event = eventManager.createEvent(title, description, start, end);
+        } else {
+            if (!interval.matches("\\d+[dwm]")) {
+                throw new IllegalArgumentException("Invalid interval, expected e.g. 1d, 2w or 1m: " + interval);
+            }
+            int times = body.get("times") != null ? Integer.parseInt(body.get("times")) : 0;
+            LocalDate endDate = body.get("endDate") != null ? LocalDate.parse(body.get("endDate")) : null;
+            if (times <= 0 && endDate == null) {
+                throw new IllegalArgumentException("Recurring events need 'times' or 'endDate'");
+            }
+            checkOccurrences(RecurrenceRule.compile(interval, times, endDate), start);
+            event = eventManager.createRecurringEvent(title, description, start, end, interval, times, endDate);
+        }
+        sendJson(exchange, 201, JsonUtil.toJson(ImmutableEvent.of(event)));
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = parseQuery(exchange);
+            if (query.containsKey("date")) {
+                LocalDate date = LocalDate.parse(query.get("date"));
+                streamEvents(exchange, date, date, null);
+            } else if (query.containsKey("from") && query.containsKey("to")) {
+                streamEvents(exchange, LocalDate.parse(query.get("from")), LocalDate.parse(query.get("to")), null);
+            } else if (query.containsKey("title")) {
+                String keyword = query.get("title").toLowerCase();
+                streamEvents(exchange, null, null, event -> event.getTitle().toLowerCase().contains(keyword));
+            } else {
+                sendError(exchange, 400, "Use ?date=, ?from=&to= or ?title=");
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleConflicts(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = parseQuery(exchange);
+            LocalDateTime start = parseDateTime(required(query, "start"));
+            LocalDateTime end = parseDateTime(required(query, "end"));
+            validateInterval(start, end);
+            streamEvents(exchange, start.toLocalDate(), end.toLocalDate(),
+                    event -> start.isBefore(event.getEndDateTime()) && end.isAfter(event.getStartDateTime()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            EventSnapshot snapshot = eventManager.getSnapshot();
+            LocalDateTime now = LocalDateTime.now();
+            long past = 0;
+            long ongoing = 0;
+            long upcoming = 0;
+            Map<DayOfWeek, Integer> byDay = new EnumMap<>(DayOfWeek.class);
+            for (ImmutableEvent event : snapshot.getEvents()) {
+                if (event.endDateTime().isBefore(now)) {
+                    past++;
+                } else if (event.startDateTime().isAfter(now)) {
+                    upcoming++;
+                } else {
+                    ongoing++;
+                }
+                byDay.merge(event.startDateTime().getDayOfWeek(), 1, Integer::sum);
+            }
+            DayOfWeek busiestDay = byDay.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+
+            sendJson(exchange, 200, JsonUtil.object(
+                    "total", snapshot.size(),
+                    "past", past,
+                    "ongoing", ongoing,
+                    "upcoming", upcoming,
+                    "busiestDay", busiestDay,
+                    "nextEventId", eventManager.getNextEventId()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Write the events overlapping a date range (null for open) that match a filter (null for
+     * all) as a JSON array using chunked encoding, in start-time order
+     * Events are copied a page at a time under the manager's lock and written after it is released,
+     * so the result is never built in full and a concurrent update cannot tear a record. The first page is fetched before the headers are sent, so an invalid query
+     * still gets an error status.
+     */
+    private void streamEvents(HttpExchange exchange, LocalDate startDate, LocalDate endDate,
+                              Predicate<Event> filter) throws IOException {
+        EventPage<ImmutableEvent> page = eventManager.getSnapshotPage(startDate, endDate, filter, PAGE_SIZE, null);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024)) {
+            writer.write('[');
+            boolean first = true;
+            while (true) {
+                for (ImmutableEvent event : page.getEvents()) {
+                    if (!first) {
+                        writer.write(',');
+                    }
+                    JsonUtil.appendEvent(writer, event);
+                    first = false;
+                }
+                if (!page.hasMore()) {
+                    break;
+                }
+                page = eventManager.getSnapshotPage(startDate, endDate, filter, PAGE_SIZE, page.getNextToken());
+            }
+            writer.write(']');
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, JsonUtil.object("error", message));
+    }
+
+    private Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return JsonUtil.parseObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String required(Map<String, String> values, String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required field: " + key);
+        }
+        return value;
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        return IsoTimestampCodec.parse(value.trim());
+    }
+
+    /**
+     * Reject series that would create more than MAX_OCCURRENCES events under the write lock,
+     * including series that never reach their end date because the interval is zero
+     */
+    private static void checkOccurrences(RecurrenceRule rule, LocalDateTime start) {
+        long occurrences = rule.getLimit() > 0 ? rule.getLimit() : Long.MAX_VALUE;
+        LocalDate endDate = rule.getEndDate();
+        if (endDate != null) {
+            // Occurrences before the end date, plus one if the series lands on it
+            long beforeEnd = rule.indexOnOrAfter(start, endDate);
+            if (beforeEnd >= 0 && beforeEnd < occurrences) {
+                boolean onEnd = rule.nth(start, beforeEnd).toLocalDate().equals(endDate);
+                occurrences = beforeEnd + (onEnd ? 1 : 0);
+            }
+        }
+        if (occurrences > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("Recurring events are limited to " + MAX_OCCURRENCES + " occurrences");
+        }
+    }
+
+    private static void validateInterval(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End time cannot be before start time");
+        }
+    }
+}
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -5,102 +6,134 @@ import java.time.format.TextStyle;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Handles calendar display formatting and views
+ * Each view is rendered into a reusable buffer and printed with a single write; the render*
+ * methods write the same text to any Appendable from a pre-grouped EventDateIndex.
+ * An instance is not thread-safe; use one per thread.
  */
 public class CalendarView {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter MONTH_YEAR_FORMATTER = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String NEWLINE = System.lineSeparator();
+    private static final String RULE = "=".repeat(40);
+
+    // Reused by every display call so printing a view allocates no new buffer
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    @FunctionalInterface
+    private interface Renderer {
+        void render(Appendable out) throws IOException;
+    }
+
+    /**
+     * Render a view into the reusable buffer and print it with one write
+     */
+    private void print(Renderer renderer) {
+        buffer.setLength(0);
+        try {
+            renderer.render(buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder never throws
+        }
+        System.out.print(buffer);
+        System.out.flush();
+    }
 
     /**
      * Display calendar in month view
      */
     public void displayMonthView(YearMonth yearMonth, List<Event> events) {
-        System.out.println("\n" + MONTH_YEAR_FORMATTER.format(yearMonth).toUpperCase());
-        System.out.println("Su Mo Tu We Th Fr Sa");
+        displayMonthView(yearMonth, EventDateIndex.of(events));
+    }
 
-        // Group events by date for quick lookup
-        Map<LocalDate, List<Event>> eventsByDate = events.stream()
-                .collect(Collectors.groupingBy(e -> e.getStartDateTime().toLocalDate()));
+    public void displayMonthView(YearMonth yearMonth, EventDateIndex index) {
+        print(out -> renderMonthView(out, yearMonth, index));
+    }
+
+    /**
+     * Render the month grid followed by the month's events
+     */
+    public void renderMonthView(Appendable out, YearMonth yearMonth, EventDateIndex index) throws IOException {
+        out.append(NEWLINE).append(MONTH_YEAR_FORMATTER.format(yearMonth).toUpperCase()).append(NEWLINE);
+        out.append("Su Mo Tu We Th Fr Sa").append(NEWLINE);
 
         LocalDate firstDay = yearMonth.atDay(1);
-        LocalDate lastDay = yearMonth.atEndOfMonth();
+        int lastDay = yearMonth.lengthOfMonth();
         int firstDayOfWeek = firstDay.getDayOfWeek().getValue() % 7; // Sunday = 0
 
-        // Print leading spaces
+        // Leading spaces
         for (int i = 0; i < firstDayOfWeek; i++) {
-            System.out.print("   ");
+            out.append("   ");
         }
 
-        // Print days
-        for (int day = 1; day <= lastDay.getDayOfMonth(); day++) {
-            LocalDate currentDate = yearMonth.atDay(day);
-            List<Event> dayEvents = eventsByDate.get(currentDate);
-            
-            if (dayEvents != null && !dayEvents.isEmpty()) {
-                System.out.printf("%2d*", day);
-            } else {
-                System.out.printf("%2d ", day);
+        // Days
+        for (int day = 1; day <= lastDay; day++) {
+            appendDayCell(out, day, index.hasEvents(yearMonth.atDay(day)));
+            if ((firstDayOfWeek + day) % 7 == 0 || day == lastDay) {
+                out.append(NEWLINE);
             }
+        }
 
-            if ((firstDayOfWeek + day) % 7 == 0 || day == lastDay.getDayOfMonth()) {
-                System.out.println();
+        // Events for the month
+        out.append(NEWLINE).append("Events for ").append(MONTH_YEAR_FORMATTER.format(yearMonth)).append(':').append(NEWLINE);
+        out.append(RULE).append(NEWLINE);
+        for (Map.Entry<LocalDate, List<Event>> entry : index.range(firstDay, yearMonth.atEndOfMonth()).entrySet()) {
+            DATE_FORMATTER.formatTo(entry.getKey(), out);
+            out.append(':').append(NEWLINE);
+            for (Event event : entry.getValue()) {
+                out.append("  ");
+                TIME_FORMATTER.formatTo(event.getStartDateTime(), out);
+                out.append(" - ").append(event.getTitle()).append(NEWLINE);
             }
+            out.append(NEWLINE);
         }
-
-        // Display events for the month
-        displayEventsForMonth(eventsByDate, yearMonth);
     }
 
     /**
-     * Display events for the month
+     * Display week view
      */
-    private void displayEventsForMonth(Map<LocalDate, List<Event>> eventsByDate, YearMonth yearMonth) {
-        System.out.println("\nEvents for " + MONTH_YEAR_FORMATTER.format(yearMonth) + ":");
-        System.out.println("=" .repeat(40));
-
-        eventsByDate.entrySet().stream()
-                .filter(entry -> entry.getKey().getMonth() == yearMonth.getMonth() && 
-                                entry.getKey().getYear() == yearMonth.getYear())
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry -> {
-                    System.out.println(DATE_FORMATTER.format(entry.getKey()) + ":");
-                    entry.getValue().forEach(event -> 
-                        System.out.println("  " + TIME_FORMATTER.format(event.getStartDateTime()) + 
-                                         " - " + event.getTitle())
-                    );
-                    System.out.println();
-                });
+    public void displayWeekView(LocalDate weekStart, List<Event> events) {
+        displayWeekView(weekStart, EventDateIndex.of(events));
+    }
+
+    public void displayWeekView(LocalDate weekStart, EventDateIndex index) {
+        print(out -> renderWeekView(out, weekStart, index));
     }
 
     /**
-     * Display week view
+     * Render seven days starting at weekStart, one line per day
      */
-    public void displayWeekView(LocalDate weekStart, List<Event> events) {
-        System.out.println("\n=== Week of " + DATE_FORMATTER.format(weekStart) + " ===");
-
-        Map<LocalDate, List<Event>> eventsByDate = events.stream()
-                .collect(Collectors.groupingBy(e -> e.getStartDateTime().toLocalDate()));
+    public void renderWeekView(Appendable out, LocalDate weekStart, EventDateIndex index) throws IOException {
+        out.append(NEWLINE).append("=== Week of ");
+        DATE_FORMATTER.formatTo(weekStart, out);
+        out.append(" ===").append(NEWLINE);
 
         for (int i = 0; i < 7; i++) {
             LocalDate currentDate = weekStart.plusDays(i);
-            List<Event> dayEvents = eventsByDate.getOrDefault(currentDate, List.of());
+            List<Event> dayEvents = index.eventsOn(currentDate);
 
-            String dayName = currentDate.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH); // e.g., Sun
-            String prefix = String.format("%s %02d: ", dayName, currentDate.getDayOfMonth());
+            out.append(currentDate.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH)).append(' '); // e.g., Sun
+            appendTwoDigits(out, currentDate.getDayOfMonth());
+            out.append(": ");
 
             if (dayEvents.isEmpty()) {
-                System.out.println(prefix + "No events");
+                out.append("No events");
             } else {
-                String line = dayEvents.stream()
-                        .sorted((e1, e2) -> e1.getStartDateTime().compareTo(e2.getStartDateTime()))
-                        .map(ev -> ev.getTitle() + " (" + TIME_FORMATTER.format(ev.getStartDateTime()) + ")")
-                        .collect(Collectors.joining(", "));
-                System.out.println(prefix + line);
+                for (int j = 0; j < dayEvents.size(); j++) {
+                    Event event = dayEvents.get(j);
+                    if (j > 0) {
+                        out.append(", ");
+                    }
+                    out.append(event.getTitle()).append(" (");
+                    TIME_FORMATTER.formatTo(event.getStartDateTime(), out);
+                    out.append(')');
+                }
             }
+            out.append(NEWLINE);
         }
     }
 
@@ -108,26 +141,33 @@ public class CalendarView {
      * Display day view
      */
     public void displayDayView(LocalDate date, List<Event> events) {
-        System.out.println("\n=== " + date.getDayOfWeek() + ", " + DATE_FORMATTER.format(date) + " ===");
+        displayDayView(date, EventDateIndex.of(events));
+    }
 
-        List<Event> dayEvents = events.stream()
-                .filter(e -> e.getStartDateTime().toLocalDate().equals(date))
-                .sorted((e1, e2) -> e1.getStartDateTime().compareTo(e2.getStartDateTime()))
-                .collect(Collectors.toList());
+    public void displayDayView(LocalDate date, EventDateIndex index) {
+        print(out -> renderDayView(out, date, index));
+    }
 
+    /**
+     * Render the events starting on one day with their times and descriptions
+     */
+    public void renderDayView(Appendable out, LocalDate date, EventDateIndex index) throws IOException {
+        out.append(NEWLINE).append("=== ").append(date.getDayOfWeek().toString()).append(", ");
+        DATE_FORMATTER.formatTo(date, out);
+        out.append(" ===").append(NEWLINE);
+
+        List<Event> dayEvents = index.eventsOn(date);
         if (dayEvents.isEmpty()) {
-            System.out.println("No events for this day.");
-        } else {
-            for (Event event : dayEvents) {
-                System.out.printf("%s - %s: %s%n",
-                    TIME_FORMATTER.format(event.getStartDateTime()),
-                    TIME_FORMATTER.format(event.getEndDateTime()),
-                    event.getTitle());
-                if (!event.getDescription().isEmpty()) {
-                    System.out.println("  " + event.getDescription());
-                }
-                System.out.println();
-            }
+            out.append("No events for this day.").append(NEWLINE);
+            return;
+        }
+        for (Event event : dayEvents) {
+            TIME_FORMATTER.formatTo(event.getStartDateTime(), out);
+            out.append(" - ");
+            TIME_FORMATTER.formatTo(event.getEndDateTime(), out);
+            out.append(": ").append(event.getTitle()).append(NEWLINE);
+            appendDescription(out, event);
+            out.append(NEWLINE);
         }
     }
 
@@ -135,30 +175,59 @@ public class CalendarView {
      * Display list view for a date range
      */
     public void displayListView(LocalDate startDate, LocalDate endDate, List<Event> events) {
-        System.out.printf("\n=== Events from %s to %s ===%n", 
-            DATE_FORMATTER.format(startDate), DATE_FORMATTER.format(endDate));
-
-        List<Event> filteredEvents = events.stream()
-                .filter(e -> {
-                    LocalDate eventDate = e.getStartDateTime().toLocalDate();
-                    return !eventDate.isBefore(startDate) && !eventDate.isAfter(endDate);
-                })
-                .sorted((e1, e2) -> e1.getStartDateTime().compareTo(e2.getStartDateTime()))
-                .collect(Collectors.toList());
-
-        if (filteredEvents.isEmpty()) {
-            System.out.println("No events found in the specified date range.");
-        } else {
-            for (Event event : filteredEvents) {
-                System.out.printf("%s %s: %s%n",
-                    DATE_FORMATTER.format(event.getStartDateTime().toLocalDate()),
-                    TIME_FORMATTER.format(event.getStartDateTime()),
-                    event.getTitle());
-                if (!event.getDescription().isEmpty()) {
-                    System.out.println("  " + event.getDescription());
-                }
-                System.out.println();
-            }
+        displayListView(startDate, endDate, EventDateIndex.of(events));
+    }
+
+    public void displayListView(LocalDate startDate, LocalDate endDate, EventDateIndex index) {
+        print(out -> renderListView(out, startDate, endDate, index));
+    }
+
+    /**
+     * Render every event starting within a date range, in start-time order
+     */
+    public void renderListView(Appendable out, LocalDate startDate, LocalDate endDate, EventDateIndex index) throws IOException {
+        renderListHeader(out, startDate, endDate);
+
+        Map<LocalDate, List<Event>> days = index.range(startDate, endDate);
+        if (days.isEmpty()) {
+            out.append("No events found in the specified date range.").append(NEWLINE);
+            return;
+        }
+        for (List<Event> dayEvents : days.values()) {
+            renderListEntries(out, dayEvents);
+        }
+    }
+
+    /**
+     * Display the header of a paged list view
+     */
+    public void displayListHeader(LocalDate startDate, LocalDate endDate) {
+        print(out -> renderListHeader(out, startDate, endDate));
+    }
+
+    public void renderListHeader(Appendable out, LocalDate startDate, LocalDate endDate) throws IOException {
+        out.append(NEWLINE).append("=== Events from ");
+        DATE_FORMATTER.formatTo(startDate, out);
+        out.append(" to ");
+        DATE_FORMATTER.formatTo(endDate, out);
+        out.append(" ===").append(NEWLINE);
+    }
+
+    /**
+     * Display events in list view format (one page of a list view)
+     */
+    public void displayListEntries(List<Event> events) {
+        print(out -> renderListEntries(out, events));
+    }
+
+    public void renderListEntries(Appendable out, List<Event> events) throws IOException {
+        for (Event event : events) {
+            DATE_FORMATTER.formatTo(event.getStartDateTime(), out);
+            out.append(' ');
+            TIME_FORMATTER.formatTo(event.getStartDateTime(), out);
+            out.append(": ").append(event.getTitle()).append(NEWLINE);
+            appendDescription(out, event);
+            out.append(NEWLINE);
         }
     }
 
@@ -166,22 +235,24 @@ public class CalendarView {
      * Display search results
      */
     public void displaySearchResults(List<Event> results, String searchType) {
-        System.out.println("\n=== Search Results (" + searchType + ") ===");
-        
+        print(out -> renderSearchResults(out, results, searchType));
+    }
+
+    public void renderSearchResults(Appendable out, List<Event> results, String searchType) throws IOException {
+        out.append(NEWLINE).append("=== Search Results (").append(searchType).append(") ===").append(NEWLINE);
+
         if (results.isEmpty()) {
-            System.out.println("No events found.");
-        } else {
-            for (Event event : results) {
-                System.out.printf("ID: %d | %s %s: %s%n",
-                    event.getEventId(),
-                    DATE_FORMATTER.format(event.getStartDateTime().toLocalDate()),
-                    TIME_FORMATTER.format(event.getStartDateTime()),
-                    event.getTitle());
-                if (!event.getDescription().isEmpty()) {
-                    System.out.println("  " + event.getDescription());
-                }
-                System.out.println();
-            }
+            out.append("No events found.").append(NEWLINE);
+            return;
+        }
+        for (Event event : results) {
+            out.append("ID: ").append(Integer.toString(event.getEventId())).append(" | ");
+            DATE_FORMATTER.formatTo(event.getStartDateTime(), out);
+            out.append(' ');
+            TIME_FORMATTER.formatTo(event.getStartDateTime(), out);
+            out.append(": ").append(event.getTitle()).append(NEWLINE);
+            appendDescription(out, event);
+            out.append(NEWLINE);
         }
     }
 
@@ -189,76 +260,94 @@ public class CalendarView {
      * Display event details
      */
     public void displayEventDetails(Event event) {
-        System.out.println("\n=== Event Details ===");
-        System.out.println("ID: " + event.getEventId());
-        System.out.println("Title: " + event.getTitle());
-        System.out.println("Description: " + event.getDescription());
-        System.out.println("Start: " + event.getStartDateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-        System.out.println("End: " + event.getEndDateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+        print(out -> renderEventDetails(out, event));
+    }
+
+    public void renderEventDetails(Appendable out, Event event) throws IOException {
+        out.append(NEWLINE).append("=== Event Details ===").append(NEWLINE);
+        out.append("ID: ").append(Integer.toString(event.getEventId())).append(NEWLINE);
+        out.append("Title: ").append(event.getTitle()).append(NEWLINE);
+        out.append("Description: ").append(event.getDescription()).append(NEWLINE);
+        out.append("Start: ");
+        DATE_TIME_FORMATTER.formatTo(event.getStartDateTime(), out);
+        out.append(NEWLINE).append("End: ");
+        DATE_TIME_FORMATTER.formatTo(event.getEndDateTime(), out);
+        out.append(NEWLINE);
     }
 
     /**
      * Display calendar in week view (grid format)
      */
     public void displayWeekCalendarView(LocalDate weekStart, List<Event> events) {
+        displayWeekCalendarView(weekStart, EventDateIndex.of(events));
+    }
+
+    public void displayWeekCalendarView(LocalDate weekStart, EventDateIndex index) {
+        print(out -> renderWeekCalendarView(out, weekStart, index));
+    }
+
+    /**
+     * Render the Sunday-Saturday grid of the week containing weekStart, followed by its events
+     */
+    public void renderWeekCalendarView(Appendable out, LocalDate weekStart, EventDateIndex index) throws IOException {
         // Calculate Monday of the week
         LocalDate mondayOfWeek = weekStart.minusDays(weekStart.getDayOfWeek().getValue() - 1);
 
-        System.out.println("\n=== Week of " + DATE_FORMATTER.format(mondayOfWeek) + " ===");
-        System.out.println("Su Mo Tu We Th Fr Sa");
+        out.append(NEWLINE).append("=== Week of ");
+        DATE_FORMATTER.formatTo(mondayOfWeek, out);
+        out.append(" ===").append(NEWLINE);
+        out.append("Su Mo Tu We Th Fr Sa").append(NEWLINE);
 
-        // Group events by date for quick lookup
-        Map<LocalDate, List<Event>> eventsByDate = events.stream()
-                .collect(Collectors.groupingBy(e -> e.getStartDateTime().toLocalDate()));
-
-        // Display 7 days starting from Monday (convert to Sunday-Saturday order for display)
-        // We need to start from Sunday, so if mondayOfWeek is Monday (1), we go back 1 day to Sunday
+        // The grid runs Sunday-Saturday, so start the day before Monday
         LocalDate sundayOfWeek = mondayOfWeek.minusDays(1);
-
         for (int i = 0; i < 7; i++) {
             LocalDate currentDate = sundayOfWeek.plusDays(i);
-            List<Event> dayEvents = eventsByDate.get(currentDate);
+            appendDayCell(out, currentDate.getDayOfMonth(), index.hasEvents(currentDate));
+        }
+        out.append(NEWLINE);
 
-            if (dayEvents != null && !dayEvents.isEmpty()) {
-                System.out.printf("%2d*", currentDate.getDayOfMonth());
-            } else {
-                System.out.printf("%2d ", currentDate.getDayOfMonth());
+        // Events for the week
+        out.append(NEWLINE).append("Events for this week:").append(NEWLINE);
+        out.append(RULE).append(NEWLINE);
+
+        Map<LocalDate, List<Event>> days = index.range(sundayOfWeek, sundayOfWeek.plusDays(6));
+        if (days.isEmpty()) {
+            out.append("No events for this week.").append(NEWLINE);
+            return;
+        }
+        for (Map.Entry<LocalDate, List<Event>> entry : days.entrySet()) {
+            out.append(entry.getKey().getDayOfWeek().toString()).append(' ');
+            DATE_FORMATTER.formatTo(entry.getKey(), out);
+            out.append(':').append(NEWLINE);
+            for (Event event : entry.getValue()) {
+                out.append("  ");
+                TIME_FORMATTER.formatTo(event.getStartDateTime(), out);
+                out.append(" - ").append(event.getTitle()).append(NEWLINE);
             }
+            out.append(NEWLINE);
         }
-        System.out.println();
-
-        // Display events for the week
-        displayEventsForWeekCalendar(eventsByDate, mondayOfWeek);
     }
 
     /**
-     * Display events for the week calendar
+     * Append a day number right-aligned to two columns, marked with '*' when it has events
      */
-    private void displayEventsForWeekCalendar(Map<LocalDate, List<Event>> eventsByDate, LocalDate mondayOfWeek) {
-        System.out.println("\nEvents for this week:");
-        System.out.println("=" .repeat(40));
-
-        LocalDate sundayOfWeek = mondayOfWeek.minusDays(1);
+    private static void appendDayCell(Appendable out, int day, boolean hasEvents) throws IOException {
+        if (day < 10) {
+            out.append(' ');
+        }
+        out.append(Integer.toString(day)).append(hasEvents ? '*' : ' ');
+    }
 
-        boolean hasEvents = false;
-        for (int i = 0; i < 7; i++) {
-            LocalDate currentDate = sundayOfWeek.plusDays(i);
-            List<Event> dayEvents = eventsByDate.get(currentDate);
-
-            if (dayEvents != null && !dayEvents.isEmpty()) {
-                hasEvents = true;
-                String dayName = currentDate.getDayOfWeek().toString();
-                System.out.println(dayName + " " + DATE_FORMATTER.format(currentDate) + ":");
-                dayEvents.forEach(event ->
-                    System.out.println("  " + TIME_FORMATTER.format(event.getStartDateTime()) +
-                                     " - " + event.getTitle())
-                );
-                System.out.println();
-            }
+    private static void appendTwoDigits(Appendable out, int value) throws IOException {
+        if (value < 10) {
+            out.append('0');
         }
+        out.append(Integer.toString(value));
+    }
 
-        if (!hasEvents) {
-            System.out.println("No events for this week.");
+    private static void appendDescription(Appendable out, Event event) throws IOException {
+        if (!event.getDescription().isEmpty()) {
+            out.append("  ").append(event.getDescription()).append(NEWLINE);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,358 @@
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Throughput of the CSV and timestamp codecs and of recurrence rules against the concatenation,
+ * split, java.time formatting and interval re-parsing they replaced
+ * Usage: java CodecBenchmark [events] [rounds]
+ * Each round encodes and decodes every event once per codec; the best round is reported, with
+ * the bytes the thread allocated per event in its least allocating round.
+ */
+public class CodecBenchmark {
+    private static final String[] WORDS = {"Team", "meeting", "Lunch", "review", "Call", "with", "client",
+            "Sprint", "planning", "Dentist", "Gym", "Project", "sync", "Q1", "goals", "Standup"};
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile Object sink; // Keeps results alive so the work is not optimised away
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        List<Event> plain = generate(count, false);
+        List<Event> quoted = generate(count, true);
+        List<String> plainLines = new ArrayList<>(count);
+        for (Event event : plain) {
+            plainLines.add(event.toCSV());
+        }
+        List<String> quotedLines = new ArrayList<>(count);
+        for (Event event : quoted) {
+            quotedLines.add(event.toCSV());
+        }
+
+        System.out.printf("%d events, best of %d rounds%n", count, rounds);
+        report("encode concat (old)", count, rounds, () -> {
+            long length = 0;
+            for (Event event : plain) {
+                length += concat(event).length();
+            }
+            sink = length;
+        });
+        report("encode toCSV", count, rounds, () -> {
+            long length = 0;
+            for (Event event : plain) {
+                length += event.toCSV().length();
+            }
+            sink = length;
+        });
+        report("encode appendCSV", count, rounds, () -> {
+            StringBuilder sb = new StringBuilder(128);
+            long length = 0;
+            for (Event event : plain) {
+                sb.setLength(0);
+                event.appendCSV(sb);
+                length += sb.length();
+            }
+            sink = length;
+        });
+        report("encode appendCSV, quoted", count, rounds, () -> {
+            StringBuilder sb = new StringBuilder(128);
+            long length = 0;
+            for (Event event : quoted) {
+                sb.setLength(0);
+                event.appendCSV(sb);
+                length += sb.length();
+            }
+            sink = length;
+        });
+        report("write concat (old)", count, rounds, () -> {
+            BufferedWriter writer = new BufferedWriter(Writer.nullWriter(), 64 * 1024);
+            for (Event event : plain) {
+                writer.write(concat(event));
+                writer.newLine();
+            }
+            writer.flush();
+        });
+        report("write toCSV", count, rounds, () -> {
+            BufferedWriter writer = new BufferedWriter(Writer.nullWriter(), 64 * 1024);
+            for (Event event : plain) {
+                writer.write(event.toCSV());
+                writer.newLine();
+            }
+            writer.flush();
+        });
+        report("save BufferedWriter (old)", count, rounds, () -> {
+            BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+            for (Event event : plain) {
+                writer.write(event.toCSV());
+                writer.newLine();
+            }
+            writer.flush();
+        });
+        report("save CsvEventWriter", count, rounds, () -> {
+            try (CsvEventWriter writer = new CsvEventWriter(OutputStream.nullOutputStream())) {
+                for (Event event : plain) {
+                    writer.write(event);
+                }
+            }
+        });
+        report("decode split (old)", count, rounds, () -> {
+            Event last = null;
+            for (String line : plainLines) {
+                last = split(line);
+            }
+            sink = last;
+        });
+        report("decode fromCSV", count, rounds, () -> {
+            Event last = null;
+            for (String line : plainLines) {
+                last = Event.fromCSV(line);
+            }
+            sink = last;
+        });
+        report("decode fromCSV, quoted", count, rounds, () -> {
+            Event last = null;
+            for (String line : quotedLines) {
+                last = Event.fromCSV(line);
+            }
+            sink = last;
+        });
+
+        List<String> timestamps = new ArrayList<>(count);
+        List<String> userInput = new ArrayList<>(count);
+        List<String> invalidInput = new ArrayList<>(count);
+        for (Event event : plain) {
+            String timestamp = event.getStartDateTime().toString();
+            timestamps.add(timestamp);
+            userInput.add(timestamp.replace('T', ' '));
+            invalidInput.add(timestamp.replace('T', ' ').substring(0, 14) + "7x");
+        }
+        DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        report("timestamp toString", count, rounds, () -> {
+            long length = 0;
+            for (Event event : plain) {
+                length += event.getStartDateTime().toString().length();
+            }
+            sink = length;
+        });
+        report("timestamp codec format", count, rounds, () -> {
+            long length = 0;
+            for (Event event : plain) {
+                length += IsoTimestampCodec.format(event.getStartDateTime()).length();
+            }
+            sink = length;
+        });
+        report("timestamp codec encode", count, rounds, () -> {
+            byte[] buffer = new byte[IsoTimestampCodec.MAX_LENGTH];
+            long length = 0;
+            for (Event event : plain) {
+                length += IsoTimestampCodec.encode(event.getStartDateTime(), buffer, 0);
+            }
+            sink = length;
+        });
+        report("timestamp LocalDateTime.parse", count, rounds, () -> {
+            LocalDateTime last = null;
+            for (String timestamp : timestamps) {
+                last = LocalDateTime.parse(timestamp);
+            }
+            sink = last;
+        });
+        report("timestamp codec parse", count, rounds, () -> {
+            LocalDateTime last = null;
+            for (String timestamp : timestamps) {
+                last = IsoTimestampCodec.parse(timestamp);
+            }
+            sink = last;
+        });
+        report("input formatter parse", count, rounds, () -> {
+            LocalDateTime last = null;
+            for (String input : userInput) {
+                last = LocalDateTime.parse(input, inputFormat);
+            }
+            sink = last;
+        });
+        report("input codec parse", count, rounds, () -> {
+            LocalDateTime last = null;
+            for (String input : userInput) {
+                last = IsoTimestampCodec.parse(input);
+            }
+            sink = last;
+        });
+        report("invalid formatter (throws)", count, rounds, () -> {
+            int rejected = 0;
+            for (String input : invalidInput) {
+                try {
+                    LocalDateTime.parse(input, inputFormat);
+                } catch (DateTimeParseException e) {
+                    rejected++;
+                }
+            }
+            sink = rejected;
+        });
+        report("invalid codec isValid", count, rounds, () -> {
+            int rejected = 0;
+            for (String input : invalidInput) {
+                if (!IsoTimestampCodec.isValid(input)) {
+                    rejected++;
+                }
+            }
+            sink = rejected;
+        });
+
+        // Dialog input: a third each of 12-hour, 24-hour and invalid text
+        DateTimeFormatter twelveHourFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a");
+        List<String> dialogInput = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = plain.get(i).getStartDateTime();
+            dialogInput.add(i % 3 == 0 ? twelveHourFormat.format(start) : i % 3 == 1 ? inputFormat.format(start) : invalidInput.get(i));
+        }
+        report("dialog formatters (throws)", count, rounds, () -> {
+            int parsed = 0;
+            for (String input : dialogInput) {
+                try {
+                    LocalDateTime.parse(input, twelveHourFormat);
+                    parsed++;
+                } catch (DateTimeParseException e) {
+                    try {
+                        LocalDateTime.parse(input, inputFormat);
+                        parsed++;
+                    } catch (DateTimeParseException e2) {
+                        // Invalid
+                    }
+                }
+            }
+            sink = parsed;
+        });
+        report("dialog sniffing parser", count, rounds, () -> {
+            int parsed = 0;
+            for (String input : dialogInput) {
+                if (DateTimeInputParser.tryParse(input) != null) {
+                    parsed++;
+                }
+            }
+            sink = parsed;
+        });
+
+        // Recurring series: every occurrence of a daily series one event long, and lookups by date
+        RecurringEvent daily = new RecurringEvent(1, "1d", count, null);
+        LocalDateTime seriesStart = plain.get(0).getStartDateTime();
+        LocalDateTime seriesEnd = plain.get(0).getEndDateTime();
+        report("expand re-parsed interval (old)", count, rounds, () -> {
+            LocalDateTime start = seriesStart;
+            LocalDateTime end = seriesEnd;
+            for (int i = 1; i < count; i++) {
+                start = advance(start, daily);
+                end = advance(end, daily);
+            }
+            sink = end;
+        });
+        report("expand rule occurrences", count, rounds, () -> {
+            RecurrenceRule.Occurrences occurrences = daily.getRule().occurrences(seriesStart, seriesEnd);
+            LocalDateTime end = null;
+            while (occurrences.next()) {
+                end = occurrences.end();
+            }
+            sink = end;
+        });
+        report("lookup step by step (old)", 100, 1, () -> {
+            LocalDateTime start = null;
+            for (int i = 0; i < 100; i++) {
+                start = seriesStart;
+                LocalDate target = seriesStart.toLocalDate().plusDays(count - i);
+                while (start.toLocalDate().isBefore(target)) {
+                    start = advance(start, daily);
+                }
+            }
+            sink = start;
+        });
+        report("lookup rule indexOnOrAfter", 100, rounds, () -> {
+            RecurrenceRule rule = daily.getRule();
+            LocalDateTime start = null;
+            for (int i = 0; i < 100; i++) {
+                LocalDate target = seriesStart.toLocalDate().plusDays(count - i);
+                start = rule.nth(seriesStart, rule.indexOnOrAfter(seriesStart, target));
+            }
+            sink = start;
+        });
+    }
+
+    /**
+     * One interval step as it was computed before RecurrenceRule, re-reading the interval text
+     */
+    private static LocalDateTime advance(LocalDateTime dateTime, RecurringEvent recurringConfig) {
+        int value = recurringConfig.getIntervalValue();
+        switch (recurringConfig.getIntervalType()) {
+            case 'd':
+                return dateTime.plusDays(value);
+            case 'w':
+                return dateTime.plusWeeks(value);
+            default:
+                return dateTime.plusMonths(value);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws Exception;
+    }
+
+    private static void report(String name, int count, int rounds, Round round) throws Exception {
+        long best = Long.MAX_VALUE;
+        long leastAllocated = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long allocated = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            round.run();
+            best = Math.min(best, System.nanoTime() - start);
+            leastAllocated = Math.min(leastAllocated, THREADS.getCurrentThreadAllocatedBytes() - allocated);
+        }
+        System.out.printf("%-30s %8.1f ms  %6.0f ns/event  %6.1f B/event allocated%n",
+                name, best / 1e6, (double) best / count, (double) leastAllocated / count);
+    }
+
+    /**
+     * Events with word titles; quoted ones also contain commas and double quotes
+     */
+    private static List<Event> generate(int count, boolean quoted) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 8, 0);
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)];
+            if (quoted) {
+                title = title + ", " + WORDS[random.nextInt(WORDS.length)];
+                description = "\"" + description + "\" notes";
+            }
+            LocalDateTime start = base.plusMinutes(30L * random.nextInt(500_000));
+            events.add(new Event(i + 1, title, description, start, start.plusMinutes(60)));
+        }
+        return events;
+    }
+
+    private static String concat(Event event) {
+        return event.getEventId() + "," + event.getTitle() + "," + event.getDescription() + ","
+                + event.getStartDateTime() + "," + event.getEndDateTime();
+    }
+
+    private static Event split(String line) {
+        String[] parts = line.split(",", 5);
+        return new Event(Integer.parseInt(parts[0].trim()), parts[1].trim(), parts[2].trim(),
+                LocalDateTime.parse(parts[3].trim()), LocalDateTime.parse(parts[4].trim()));
+    }
+}
@@ -0,0 +1,445 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe EventManager.
+ * Reads share a read lock, mutations take the write lock only while changing memory,
+ * and the CSV flush happens afterwards under a separate lock so readers are never
+ * blocked by disk I/O. Concurrent flushes are coalesced: a flush is skipped when a
+ * newer state has already been written.
+ * Returned Event objects are still the live instances; use getSnapshot() for values
+ * that are safe to keep and read from other threads.
+ */
+public class ConcurrentEventManager extends EventManager {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+
+    // Guarded by the write lock
+    private PendingFlush pendingFlush;
+    // Guarded by flushLock
+    private long flushedVersion;
+    private final Map<YearMonth, Long> flushedShardVersions = new HashMap<>();
+    private final Map<Integer, Long> flushedEventVersions = new HashMap<>();
+    private long restoredVersion; // Shards and records written before this were replaced by a restore
+    private final Set<YearMonth> failedShards = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> failedEventIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * State captured under the write lock, written to disk after the lock is released
+     * Holds either all events (single file), the changed shards (sharded storage) or the
+     * changed records (key-value store).
+     */
+    private static final class PendingFlush {
+        private final long version;
+        private final EventSnapshot events;
+        private final Map<YearMonth, List<ImmutableEvent>> shards;
+        private final BackupDiff records;
+        private final List<RecurringEvent> recurringEvents;
+        private final Map<Integer, Long> changes;
+
+        private PendingFlush(long version, EventSnapshot events, Map<YearMonth, List<ImmutableEvent>> shards,
+                             BackupDiff records, List<RecurringEvent> recurringEvents, Map<Integer, Long> changes) {
+            this.version = version;
+            this.events = events;
+            this.shards = shards;
+            this.records = records;
+            this.recurringEvents = recurringEvents;
+            this.changes = changes;
+        }
+    }
+
+    public ConcurrentEventManager() {
+        super();
+    }
+
+    /**
+     * Create a manager that first reads only the events overlapping a date window
+     * See EventManager(LocalDate, LocalDate); combine with loadRemainingInBackground().
+     */
+    public ConcurrentEventManager(LocalDate windowStart, LocalDate windowEnd) {
+        super(windowStart, windowEnd);
+    }
+
+    /**
+     * Capture the state to persist instead of writing it while the write lock is held
+     */
+    @Override
+    protected void saveData() {
+        long version = super.getChangeSequence();
+        Map<Integer, Long> changes = drainUnsavedChanges();
+        for (Iterator<YearMonth> failed = failedShards.iterator(); failed.hasNext(); ) {
+            markShardsDirty(List.of(failed.next()));
+            failed.remove();
+        }
+        if (pendingFlush != null) {
+            // Saved twice within one mutation: the earlier state was never flushed, carry it along
+            Map<Integer, Long> merged = new LinkedHashMap<>(pendingFlush.changes);
+            merged.putAll(changes);
+            changes = merged;
+            if (pendingFlush.shards != null) {
+                markShardsDirty(pendingFlush.shards.keySet());
+            }
+        }
+        if (getCsvHandler().supportsPointUpdates()) {
+            Set<Integer> eventIds = new LinkedHashSet<>(changes.keySet());
+            for (Iterator<Integer> failed = failedEventIds.iterator(); failed.hasNext(); ) {
+                eventIds.add(failed.next());
+                failed.remove();
+            }
+            pendingFlush = new PendingFlush(version, null, null, describeChanges(version, eventIds), null, changes);
+        } else if (getCsvHandler().isSharded()) {
+            pendingFlush = new PendingFlush(version, null, drainDirtyShards(), null, copyRecurringEvents(), changes);
+        } else {
+            pendingFlush = new PendingFlush(version, super.getSnapshot(), null, null, copyRecurringEvents(), changes);
+        }
+    }
+
+    /**
+     * Run a mutation under the write lock, then flush its result outside the lock
+     */
+    private <T> T write(Supplier<T> mutation) {
+        T result;
+        PendingFlush flush;
+        lock.writeLock().lock();
+        try {
+            result = mutation.get();
+            if (lock.getWriteHoldCount() > 1) {
+                return result; // Nested call, the outermost mutation flushes
+            }
+            flush = pendingFlush;
+            pendingFlush = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (flush != null) {
+            flush(flush);
+        }
+        return result;
+    }
+
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write captured state to disk unless a newer state has already been written
+     * Journal entries are always appended, since each flush carries only its own changes.
+     */
+    private void flush(PendingFlush flush) {
+        synchronized (flushLock) {
+            CSVHandler csvHandler = getCsvHandler();
+            csvHandler.appendChangeJournal(flush.changes, 0);
+            if (flush.records != null) {
+                flushRecords(flush);
+                return;
+            }
+            if (flush.shards != null) {
+                flushShards(flush);
+            }
+            if (flush.version <= flushedVersion) {
+                return;
+            }
+            if (flush.events != null) {
+                csvHandler.writeEvents(flush.events);
+            }
+            csvHandler.writeRecurringEvents(flush.recurringEvents);
+            flushedVersion = flush.version;
+        }
+    }
+
+    /**
+     * Write the shards of a flush that no newer flush or restore has written
+     * A flush only carries the shards it changed, so a newer flush having gone first does not
+     * make the whole flush obsolete, only the shards both of them wrote.
+     */
+    private void flushShards(PendingFlush flush) {
+        Map<YearMonth, List<ImmutableEvent>> shards = new HashMap<>();
+        for (Map.Entry<YearMonth, List<ImmutableEvent>> shard : flush.shards.entrySet()) {
+            long written = Math.max(restoredVersion, flushedShardVersions.getOrDefault(shard.getKey(), -1L));
+            if (flush.version > written) {
+                shards.put(shard.getKey(), shard.getValue());
+            }
+        }
+        if (getCsvHandler().writeShards(shards)) {
+            for (YearMonth month : shards.keySet()) {
+                flushedShardVersions.put(month, flush.version);
+            }
+        } else {
+            failedShards.addAll(shards.keySet()); // Picked up by the next save
+        }
+    }
+
+    /**
+     * Shards are loaded under the write lock; reads load what they need first, so the
+     * queries themselves never change memory under the read lock
+     */
+    @Override
+    public void loadWindow(LocalDate startDate, LocalDate endDate) {
+        if (!super.isFullyLoaded() && !read(() -> super.isWindowLoaded(startDate, endDate))) {
+            write(() -> {
+                super.loadWindow(startDate, endDate);
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public boolean isWindowLoaded(LocalDate startDate, LocalDate endDate) {
+        return read(() -> super.isWindowLoaded(startDate, endDate));
+    }
+
+    @Override
+    public void loadRemainingInBackground() {
+        write(() -> {
+            super.loadRemainingInBackground();
+            return null;
+        });
+    }
+
+    /**
+     * Take each shard in as soon as the background loader has read it
+     */
+    @Override
+    protected void shardPrefetched() {
+        write(() -> {
+            loadPrefetchedShards();
+            return null;
+        });
+    }
+
+    /**
+     * Write the records of a flush that no newer flush or restore has written, as flushShards
+     * does for shards
+     */
+    private void flushRecords(PendingFlush flush) {
+        Set<Integer> eventIds = new HashSet<>();
+        List<ImmutableEvent> events = new ArrayList<>();
+        for (ImmutableEvent event : flush.records.getEvents()) {
+            if (isNewerThanFlushed(event.eventId(), flush.version)) {
+                events.add(event);
+                eventIds.add(event.eventId());
+            }
+        }
+        List<RecurringEvent> recurringEvents = new ArrayList<>();
+        for (RecurringEvent recurringEvent : flush.records.getRecurringEvents()) {
+            if (eventIds.contains(recurringEvent.getEventId())) {
+                recurringEvents.add(recurringEvent);
+            }
+        }
+        List<Integer> deletedIds = new ArrayList<>();
+        for (int eventId : flush.records.getDeletedIds()) {
+            if (isNewerThanFlushed(eventId, flush.version)) {
+                deletedIds.add(eventId);
+                eventIds.add(eventId);
+            }
+        }
+
+        BackupDiff records = new BackupDiff(flush.records.getBaseSequence(), flush.version,
+                events, recurringEvents, deletedIds);
+        if (records.isEmpty() || getCsvHandler().applyChanges(records)) {
+            for (int eventId : eventIds) {
+                flushedEventVersions.put(eventId, flush.version);
+            }
+        } else {
+            failedEventIds.addAll(eventIds); // Picked up by the next save
+        }
+    }
+
+    private boolean isNewerThanFlushed(int eventId, long version) {
+        return version > Math.max(restoredVersion, flushedEventVersions.getOrDefault(eventId, -1L));
+    }
+
+    @Override
+    public Event createEvent(String title, String description, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return write(() -> super.createEvent(title, description, startDateTime, endDateTime));
+    }
+
+    @Override
+    public Event createRecurringEvent(String title, String description, LocalDateTime startDateTime,
+                                      LocalDateTime endDateTime, String recurrentInterval,
+                                      int recurrentTimes, LocalDate recurrentEndDate) {
+        return write(() -> super.createRecurringEvent(title, description, startDateTime, endDateTime,
+                recurrentInterval, recurrentTimes, recurrentEndDate));
+    }
+
+    @Override
+    public boolean updateEvent(int eventId, String title, String description,
+                               LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return write(() -> super.updateEvent(eventId, title, description, startDateTime, endDateTime));
+    }
+
+    @Override
+    public boolean deleteEvent(int eventId) {
+        return write(() -> super.deleteEvent(eventId));
+    }
+
+    /**
+     * Batches are global: while one is open, every thread's mutations are deferred to its commit
+     */
+    @Override
+    public void beginBatch() {
+        write(() -> {
+            super.beginBatch();
+            return null;
+        });
+    }
+
+    @Override
+    public void commitBatch() {
+        write(() -> {
+            super.commitBatch();
+            return null;
+        });
+    }
+
+    @Override
+    public boolean isInBatch() {
+        return read(super::isInBatch);
+    }
+
+    @Override
+    public boolean restoreFromBackup(String backupFilePath, boolean append, boolean skipDuplicates) {
+        return write(() -> {
+            synchronized (flushLock) {
+                boolean success = super.restoreFromBackup(backupFilePath, append, skipDuplicates);
+                // The restored files are already on disk, older pending flushes must not overwrite them
+                flushedVersion = super.getChangeSequence();
+                restoredVersion = flushedVersion;
+                return success;
+            }
+        });
+    }
+
+    /**
+     * Restore the whole chain under the write lock, so readers never see the full backup without
+     * its differentials; the full backup goes through restoreFromBackup above
+     */
+    @Override
+    public boolean restoreFromBackupChain(String baseBackupPath, List<String> differentialPaths) {
+        return write(() -> super.restoreFromBackupChain(baseBackupPath, differentialPaths));
+    }
+
+    @Override
+    public BackupDiff collectChangesSince(long baseSequence) {
+        loadWindow(null, null);
+        return read(() -> super.collectChangesSince(baseSequence));
+    }
+
+    /**
+     * Capture the in-memory state under the read lock and write the backup without holding any lock
+     */
+    @Override
+    public boolean createBackup(String backupFilePath, boolean compressed) {
+        loadWindow(null, null);
+        PendingFlush state = read(() -> new PendingFlush(super.getChangeSequence(), super.getSnapshot(), null,
+                null, copyRecurringEvents(), Map.of()));
+        return getCsvHandler().createBackup(backupFilePath, state.events, state.recurringEvents, compressed);
+    }
+
+    @Override
+    public Event findEventById(int eventId) {
+        Event event = read(() -> super.findLoadedEvent(eventId));
+        if (event == null && !super.isFullyLoaded()) {
+            loadWindow(null, null); // IDs are not tied to months
+            event = read(() -> super.findLoadedEvent(eventId));
+        }
+        return event;
+    }
+
+    @Override
+    public RecurringEvent getRecurringEventByEventId(int eventId) {
+        return read(() -> super.getRecurringEventByEventId(eventId));
+    }
+
+    @Override
+    public List<Event> getAllEvents() {
+        loadWindow(null, null);
+        return read(super::getAllEvents);
+    }
+
+    @Override
+    public EventSnapshot getSnapshot() {
+        loadWindow(null, null);
+        return read(super::getSnapshot);
+    }
+
+    @Override
+    public EventSnapshot getSnapshot(LocalDate startDate, LocalDate endDate) {
+        loadWindow(startDate, endDate);
+        return read(() -> super.getSnapshot(startDate, endDate));
+    }
+
+    @Override
+    public long getChangeSequence() {
+        return read(super::getChangeSequence);
+    }
+
+    @Override
+    public List<Event> searchEventsByDate(LocalDate date) {
+        loadWindow(date, date);
+        return read(() -> super.searchEventsByDate(date));
+    }
+
+    @Override
+    public List<Event> searchEventsByDateRange(LocalDate startDate, LocalDate endDate) {
+        loadWindow(startDate, endDate);
+        return read(() -> super.searchEventsByDateRange(startDate, endDate));
+    }
+
+    /**
+     * Pages are built under the read lock; streams fetch them page by page, so a long
+     * stream never holds the lock and sees each page consistently
+     */
+    @Override
+    public EventPage<Event> getEventsPage(LocalDate startDate, LocalDate endDate, Predicate<Event> filter,
+                                          int limit, String continuationToken) {
+        loadWindow(startDate, endDate);
+        return read(() -> super.getEventsPage(startDate, endDate, filter, limit, continuationToken));
+    }
+
+    @Override
+    public EventPage<ImmutableEvent> getSnapshotPage(LocalDate startDate, LocalDate endDate, Predicate<Event> filter,
+                                                     int limit, String continuationToken) {
+        loadWindow(startDate, endDate);
+        return read(() -> super.getSnapshotPage(startDate, endDate, filter, limit, continuationToken));
+    }
+
+    @Override
+    public NavigableMap<LocalDate, List<Event>> groupEventsByStartDay(LocalDate startDate, LocalDate endDate) {
+        loadWindow(startDate, endDate);
+        return read(() -> super.groupEventsByStartDay(startDate, endDate));
+    }
+
+    @Override
+    public List<Event> searchEventsByTitle(String keyword) {
+        loadWindow(null, null);
+        return read(() -> super.searchEventsByTitle(keyword));
+    }
+
+    @Override
+    public List<Event> checkConflicts(LocalDateTime start, LocalDateTime end) {
+        loadWindow(start.toLocalDate(), end.toLocalDate());
+        return read(() -> super.checkConflicts(start, end));
+    }
+}
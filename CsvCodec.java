@@ -0,0 +1,197 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * RFC 4180 encoding of the CSV data files
+ * A field is quoted only when it has to be: when it contains a comma, a double quote or a line
+ * break, or starts or ends with whitespace (unquoted fields are trimmed when read, as the files
+ * have always been). Quotes inside a quoted field are doubled. Rows written before fields were
+ * quoted contain no quotes and decode unchanged.
+ */
+public final class CsvCodec {
+
+    private CsvCodec() {
+    }
+
+    /**
+     * Append one field, quoting it if needed
+     * A null value is written as null, like the string concatenation this replaces.
+     */
+    public static void appendField(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        int length = value.length();
+        int i = 0;
+        if (length > 0 && value.charAt(0) > ' ' && value.charAt(length - 1) > ' ') {
+            // Common case: scan once and append the value as-is
+            while (i < length && !isSpecial(value.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                out.append(value);
+                return;
+            }
+        } else if (length == 0) {
+            return;
+        }
+
+        // Everything before i holds no quote, so continue from there doubling quotes
+        out.append('"');
+        int start = 0;
+        for (; i < length; i++) {
+            if (value.charAt(i) == '"') {
+                out.append(value, start, i + 1).append('"');
+                start = i + 1;
+            }
+        }
+        out.append(value, start, length).append('"');
+    }
+
+    /**
+     * Whether appendField writes the value as-is, without quotes
+     */
+    public static boolean isPlain(String value) {
+        if (value == null || value.isEmpty()) {
+            return true;
+        }
+        int length = value.length();
+        if (value.charAt(0) <= ' ' || value.charAt(length - 1) <= ' ') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (isSpecial(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSpecial(char c) {
+        return c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+
+    /**
+     * Split a record into fields
+     * Fills fields with at most fields.length values and returns the number of fields in the
+     * record, which may be larger. Unquoted fields are trimmed; a StringBuilder is only used for
+     * quoted fields containing doubled quotes.
+     */
+    public static int parseRecord(String record, String[] fields) {
+        int length = record.length();
+        int count = 0;
+        int i = 0;
+        while (true) {
+            int start = i;
+            while (start < length && record.charAt(start) <= ' ') {
+                start++;
+            }
+            String field;
+            if (start < length && record.charAt(start) == '"') {
+                int close = record.indexOf('"', start + 1);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unterminated quoted field in CSV record: " + record);
+                }
+                if (close + 1 < length && record.charAt(close + 1) == '"') {
+                    StringBuilder value = new StringBuilder(close - start + 16);
+                    i = start + 1;
+                    while (true) {
+                        if (close < 0) {
+                            throw new IllegalArgumentException("Unterminated quoted field in CSV record: " + record);
+                        }
+                        value.append(record, i, close);
+                        if (close + 1 < length && record.charAt(close + 1) == '"') {
+                            value.append('"');
+                            i = close + 2;
+                            close = record.indexOf('"', i);
+                        } else {
+                            break;
+                        }
+                    }
+                    field = value.toString();
+                } else {
+                    field = record.substring(start + 1, close);
+                }
+                i = close + 1;
+                while (i < length && record.charAt(i) <= ' ') {
+                    i++;
+                }
+                if (i < length && record.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected text after quoted field in CSV record: " + record);
+                }
+            } else {
+                int comma = record.indexOf(',', start);
+                i = comma < 0 ? length : comma;
+                int end = i;
+                while (end > start && record.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+                field = record.substring(start, end);
+            }
+
+            if (count < fields.length) {
+                fields[count] = field;
+            }
+            count++;
+            if (i >= length) {
+                return count;
+            }
+            i++; // Skip the comma
+        }
+    }
+
+    /**
+     * Read one record, which spans several lines when a quoted field contains line breaks
+     * Only a quote at the start of a field opens a quoted field, as in parseRecord, so rows
+     * written before fields were quoted keep to one line whatever quotes their text holds. The
+     * lines are joined with \n, so a \r\n inside a field comes back as \n. Returns null at the
+     * end of the input.
+     */
+    public static String readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null || line.indexOf('"') < 0 || !endsInQuotedField(line, false)) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        boolean open = true;
+        while (open) {
+            String next = reader.readLine();
+            if (next == null) {
+                break; // Truncated; parseRecord reports the unterminated field
+            }
+            record.append('\n').append(next);
+            open = endsInQuotedField(next, true);
+        }
+        return record.toString();
+    }
+
+    /**
+     * Whether the line ends inside a quoted field, reading it the way parseRecord does
+     * quoted tells whether the line starts inside one, continuing the previous line.
+     */
+    private static boolean endsInQuotedField(String line, boolean quoted) {
+        boolean fieldStart = !quoted; // Only blanks seen since the last comma
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < length && line.charAt(i + 1) == '"') {
+                        i++; // Doubled quote inside the field
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (c == ',') {
+                fieldStart = true;
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c > ' ') {
+                fieldStart = false;
+            }
+        }
+        return quoted;
+    }
+}
@@ -0,0 +1,86 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reads the date/time layouts the JavaFX dialogs accept in a single pass, without exceptions
+ *   yyyy-MM-dd hh:mm AM   12-hour; AM/PM in any case, the space before it and a leading zero
+ *                         on the hour are optional
+ *   yyyy-MM-dd HH:mm      24-hour, or any other timestamp IsoTimestampCodec reads
+ *   yyyy-MM-dd            date only, read as the start of that day
+ * The layout is picked from the length and last character of the text, so each input is
+ * scanned once whichever layout it uses. Invalid text gives null; unlike the lenient formatter
+ * used before, days past the end of the month and 24:00 are rejected rather than adjusted.
+ */
+public final class DateTimeInputParser {
+
+    private DateTimeInputParser() {
+    }
+
+    /**
+     * Parse a date and time in one of the accepted layouts, or return null
+     */
+    public static LocalDateTime tryParse(String text) {
+        if (text == null) {
+            return null;
+        }
+        text = text.trim();
+        int length = text.length();
+        if (length == 10) {
+            LocalDate date = IsoTimestampCodec.tryParseDate(text);
+            return date != null ? date.atStartOfDay() : null;
+        }
+        char last = length > 0 ? text.charAt(length - 1) : 0;
+        if (last == 'M' || last == 'm') {
+            return parseTwelveHour(text);
+        }
+        return IsoTimestampCodec.tryParse(text);
+    }
+
+    /**
+     * Parse a yyyy-MM-dd date, or return null
+     */
+    public static LocalDate tryParseDate(String text) {
+        return text != null ? IsoTimestampCodec.tryParseDate(text.trim()) : null;
+    }
+
+    private static LocalDateTime parseTwelveHour(String text) {
+        int end = text.length() - 2;
+        char marker = end > 0 ? Character.toUpperCase(text.charAt(end)) : 0;
+        if (marker != 'A' && marker != 'P') {
+            return null;
+        }
+        if (text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        // yyyy-MM-dd h:mm or yyyy-MM-dd hh:mm before the marker
+        int colon = end - 3;
+        if ((colon != 12 && colon != 13) || text.charAt(10) != ' ' || text.charAt(colon) != ':') {
+            return null;
+        }
+        int hour = digits(text, 11, colon);
+        int minute = digits(text, colon + 1, end);
+        if (hour < 0 || hour > 12 || minute < 0 || minute > 59) { // 00 is read as 12, like the old formatter
+            return null;
+        }
+        LocalDate date = IsoTimestampCodec.tryParseDate(text, 0);
+        if (date == null) {
+            return null;
+        }
+        return date.atTime(hour % 12 + (marker == 'P' ? 12 : 0), minute);
+    }
+
+    /**
+     * Value of the decimal digits in text[start, end), or -1 if another character is there
+     */
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,314 @@
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes data files crash-safely: a file is written to a temporary copy and renamed over the
+ * original, so a crash in the middle of a write leaves the previous version in place.
+ *
+ * When the data reaches the disk is set by the fsync policy, system property calendar.fsync:
+ *   always  - force the file before the rename and the directory after it (default)
+ *   N       - force the file before the rename, and the directory and appended files at most
+ *             every N milliseconds; a power failure may undo the renames and appends of the last
+ *             N ms, leaving the previous complete version of a file, a process crash loses nothing
+ *   never   - leave flushing to the operating system
+ * Forces within one interval are batched: each directory and appended file is forced once.
+ */
+public final class DurableFileWriter {
+    public static final String FSYNC_PROPERTY = "calendar.fsync";
+
+    private static volatile DurableFileWriter defaultWriter;
+
+    private static final ScheduledExecutorService SYNCER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fsync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Writes the content of a file
+     */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes the content of a text file
+     */
+    @FunctionalInterface
+    public interface TextContent {
+        void writeTo(BufferedWriter writer) throws IOException;
+    }
+
+    private final long intervalMillis; // 0 = always, -1 = never
+    private final Set<Path> unsyncedFiles = new LinkedHashSet<>(); // Guarded by this
+    private final Set<Path> unsyncedDirectories = new LinkedHashSet<>(); // Guarded by this
+    private boolean syncScheduled; // Guarded by this
+
+    private DurableFileWriter(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        if (intervalMillis > 0) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::sync, "fsync-shutdown"));
+        }
+    }
+
+    /**
+     * Force every write before it completes
+     */
+    public static DurableFileWriter always() {
+        return new DurableFileWriter(0);
+    }
+
+    /**
+     * Force replaced files before their rename, and directories and appended files in the
+     * background at most every intervalMillis
+     */
+    public static DurableFileWriter everyMillis(long intervalMillis) {
+        if (intervalMillis < 1) {
+            throw new IllegalArgumentException("Fsync interval must be positive: " + intervalMillis);
+        }
+        return new DurableFileWriter(intervalMillis);
+    }
+
+    /**
+     * Never force; writes are still atomic
+     */
+    public static DurableFileWriter never() {
+        return new DurableFileWriter(-1);
+    }
+
+    /**
+     * Shared writer configured by the calendar.fsync system property
+     */
+    public static DurableFileWriter getDefault() {
+        DurableFileWriter writer = defaultWriter;
+        if (writer == null) {
+            synchronized (DurableFileWriter.class) {
+                writer = defaultWriter;
+                if (writer == null) {
+                    writer = fromPolicy(System.getProperty(FSYNC_PROPERTY, "always"));
+                    defaultWriter = writer;
+                }
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Parse a policy: "always", "never" or an interval in milliseconds ("500" or "500ms")
+     */
+    public static DurableFileWriter fromPolicy(String policy) {
+        String value = policy.trim().toLowerCase();
+        if (value.equals("always")) {
+            return always();
+        }
+        if (value.equals("never")) {
+            return never();
+        }
+        try {
+            return everyMillis(Long.parseLong(value.endsWith("ms") ? value.substring(0, value.length() - 2) : value));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid " + FSYNC_PROPERTY + " policy '" + policy + "', using always");
+            return always();
+        }
+    }
+
+    /**
+     * Replace a text file with the given content (UTF-8)
+     */
+    public void writeText(Path target, TextContent content) throws IOException {
+        write(target, out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            content.writeTo(writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Replace a file with the given content
+     * The content is written to target.tmp, which is renamed over the target once complete.
+     * Closing the stream passed to the content only flushes it.
+     */
+    public void write(Path target, Content content) throws IOException {
+        Path temp = tempFor(target);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = new FilterOutputStream(Channels.newOutputStream(channel)) {
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        this.out.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush(); // The channel is closed after forcing it
+                    }
+                };
+                content.writeTo(out);
+                out.flush();
+                if (intervalMillis >= 0) {
+                    channel.force(true); // The rename must never reach the disk before the data
+                }
+            }
+            moveIntoPlace(temp, target);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Append text to a file, creating it if needed
+     */
+    public void appendText(Path target, TextContent content) throws IOException {
+        append(target, out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            content.writeTo(writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Append bytes to a file, creating it if needed
+     * Not atomic: a crash can leave part of the content at the end of the file.
+     */
+    public void append(Path target, Content content) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            content.writeTo(out);
+            out.flush();
+            if (intervalMillis == 0) {
+                channel.force(true);
+            }
+        }
+        written(target);
+    }
+
+    /**
+     * Move a completely written temporary file over the target
+     * Used when several files are written in one pass and replaced together.
+     */
+    public void commit(Path temp, Path target) throws IOException {
+        if (intervalMillis >= 0) {
+            force(temp);
+        }
+        moveIntoPlace(temp, target);
+    }
+
+    /**
+     * Temporary file a write to target goes through
+     */
+    public static Path tempFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    /**
+     * Force every file appended to and every directory renamed into since the last sync to disk
+     */
+    public void sync() {
+        Set<Path> paths;
+        Set<Path> directories;
+        synchronized (this) {
+            paths = new LinkedHashSet<>(unsyncedFiles);
+            directories = new LinkedHashSet<>(unsyncedDirectories);
+            unsyncedFiles.clear();
+            unsyncedDirectories.clear();
+            syncScheduled = false;
+        }
+        for (Path path : paths) {
+            try {
+                force(path);
+            } catch (IOException e) {
+                // Renamed or deleted since; the write that replaced it is queued itself
+            }
+            directories.add(directoryOf(path));
+        }
+        for (Path directory : directories) {
+            forceDirectory(directory);
+        }
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (intervalMillis == 0) {
+            forceDirectory(directoryOf(target)); // Make the rename itself durable
+        } else if (intervalMillis > 0) {
+            synchronized (this) {
+                unsyncedDirectories.add(directoryOf(target));
+                scheduleSync();
+            }
+        }
+    }
+
+    /**
+     * Queue an appended file for the next background sync
+     */
+    private void written(Path path) {
+        if (intervalMillis <= 0) {
+            return;
+        }
+        synchronized (this) {
+            unsyncedFiles.add(path.toAbsolutePath());
+            scheduleSync();
+        }
+    }
+
+    /**
+     * Schedule a background sync unless one is pending; called while holding this
+     */
+    private void scheduleSync() {
+        if (!syncScheduled) {
+            syncScheduled = true;
+            SYNCER.schedule(this::sync, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void force(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform (e.g. Windows); the rename is still atomic
+        }
+    }
+
+    private static Path directoryOf(Path path) {
+        Path parent = path.toAbsolutePath().getParent();
+        return parent != null ? parent : path.toAbsolutePath();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Error deleting temporary file: " + e.getMessage());
+        }
+    }
+}
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.time.LocalDateTime;
 
 /**
@@ -77,31 +78,103 @@ public class Event {
      * Convert event to CSV format
      */
     public String toCSV() {
-        return eventId + "," + title + "," + description + "," + startDateTime + "," + endDateTime;
+        return toCSV(eventId, title, description, startDateTime, endDateTime);
+    }
+
+    /**
+     * Append the CSV line of this event, without line break
+     */
+    public void appendCSV(Appendable out) throws IOException {
+        appendCSV(out, eventId, title, description, startDateTime, endDateTime);
+    }
+
+    /**
+     * Convert event fields to CSV format
+     */
+    static String toCSV(int eventId, String title, String description,
+                        LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (CsvCodec.isPlain(title) && CsvCodec.isPlain(description)) {
+            // Nothing to quote; concatenation sizes the string exactly
+            return eventId + "," + title + "," + description + "," + IsoTimestampCodec.format(startDateTime)
+                    + "," + IsoTimestampCodec.format(endDateTime);
+        }
+        StringBuilder sb = new StringBuilder(96);
+        try {
+            appendCSV(sb, eventId, title, description, startDateTime, endDateTime);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append event fields in CSV format; title and description are quoted when needed
+     */
+    static void appendCSV(Appendable out, int eventId, String title, String description,
+                          LocalDateTime startDateTime, LocalDateTime endDateTime) throws IOException {
+        out.append(Integer.toString(eventId)).append(',');
+        CsvCodec.appendField(out, title);
+        out.append(',');
+        CsvCodec.appendField(out, description);
+        out.append(',');
+        IsoTimestampCodec.appendTo(out, startDateTime);
+        out.append(',');
+        IsoTimestampCodec.appendTo(out, endDateTime);
     }
 
     /**
      * Create Event from CSV line
      */
     public static Event fromCSV(String csvLine) {
-        // Split into at most 5 parts to preserve commas in title/description
-        String[] parts = csvLine.split(",", 5);
-        if (parts.length != 5) {
-            throw new IllegalArgumentException("Invalid CSV format for Event: " + csvLine);
+        String[] parts = new String[5];
+        int count;
+        try {
+            count = CsvCodec.parseRecord(csvLine, parts);
+        } catch (IllegalArgumentException e) {
+            count = -1; // A quote that opens a field is not closed properly
+        }
+        if (count != 5) {
+            // Written before fields were quoted: commas in the text split it into extra fields,
+            // and a quote at the start of a field was part of the text
+            if ((count >= 0 && count < 5) || csvLine.indexOf('\n') >= 0 || commas(csvLine) < 4) {
+                throw new IllegalArgumentException("Invalid CSV format for Event: " + csvLine);
+            }
+            parts = splitUnquoted(csvLine);
         }
-
-        String idStr = parts[0].trim();
-        String title = parts[1].trim();
-        String desc = parts[2].trim();
-        String startStr = parts[3].trim();
-        String endStr = parts[4].trim();
 
         return new Event(
-                Integer.parseInt(idStr),
-                title,
-                desc,
-                LocalDateTime.parse(startStr),
-                LocalDateTime.parse(endStr)
+                Integer.parseInt(parts[0]),
+                parts[1],
+                parts[2],
+                IsoTimestampCodec.parse(parts[3]),
+                IsoTimestampCodec.parse(parts[4])
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Recover the fields of an unquoted row with commas or quotes in its text
+     * The times are the last two fields. Where the title ended cannot be told, so it is taken up
+     * to the first comma and the rest of the text goes to the description.
+     */
+    private static String[] splitUnquoted(String csvLine) {
+        int first = csvLine.indexOf(',');
+        int second = csvLine.indexOf(',', first + 1);
+        int last = csvLine.lastIndexOf(',');
+        int beforeLast = csvLine.lastIndexOf(',', last - 1);
+        return new String[] {
+                csvLine.substring(0, first).trim(),
+                csvLine.substring(first + 1, second).trim(),
+                csvLine.substring(second + 1, beforeLast).trim(),
+                csvLine.substring(beforeLast + 1, last).trim(),
+                csvLine.substring(last + 1).trim()
+        };
+    }
+
+    private static int commas(String csvLine) {
+        int count = 0;
+        for (int comma = csvLine.indexOf(','); comma >= 0; comma = csvLine.indexOf(',', comma + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,93 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Read-only index of events bucketed by start day, each day ordered by start time
+ * Built once and shared by any number of view renderings, so rendering a month or week never
+ * re-groups the full event list. It holds the live Event instances, so use it on the thread
+ * that owns them.
+ */
+public final class EventDateIndex {
+    private final NavigableMap<LocalDate, List<Event>> eventsByDay;
+    private final int size;
+
+    private EventDateIndex(NavigableMap<LocalDate, List<Event>> eventsByDay, int size) {
+        this.eventsByDay = Collections.unmodifiableNavigableMap(eventsByDay);
+        this.size = size;
+    }
+
+    /**
+     * Bucket events by start day in one pass
+     */
+    public static EventDateIndex of(Collection<Event> events) {
+        NavigableMap<LocalDate, List<Event>> eventsByDay = new TreeMap<>();
+        for (Event event : events) {
+            eventsByDay.computeIfAbsent(event.getStartDateTime().toLocalDate(), d -> new ArrayList<>()).add(event);
+        }
+        return seal(eventsByDay);
+    }
+
+    /**
+     * Wrap events already grouped by start day (e.g. from EventManager.groupEventsByStartDay)
+     */
+    public static EventDateIndex of(Map<LocalDate, List<Event>> groupedByDay) {
+        NavigableMap<LocalDate, List<Event>> eventsByDay = new TreeMap<>();
+        for (Map.Entry<LocalDate, List<Event>> entry : groupedByDay.entrySet()) {
+            eventsByDay.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return seal(eventsByDay);
+    }
+
+    private static EventDateIndex seal(NavigableMap<LocalDate, List<Event>> eventsByDay) {
+        int size = 0;
+        for (Map.Entry<LocalDate, List<Event>> entry : eventsByDay.entrySet()) {
+            List<Event> dayEvents = entry.getValue();
+            dayEvents.sort(EventManager.START_ORDER);
+            entry.setValue(Collections.unmodifiableList(dayEvents));
+            size += dayEvents.size();
+        }
+        return new EventDateIndex(eventsByDay, size);
+    }
+
+    /**
+     * Events starting on a day, ordered by start time
+     */
+    public List<Event> eventsOn(LocalDate date) {
+        return eventsByDay.getOrDefault(date, List.of());
+    }
+
+    public boolean hasEvents(LocalDate date) {
+        return eventsByDay.containsKey(date);
+    }
+
+    /**
+     * Days with events between two dates (inclusive), in date order
+     */
+    public NavigableMap<LocalDate, List<Event>> range(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return Collections.emptyNavigableMap();
+        }
+        return eventsByDay.subMap(startDate, true, endDate, true);
+    }
+
+    public LocalDate firstDate() {
+        return eventsByDay.isEmpty() ? null : eventsByDay.firstKey();
+    }
+
+    public LocalDate lastDate() {
+        return eventsByDay.isEmpty() ? null : eventsByDay.lastKey();
+    }
+
+    /**
+     * Total number of indexed events
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -1,77 +1,510 @@
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Manages all event operations including CRUD and recurring events
  */
 public class EventManager {
+    // Order used by the start-time index, paging, streaming and EventDateIndex
+    static final Comparator<Event> START_ORDER =
+            Comparator.comparing(Event::getStartDateTime).thenComparingInt(Event::getEventId);
+    private static final int STREAM_PAGE_SIZE = 256;
+
     private CSVHandler csvHandler;
+    private StringPool stringPool;
     private List<Event> events;
     private List<RecurringEvent> recurringEvents;
-    private int nextEventId;
+    private IdAllocator idAllocator;
+    private long changeSequence;
+    private volatile EventSnapshot snapshot;
+    private NavigableSet<Event> startIndex;
+    private Map<Integer, Event> eventsById;
+    private long maxDurationSeconds; // longest event seen, bounds how far back an overlap can start
+    // Last change sequence of every event ever changed (deleted ones included), for differential backups
+    private Map<Integer, Long> sequenceById;
+    private NavigableSet<Long> changesBySequence; // changeKey(sequence, eventId), ordered by sequence
+    private Map<Integer, Long> unsavedChanges; // journal entries not yet written
+    private int batchDepth;
+    private boolean batchDirty; // changed during the current batch, not yet saved
+    // Sharded storage: months read so far (null once every shard is in memory) and months to rewrite
+    private volatile Set<YearMonth> loadedMonths;
+    private Set<YearMonth> dirtyMonths = new HashSet<>();
+    private Set<Integer> unstoredIds = new HashSet<>(); // Changed events a key-value store write missed
+    // Lazy loading: shards read ahead by the background loader, nearest the window month first
+    private final Map<YearMonth, FutureTask<List<Event>>> prefetchedShards = new ConcurrentHashMap<>();
+    private YearMonth windowMonth;
+    private Thread backgroundLoader;
 
     public EventManager() {
-        this.csvHandler = new CSVHandler();
-        loadData();
-        updateNextEventId();
+        this.stringPool = new StringPool();
+        this.csvHandler = new CSVHandler(stringPool);
+        this.idAllocator = new IdAllocator(csvHandler);
+        loadData(null, null);
+    }
+
+    /**
+     * Create a manager that first reads only the events overlapping a date window
+     * With sharded storage the other months are read when a query or change first needs them;
+     * a single events file is always read completely.
+     */
+    public EventManager(LocalDate windowStart, LocalDate windowEnd) {
+        if (windowEnd.isBefore(windowStart)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+        this.stringPool = new StringPool();
+        this.csvHandler = new CSVHandler(stringPool);
+        this.idAllocator = new IdAllocator(csvHandler);
+        loadData(windowStart, windowEnd);
     }
 
     /**
-     * Update the next event ID based on existing events
+     * Update the next event ID after loading events
      * Resets to 1 if no events exist
      */
     private void updateNextEventId() {
         // If no events exist, reset to 1
-        if (events.isEmpty()) {
-            nextEventId = 1;
+        if (events.isEmpty() && loadedMonths == null) {
+            idAllocator.reset(1);
             return;
         }
 
-        // Otherwise, find the max ID and increment
+        // Continue from the saved high-water mark, but never below an ID that was loaded
+        // (files may have been restored or edited by hand)
+        idAllocator.load();
         int maxId = 0;
         for (Event event : events) {
             if (event.getEventId() > maxId) {
                 maxId = event.getEventId();
             }
         }
-        nextEventId = maxId + 1;
+        idAllocator.ensureAbove(maxId);
     }
 
     /**
      * Get the next event ID and increment the counter
      */
-    private int getAndIncrementEventId() {
-        return nextEventId++;
+    protected int getAndIncrementEventId() {
+        return idAllocator.allocate();
     }
 
     /**
      * Load data from CSV files
+     * With sharded storage and a window, only the shards that can overlap the window are read.
      */
-    private void loadData() {
-        events = csvHandler.readEvents();
+    private void loadData(LocalDate windowStart, LocalDate windowEnd) {
+        if (windowStart != null && csvHandler.canReadByMonth()) {
+            events = new ArrayList<>();
+            loadedMonths = new HashSet<>();
+            windowMonth = YearMonth.from(windowStart.plusDays(windowStart.until(windowEnd, ChronoUnit.DAYS) / 2));
+            rebuildIndex();
+            loadShards(shardsOverlapping(windowStart, windowEnd));
+        } else {
+            events = csvHandler.readEvents();
+            rebuildIndex();
+        }
         recurringEvents = csvHandler.readRecurringEvents();
         updateNextEventId();
+        loadChangeJournal();
+        eventsChanged();
+    }
+
+    /**
+     * Make sure every event overlapping the date range is in memory (null leaves that end open)
+     * Queries and changes load what they need themselves; this reads a range ahead of time.
+     */
+    public void loadWindow(LocalDate startDate, LocalDate endDate) {
+        ensureLoaded(startDate, endDate);
+    }
+
+    /**
+     * Whether every stored event overlapping the date range is in memory (null leaves that end open)
+     */
+    public boolean isWindowLoaded(LocalDate startDate, LocalDate endDate) {
+        return loadedMonths == null || shardsOverlapping(startDate, endDate).isEmpty();
+    }
+
+    /**
+     * Whether every stored event is in memory
+     */
+    public boolean isFullyLoaded() {
+        return loadedMonths == null;
     }
 
     /**
-     * Save data to CSV files
+     * Make sure the shard of a start month is in memory before it is changed
      */
-    private void saveData() {
-        csvHandler.writeEvents(events);
-        csvHandler.writeRecurringEvents(recurringEvents);
+    private void loadMonth(LocalDateTime start) {
+        YearMonth month = YearMonth.from(start);
+        if (loadedMonths != null && !loadedMonths.contains(month)) {
+            loadShards(List.of(month));
+        }
+    }
+
+    /**
+     * Unread shards that can hold events overlapping the date range
+     * A shard qualifies if it starts within the range or its latest event end reaches into it.
+     */
+    private List<YearMonth> shardsOverlapping(LocalDate startDate, LocalDate endDate) {
+        NavigableMap<YearMonth, CSVHandler.ShardInfo> index = csvHandler.getShardIndex();
+        if (endDate != null) {
+            index = index.headMap(YearMonth.from(endDate), true);
+        }
+        List<YearMonth> months = new ArrayList<>();
+        for (Map.Entry<YearMonth, CSVHandler.ShardInfo> shard : index.entrySet()) {
+            YearMonth month = shard.getKey();
+            if (loadedMonths.contains(month)) {
+                continue;
+            }
+            if (startDate == null || !month.isBefore(YearMonth.from(startDate))
+                    || !shard.getValue().maxEnd().toLocalDate().isBefore(startDate)) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Load the unread shards overlapping the date range, if any
+     */
+    private void ensureLoaded(LocalDate startDate, LocalDate endDate) {
+        if (loadedMonths != null) {
+            List<YearMonth> months = shardsOverlapping(startDate, endDate);
+            if (!months.isEmpty()) {
+                loadShards(months);
+            }
+        }
+    }
+
+    /**
+     * Read shards into memory and add their events to the indexes
+     */
+    private void loadShards(Collection<YearMonth> months) {
+        int maxId = 0;
+        for (YearMonth month : months) {
+            if (!loadedMonths.add(month)) {
+                continue;
+            }
+            for (Event event : readShard(month)) {
+                events.add(event);
+                indexEvent(event);
+                maxId = Math.max(maxId, event.getEventId());
+            }
+        }
+        idAllocator.ensureAbove(maxId);
+        snapshot = null;
+        if (loadedMonths.containsAll(csvHandler.getShardIndex().keySet())) {
+            loadedMonths = null;
+        }
+    }
+
+    /**
+     * Read a shard, taking the background loader's copy if it has one
+     * A shard the loader has not reached yet is read on this thread; one it is reading right now
+     * is waited for.
+     */
+    private List<Event> readShard(YearMonth month) {
+        FutureTask<List<Event>> task = prefetchedShards.remove(month);
+        if (task != null) {
+            task.run(); // Does nothing if the loader already started it
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | CancellationException e) {
+                // Read it again below
+            }
+        }
+        return csvHandler.readShard(month);
+    }
+
+    /**
+     * Read every shard that is not in memory yet on a background thread, nearest to the
+     * initial window first, so later queries find them ready
+     * Queries that need a shard before the loader gets to it read that shard themselves and
+     * only wait for the shards they need. Does nothing if everything is already loaded.
+     */
+    public void loadRemainingInBackground() {
+        if (loadedMonths == null || backgroundLoader != null) {
+            return;
+        }
+        List<YearMonth> months = new ArrayList<>(shardsOverlapping(null, null));
+        months.sort(Comparator.comparingLong((YearMonth month) -> Math.abs(windowMonth.until(month, ChronoUnit.MONTHS)))
+                .thenComparing(month -> month.isBefore(windowMonth))); // Upcoming months first
+        List<FutureTask<List<Event>>> tasks = new ArrayList<>(months.size());
+        for (YearMonth month : months) {
+            FutureTask<List<Event>> task = new FutureTask<>(() -> csvHandler.readShard(month));
+            prefetchedShards.put(month, task);
+            tasks.add(task);
+        }
+        backgroundLoader = new Thread(() -> {
+            for (FutureTask<List<Event>> task : tasks) {
+                task.run();
+                shardPrefetched();
+            }
+        }, "shard-loader");
+        backgroundLoader.setDaemon(true);
+        backgroundLoader.start();
+    }
+
+    /**
+     * Called on the background loader's thread after it has read a shard
+     * The shard is kept until a query needs it, since this class is not thread-safe; a
+     * thread-safe subclass can take the shards in right away with loadPrefetchedShards().
+     */
+    protected void shardPrefetched() {
+    }
+
+    /**
+     * Add the shards the background loader has finished reading to memory
+     * Callers must have exclusive access to the manager.
+     */
+    protected void loadPrefetchedShards() {
+        if (loadedMonths == null) {
+            return;
+        }
+        List<YearMonth> ready = new ArrayList<>();
+        for (Map.Entry<YearMonth, FutureTask<List<Event>>> shard : prefetchedShards.entrySet()) {
+            if (shard.getValue().isDone()) {
+                ready.add(shard.getKey());
+            }
+        }
+        if (!ready.isEmpty()) {
+            loadShards(ready);
+        }
+    }
+
+    /**
+     * Drop the shards read ahead, e.g. after a restore replaced them
+     */
+    private void discardPrefetchedShards() {
+        for (FutureTask<List<Event>> task : prefetchedShards.values()) {
+            task.cancel(false);
+        }
+        prefetchedShards.clear();
+    }
+
+    /**
+     * Note that the shard of the event's current start month has to be rewritten
+     */
+    private void shardChanged(Event event) {
+        if (csvHandler.isSharded()) {
+            dirtyMonths.add(YearMonth.from(event.getStartDateTime()));
+        }
+    }
+
+    /**
+     * Take the complete contents of every shard changed since the last save
+     */
+    protected Map<YearMonth, List<ImmutableEvent>> drainDirtyShards() {
+        Map<YearMonth, List<ImmutableEvent>> shards = new HashMap<>();
+        for (YearMonth month : dirtyMonths) {
+            List<ImmutableEvent> shard = new ArrayList<>();
+            for (Event event : startIndex.subSet(probe(month.atDay(1).atStartOfDay()), true,
+                    probe(month.plusMonths(1).atDay(1).atStartOfDay()), false)) {
+                shard.add(ImmutableEvent.of(event));
+            }
+            shards.put(month, shard);
+        }
+        dirtyMonths = new HashSet<>();
+        return shards;
+    }
+
+    /**
+     * Rewrite these shards with the next save, e.g. after a failed write
+     */
+    protected void markShardsDirty(Collection<YearMonth> months) {
+        dirtyMonths.addAll(months);
+    }
+
+    /**
+     * Restore per-event change sequences and continue numbering after the highest one recorded
+     */
+    private void loadChangeJournal() {
+        sequenceById = new HashMap<>();
+        changesBySequence = new TreeSet<>();
+        unsavedChanges = new LinkedHashMap<>();
+        changeSequence = Math.max(changeSequence, csvHandler.readChangeJournal(sequenceById));
+        for (Map.Entry<Integer, Long> entry : sequenceById.entrySet()) {
+            changesBySequence.add(changeKey(entry.getValue(), entry.getKey()));
+        }
+    }
+
+    /**
+     * Note that an event was created, updated or deleted at the current change sequence
+     */
+    private void recordChange(int eventId) {
+        Long previous = sequenceById.put(eventId, changeSequence);
+        if (previous != null) {
+            changesBySequence.remove(changeKey(previous, eventId));
+        }
+        changesBySequence.add(changeKey(changeSequence, eventId));
+        unsavedChanges.put(eventId, changeSequence);
+    }
+
+    private static long changeKey(long sequence, int eventId) {
+        return (sequence << 32) | (eventId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Take the change journal entries that still have to be written
+     */
+    protected Map<Integer, Long> drainUnsavedChanges() {
+        Map<Integer, Long> changes = unsavedChanges;
+        unsavedChanges = new LinkedHashMap<>();
+        return changes;
+    }
+
+    /**
+     * Rebuild the start-time and ID indexes from the event list
+     */
+    private void rebuildIndex() {
+        startIndex = new TreeSet<>(START_ORDER);
+        eventsById = new HashMap<>();
+        maxDurationSeconds = 0;
+        for (Event event : events) {
+            indexEvent(event);
+        }
+    }
+
+    /**
+     * Add an event to the start-time and ID indexes
+     * Events must be removed from the index before their start time or ID changes.
+     */
+    private void indexEvent(Event event) {
+        startIndex.add(event);
+        eventsById.putIfAbsent(event.getEventId(), event);
+        long duration = Duration.between(event.getStartDateTime(), event.getEndDateTime()).getSeconds();
+        if (duration > maxDurationSeconds) {
+            maxDurationSeconds = duration;
+        }
+    }
+
+    /**
+     * Record a mutation of the event collection and drop the cached snapshot
+     */
+    private void eventsChanged() {
+        changeSequence++;
+        snapshot = null;
+    }
+
+    /**
+     * Get the CSV handler used for persistence
+     */
+    protected CSVHandler getCsvHandler() {
+        return csvHandler;
+    }
+
+    /**
+     * Get a copy of the recurring configurations for persistence
+     */
+    protected List<RecurringEvent> copyRecurringEvents() {
+        return new ArrayList<>(recurringEvents);
+    }
+
+    /**
+     * Save data to CSV files, or only the changed records to the key-value store
+     */
+    protected void saveData() {
+        Map<Integer, Long> changes = drainUnsavedChanges();
+        if (csvHandler.supportsPointUpdates()) {
+            unstoredIds.addAll(changes.keySet());
+            if (csvHandler.applyChanges(describeChanges(changeSequence, unstoredIds))) {
+                unstoredIds.clear();
+            }
+        } else {
+            if (csvHandler.isSharded()) {
+                Map<YearMonth, List<ImmutableEvent>> shards = drainDirtyShards();
+                if (!csvHandler.writeShards(shards)) {
+                    markShardsDirty(shards.keySet()); // Retry with the next save
+                }
+            } else {
+                csvHandler.writeEvents(events);
+            }
+            csvHandler.writeRecurringEvents(recurringEvents);
+        }
+        csvHandler.appendChangeJournal(changes, 0);
+    }
+
+    /**
+     * Save after a mutation, or defer the save to the end of the current batch
+     */
+    private void persist() {
+        if (batchDepth > 0) {
+            batchDirty = true;
+        } else {
+            saveData();
+        }
+    }
+
+    /**
+     * Start a batch: mutations are applied in memory and saved once by commitBatch()
+     * Batches nest; only the outermost commit saves.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * End a batch, saving once if anything changed during it
+     */
+    public void commitBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("No batch in progress");
+        }
+        batchDepth--;
+        if (batchDepth == 0 && batchDirty) {
+            batchDirty = false;
+            saveData();
+        }
+    }
+
+    public boolean isInBatch() {
+        return batchDepth > 0;
     }
 
     /**
      * Create a new event
      */
     public Event createEvent(String title, String description, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        loadMonth(startDateTime);
         int eventId = getAndIncrementEventId();
-        Event event = new Event(eventId, title, description, startDateTime, endDateTime);
+        Event event = new Event(eventId, stringPool.intern(title), stringPool.intern(description),
+                                startDateTime, endDateTime);
         events.add(event);
-        saveData();
+        indexEvent(event);
+        shardChanged(event);
+        eventsChanged();
+        recordChange(eventId);
+        persist();
         return event;
     }
 
@@ -81,72 +514,45 @@ public class EventManager {
     public Event createRecurringEvent(String title, String description, LocalDateTime startDateTime, 
                                      LocalDateTime endDateTime, String recurrentInterval, 
                                      int recurrentTimes, LocalDate recurrentEndDate) {
-        // Create the main event
-        Event mainEvent = createEvent(title, description, startDateTime, endDateTime);
-        
-        // Create recurring configuration
-        RecurringEvent recurringEvent = new RecurringEvent(mainEvent.getEventId(), recurrentInterval, 
-                                                         recurrentTimes, recurrentEndDate);
-        recurringEvents.add(recurringEvent);
-        
-        // Generate recurring event instances
-        generateRecurringInstances(mainEvent, recurringEvent);
-        
-        saveData();
-        return mainEvent;
-    }
+        // Save the main event, its configuration and all instances together
+        beginBatch();
+        try {
+            // Create the main event
+            Event mainEvent = createEvent(title, description, startDateTime, endDateTime);
 
-    /**
-     * Generate instances of recurring events
-     */
-    private void generateRecurringInstances(Event baseEvent, RecurringEvent recurringConfig) {
-        LocalDateTime currentStart = baseEvent.getStartDateTime();
-        LocalDateTime currentEnd = baseEvent.getEndDateTime();
-        int instancesCreated = 0;
-
-        while (true) {
-            // Check if we should stop based on times or end date
-            if (recurringConfig.getRecurrentTimes() > 0 && 
-                instancesCreated >= recurringConfig.getRecurrentTimes()) {
-                break;
-            }
-            
-            if (recurringConfig.getRecurrentEndDate() != null && 
-                currentStart.toLocalDate().isAfter(recurringConfig.getRecurrentEndDate())) {
-                break;
-            }
+            // Create recurring configuration
+            RecurringEvent recurringEvent = new RecurringEvent(mainEvent.getEventId(), recurrentInterval,
+                                                             recurrentTimes, recurrentEndDate);
+            recurringEvents.add(recurringEvent);
 
-            // Skip the first instance as it's already created
-            if (instancesCreated > 0) {
-                int eventId = getAndIncrementEventId();
-                Event recurringInstance = new Event(eventId, baseEvent.getTitle(),
-                                                  baseEvent.getDescription(), currentStart, currentEnd);
-                events.add(recurringInstance);
-            }
+            // Generate recurring event instances
+            generateRecurringInstances(mainEvent, recurringEvent);
+            eventsChanged();
 
-            // Calculate next occurrence
-            currentStart = calculateNextDateTime(currentStart, recurringConfig);
-            currentEnd = calculateNextDateTime(currentEnd, recurringConfig);
-            instancesCreated++;
+            persist();
+            return mainEvent;
+        } finally {
+            commitBatch();
         }
     }
 
     /**
-     * Calculate the next date/time based on recurring interval
+     * Generate instances of recurring events
      */
-    private LocalDateTime calculateNextDateTime(LocalDateTime dateTime, RecurringEvent recurringConfig) {
-        int value = recurringConfig.getIntervalValue();
-        char type = recurringConfig.getIntervalType();
-
-        switch (type) {
-            case 'd': // days
-                return dateTime.plusDays(value);
-            case 'w': // weeks
-                return dateTime.plusWeeks(value);
-            case 'm': // months
-                return dateTime.plusMonths(value);
-            default:
-                throw new IllegalArgumentException("Invalid recurring interval type: " + type);
+    private void generateRecurringInstances(Event baseEvent, RecurringEvent recurringConfig) {
+        RecurrenceRule.Occurrences occurrences = recurringConfig.getRule()
+                .occurrences(baseEvent.getStartDateTime(), baseEvent.getEndDateTime());
+        occurrences.next(); // The first instance is the base event, already created
+        while (occurrences.next()) {
+            LocalDateTime currentStart = occurrences.start();
+            loadMonth(currentStart);
+            int eventId = getAndIncrementEventId();
+            Event recurringInstance = new Event(eventId, baseEvent.getTitle(),
+                                              baseEvent.getDescription(), currentStart, occurrences.end());
+            events.add(recurringInstance);
+            indexEvent(recurringInstance);
+            shardChanged(recurringInstance);
+            recordChange(eventId);
         }
     }
 
@@ -157,11 +563,18 @@ public class EventManager {
                               LocalDateTime startDateTime, LocalDateTime endDateTime) {
         Event event = findEventById(eventId);
         if (event != null) {
-            event.setTitle(title);
-            event.setDescription(description);
+            loadMonth(startDateTime);
+            startIndex.remove(event);
+            shardChanged(event);
+            event.setTitle(stringPool.intern(title));
+            event.setDescription(stringPool.intern(description));
             event.setStartDateTime(startDateTime);
             event.setEndDateTime(endDateTime);
-            saveData();
+            indexEvent(event);
+            shardChanged(event);
+            eventsChanged();
+            recordChange(eventId);
+            persist();
             return true;
         }
         return false;
@@ -174,14 +587,21 @@ public class EventManager {
         Event event = findEventById(eventId);
         if (event != null) {
             events.remove(event);
+            startIndex.remove(event);
+            eventsById.remove(eventId);
+            shardChanged(event);
             
             // Also remove recurring configuration if it exists
             recurringEvents.removeIf(re -> re.getEventId() == eventId);
             
             // Reset event ID counter if no events remain
-            updateNextEventId();
+            if (events.isEmpty() && loadedMonths == null) {
+                idAllocator.reset(1);
+            }
+            eventsChanged();
+            recordChange(eventId);
 
-            saveData();
+            persist();
             return true;
         }
         return false;
@@ -191,10 +611,19 @@ public class EventManager {
      * Find event by ID
      */
     public Event findEventById(int eventId) {
-        return events.stream()
-                   .filter(e -> e.getEventId() == eventId)
-                   .findFirst()
-                   .orElse(null);
+        Event event = findLoadedEvent(eventId);
+        if (event == null && loadedMonths != null) {
+            ensureLoaded(null, null); // IDs are not tied to months
+            event = findLoadedEvent(eventId);
+        }
+        return event;
+    }
+
+    /**
+     * Find an event by ID among the events in memory, without loading any shard
+     */
+    protected Event findLoadedEvent(int eventId) {
+        return eventsById.get(eventId);
     }
 
     /**
@@ -211,13 +640,58 @@ public class EventManager {
      * Get all events
      */
     public List<Event> getAllEvents() {
+        ensureLoaded(null, null);
         return new ArrayList<>(events);
     }
 
+    /**
+     * Get an immutable snapshot of all events.
+     * The snapshot is rebuilt at most once per mutation, so repeated reads are O(1)
+     * and the returned view stays consistent even if events change afterwards.
+     */
+    public EventSnapshot getSnapshot() {
+        ensureLoaded(null, null);
+        return currentSnapshot();
+    }
+
+    /**
+     * Get an immutable snapshot of the events overlapping a date range, in start-time order
+     * Only the shards the range needs are loaded and only its index entries are visited and copied.
+     */
+    public EventSnapshot getSnapshot(LocalDate startDate, LocalDate endDate) {
+        ensureLoaded(startDate, endDate);
+        List<Event> inRange = new ArrayList<>();
+        for (Event event : candidatesFor(startDate, endDate, null)) {
+            if (overlapsDates(event, startDate, endDate)) {
+                inRange.add(event);
+            }
+        }
+        return EventSnapshot.of(inRange, changeSequence);
+    }
+
+    private EventSnapshot currentSnapshot() {
+        EventSnapshot current = snapshot;
+        if (current == null) {
+            current = EventSnapshot.of(events, changeSequence);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Get the current change sequence
+     * It grows with every mutation and continues across restarts (see the change journal),
+     * so it orders changes against backups.
+     */
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
     /**
      * Search events by date
      */
     public List<Event> searchEventsByDate(LocalDate date) {
+        ensureLoaded(date, date);
         // Return events where the event interval overlaps the requested date
         return events.stream()
                    .filter(e -> {
@@ -233,6 +707,7 @@ public class EventManager {
      * Search events by date range
      */
     public List<Event> searchEventsByDateRange(LocalDate startDate, LocalDate endDate) {
+        ensureLoaded(startDate, endDate);
         // Return events where [eventStart, eventEnd] overlaps [startDate, endDate]
         return events.stream()
                    .filter(e -> {
@@ -244,10 +719,165 @@ public class EventManager {
                    .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of events overlapping a date range, ordered by start time and ID
+     * Null dates leave that side of the range open. Pass the previous page's token to continue;
+     * only the events on the requested page are visited and copied.
+     */
+    public EventPage<Event> getEventsPage(LocalDate startDate, LocalDate endDate, int limit, String continuationToken) {
+        return getEventsPage(startDate, endDate, null, limit, continuationToken);
+    }
+
+    /**
+     * Get one page of events overlapping a date range that also match a filter (null for none)
+     */
+    public EventPage<Event> getEventsPage(LocalDate startDate, LocalDate endDate, Predicate<Event> filter,
+                                          int limit, String continuationToken) {
+        return buildPage(startDate, endDate, filter, limit, continuationToken, event -> event);
+    }
+
+    /**
+     * Same page as getEventsPage, with each event copied while the page is built
+     * The copies stay consistent after the page is returned, so they can be read on other threads.
+     */
+    public EventPage<ImmutableEvent> getSnapshotPage(LocalDate startDate, LocalDate endDate, Predicate<Event> filter,
+                                                     int limit, String continuationToken) {
+        return buildPage(startDate, endDate, filter, limit, continuationToken, ImmutableEvent::of);
+    }
+
+    private <E> EventPage<E> buildPage(LocalDate startDate, LocalDate endDate, Predicate<Event> filter,
+                                       int limit, String continuationToken, Function<Event, E> copy) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        ensureLoaded(startDate, endDate);
+
+        Event after = continuationToken != null ? EventPage.decodeToken(continuationToken) : null;
+        NavigableSet<Event> candidates = candidatesFor(startDate, endDate, after);
+
+        List<E> page = new ArrayList<>(Math.min(limit, STREAM_PAGE_SIZE));
+        Event last = null;
+        for (Event event : candidates) {
+            if (!overlapsDates(event, startDate, endDate) || (filter != null && !filter.test(event))) {
+                continue;
+            }
+            if (page.size() == limit) {
+                // There is at least one more match, so hand out a token
+                return new EventPage<>(page, EventPage.encodeToken(last));
+            }
+            page.add(copy.apply(event));
+            last = event;
+        }
+        return new EventPage<>(page, null);
+    }
+
+    /**
+     * Stream all events in start-time order without materializing the full result
+     */
+    public Stream<Event> streamEvents() {
+        return streamEventsByDateRange(null, null);
+    }
+
+    /**
+     * Stream events overlapping a date range in start-time order
+     * Events are fetched lazily page by page as the stream is consumed.
+     */
+    public Stream<Event> streamEventsByDateRange(LocalDate startDate, LocalDate endDate) {
+        Iterator<Event> iterator = new Iterator<>() {
+            private Iterator<Event> current = null;
+            private String nextToken = null;
+            private boolean lastPage = false;
+
+            @Override
+            public boolean hasNext() {
+                while (current == null || !current.hasNext()) {
+                    if (lastPage) {
+                        return false;
+                    }
+                    EventPage<Event> page = getEventsPage(startDate, endDate, STREAM_PAGE_SIZE, nextToken);
+                    current = page.getEvents().iterator();
+                    nextToken = page.getNextToken();
+                    lastPage = !page.hasMore();
+                }
+                return true;
+            }
+
+            @Override
+            public Event next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Group the events starting within a date range by start day, in start-time order
+     * Only the index entries inside the range are visited, so a week costs that week's events.
+     */
+    public NavigableMap<LocalDate, List<Event>> groupEventsByStartDay(LocalDate startDate, LocalDate endDate) {
+        NavigableMap<LocalDate, List<Event>> eventsByDay = new TreeMap<>();
+        if (endDate.isBefore(startDate)) {
+            return eventsByDay;
+        }
+        ensureLoaded(startDate, endDate);
+        for (Event event : startIndex.subSet(probe(startDate.atStartOfDay()), true,
+                probe(endDate.plusDays(1).atStartOfDay()), false)) {
+            eventsByDay.computeIfAbsent(event.getStartDateTime().toLocalDate(), d -> new ArrayList<>()).add(event);
+        }
+        return eventsByDay;
+    }
+
+    /**
+     * Indexed events after the given position that can overlap the date range
+     * (may include a few that end before the range)
+     */
+    private NavigableSet<Event> candidatesFor(LocalDate startDate, LocalDate endDate, Event after) {
+        Event from = startDate != null
+                ? probe(startDate.atStartOfDay().minusSeconds(maxDurationSeconds))
+                : null;
+        boolean fromInclusive = true;
+        if (after != null && (from == null || START_ORDER.compare(after, from) >= 0)) {
+            from = after;
+            fromInclusive = false;
+        }
+        Event to = endDate != null ? probe(endDate.plusDays(1).atStartOfDay()) : null;
+
+        if (from != null && to != null) {
+            if (START_ORDER.compare(from, to) >= 0) {
+                return new TreeSet<>(START_ORDER);
+            }
+            return startIndex.subSet(from, fromInclusive, to, false);
+        }
+        if (from != null) {
+            return startIndex.tailSet(from, fromInclusive);
+        }
+        if (to != null) {
+            return startIndex.headSet(to, false);
+        }
+        return startIndex;
+    }
+
+    /**
+     * Event that sorts before every real event with the same start time
+     */
+    private static Event probe(LocalDateTime start) {
+        return new Event(Integer.MIN_VALUE, null, null, start, start);
+    }
+
+    private static boolean overlapsDates(Event event, LocalDate startDate, LocalDate endDate) {
+        return (endDate == null || !event.getStartDateTime().toLocalDate().isAfter(endDate))
+                && (startDate == null || !event.getEndDateTime().toLocalDate().isBefore(startDate));
+    }
+
     /**
      * Search events by title
      */
     public List<Event> searchEventsByTitle(String keyword) {
+        ensureLoaded(null, null);
         return events.stream()
                    .filter(e -> e.getTitle().toLowerCase().contains(keyword.toLowerCase()))
                    .collect(Collectors.toList());
@@ -257,24 +887,215 @@ public class EventManager {
      * Create backup
      */
     public boolean createBackup(String backupFilePath) {
-        return csvHandler.createBackup(backupFilePath);
+        return createBackup(backupFilePath, false);
+    }
+
+    /**
+     * Create backup, optionally as a compressed archive (restore detects the format)
+     */
+    public boolean createBackup(String backupFilePath, boolean compressed) {
+        // Written from memory, so unsaved batch changes are included and the CSV files are not re-read
+        return csvHandler.createBackup(backupFilePath, getSnapshot(), recurringEvents, compressed);
     }
 
     /**
      * Restore from backup
+     * The backup is read once: its records go straight into memory while the primary files
+     * are rewritten in the same pass. Appending keeps the current in-memory events.
      */
     public boolean restoreFromBackup(String backupFilePath, boolean append) {
-        boolean success = csvHandler.restoreFromBackup(backupFilePath, append);
-        if (success) {
-            loadData(); // Reload data after restore
+        return restoreFromBackup(backupFilePath, append, false);
+    }
+
+    /**
+     * Restore from backup, optionally skipping backup events identical to ones already present
+     * Appended backup events whose IDs are already taken get new IDs, and their recurring
+     * configurations follow them. Skipping duplicates only applies when appending.
+     */
+    public boolean restoreFromBackup(String backupFilePath, boolean append, boolean skipDuplicates) {
+        // Appends merge with every stored event, and a replace journals every event it removes
+        ensureLoaded(null, null);
+        List<Event> restoredEvents = append ? new ArrayList<>(events) : new ArrayList<>();
+        List<RecurringEvent> restoredRecurring = append ? new ArrayList<>(recurringEvents) : new ArrayList<>();
+        BackupMerger merger = append
+                ? new BackupMerger(events, recurringEvents, idAllocator::allocate, skipDuplicates)
+                : null;
+        if (!csvHandler.restoreFromBackup(backupFilePath, restoredEvents, restoredRecurring, merger)) {
+            return false;
+        }
+
+        // Every event that existed before or after the restore has changed for later differential backups
+        List<Event> previousEvents = events;
+        events = restoredEvents;
+        recurringEvents = restoredRecurring;
+        loadedMonths = null; // The restore rewrote every shard
+        dirtyMonths = new HashSet<>();
+        unstoredIds = new HashSet<>();
+        discardPrefetchedShards();
+        rebuildIndex();
+        updateNextEventId();
+        changeSequence = Math.max(changeSequence, csvHandler.readBackupSequence(backupFilePath));
+        eventsChanged();
+        for (Event event : previousEvents) {
+            recordChange(event.getEventId());
+        }
+        for (Event event : events) {
+            recordChange(event.getEventId());
+        }
+        csvHandler.appendChangeJournal(drainUnsavedChanges(), 0);
+        batchDirty = false; // The files now match memory
+        return true;
+    }
+
+    /**
+     * Create a differential backup with only the events created, updated or deleted since
+     * the given full or differential backup was taken
+     */
+    public boolean createDifferentialBackup(String backupFilePath, String previousBackupPath, boolean compressed) {
+        long baseSequence = csvHandler.readBackupSequence(previousBackupPath);
+        if (baseSequence < 0) {
+            System.err.println("Cannot create differential backup: " + previousBackupPath
+                    + " is missing or has no change sequence; create a new full backup first");
+            return false;
+        }
+        return csvHandler.writeDifferentialBackup(backupFilePath, collectChangesSince(baseSequence), compressed);
+    }
+
+    /**
+     * Collect the events changed after a change sequence
+     * Only the changes themselves are visited, so the cost follows the churn, not the calendar size.
+     */
+    public BackupDiff collectChangesSince(long baseSequence) {
+        ensureLoaded(null, null); // Events that are not in memory would look deleted
+        List<Integer> eventIds = new ArrayList<>();
+        for (long key : changesBySequence.tailSet(changeKey(baseSequence + 1, 0), true)) {
+            eventIds.add((int) key);
         }
-        return success;
+        return describeChanges(baseSequence, eventIds);
+    }
+
+    /**
+     * Current values of the given events and their recurring configurations; IDs of events that
+     * no longer exist are listed as deleted
+     * Changed events are always in memory, since changing an event loads its month first.
+     */
+    protected BackupDiff describeChanges(long baseSequence, Collection<Integer> eventIds) {
+        List<ImmutableEvent> changed = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        Set<Integer> changedIds = new HashSet<>();
+        for (int eventId : eventIds) {
+            Event event = eventsById.get(eventId);
+            if (event != null) {
+                changed.add(ImmutableEvent.of(event));
+                changedIds.add(eventId);
+            } else {
+                deleted.add(eventId);
+            }
+        }
+
+        List<RecurringEvent> changedRecurring = new ArrayList<>();
+        if (!changedIds.isEmpty()) {
+            for (RecurringEvent recurringEvent : recurringEvents) {
+                if (changedIds.contains(recurringEvent.getEventId())) {
+                    changedRecurring.add(recurringEvent);
+                }
+            }
+        }
+        return new BackupDiff(baseSequence, changeSequence, changed, changedRecurring, deleted);
+    }
+
+    /**
+     * Restore a full backup followed by differential backups, oldest first
+     * All differentials are read and checked before anything is changed; the result is saved once.
+     */
+    public boolean restoreFromBackupChain(String baseBackupPath, List<String> differentialPaths) {
+        long chainSequence = csvHandler.readBackupSequence(baseBackupPath);
+        List<BackupDiff> diffs = new ArrayList<>();
+        for (String path : differentialPaths) {
+            BackupDiff diff = csvHandler.readDifferentialBackup(path);
+            if (diff == null) {
+                return false;
+            }
+            // Each differential must start at or before the state reached so far and move it forward
+            if (chainSequence < 0 || diff.getBaseSequence() > chainSequence || diff.getSequence() < chainSequence) {
+                System.err.println("Differential backup " + path + " (changes " + diff.getBaseSequence() + " to "
+                        + diff.getSequence() + ") does not continue the chain at change " + chainSequence);
+                return false;
+            }
+            chainSequence = diff.getSequence();
+            diffs.add(diff);
+        }
+
+        if (!restoreFromBackup(baseBackupPath, false)) {
+            return false;
+        }
+        if (diffs.isEmpty()) {
+            return true;
+        }
+
+        Set<Integer> touched = new HashSet<>();
+        for (BackupDiff diff : diffs) {
+            applyDiff(diff, touched);
+        }
+        updateNextEventId();
+        changeSequence = Math.max(changeSequence, chainSequence);
+        eventsChanged();
+        for (int eventId : touched) {
+            recordChange(eventId);
+        }
+        persist();
+        return true;
+    }
+
+    /**
+     * Apply one differential backup to the in-memory state
+     */
+    private void applyDiff(BackupDiff diff, Set<Integer> touched) {
+        for (ImmutableEvent changed : diff.getEvents()) {
+            Event event = eventsById.get(changed.eventId());
+            if (event == null) {
+                event = changed.toEvent();
+                events.add(event);
+            } else {
+                startIndex.remove(event);
+                shardChanged(event);
+            }
+            event.setTitle(stringPool.intern(changed.title()));
+            event.setDescription(stringPool.intern(changed.description()));
+            event.setStartDateTime(changed.startDateTime());
+            event.setEndDateTime(changed.endDateTime());
+            indexEvent(event);
+            shardChanged(event);
+            touched.add(changed.eventId());
+        }
+
+        Set<Integer> deleted = new HashSet<>(diff.getDeletedIds());
+        if (!deleted.isEmpty()) {
+            events.removeIf(event -> deleted.contains(event.getEventId()));
+            for (int eventId : deleted) {
+                Event event = eventsById.remove(eventId);
+                if (event != null) {
+                    startIndex.remove(event);
+                    shardChanged(event);
+                }
+            }
+            touched.addAll(deleted);
+        }
+
+        // Configurations of changed events are replaced, those of deleted events dropped
+        Set<Integer> replaced = new HashSet<>(deleted);
+        for (RecurringEvent recurringEvent : diff.getRecurringEvents()) {
+            replaced.add(recurringEvent.getEventId());
+        }
+        recurringEvents.removeIf(recurringEvent -> replaced.contains(recurringEvent.getEventId()));
+        recurringEvents.addAll(diff.getRecurringEvents());
     }
 
     /**
      * Check for event conflicts
      */
     public List<Event> checkConflicts(LocalDateTime start, LocalDateTime end) {
+        ensureLoaded(start.toLocalDate(), end.toLocalDate());
         return events.stream()
                    .filter(e -> {
                        return (start.isBefore(e.getEndDateTime()) && end.isAfter(e.getStartDateTime()));
@@ -282,11 +1103,18 @@ public class EventManager {
                    .collect(Collectors.toList());
     }
 
+    /**
+     * Get the pool that deduplicates event titles and descriptions
+     */
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
     /**
      * Get the next event ID that will be assigned
      * Useful for testing and debugging
      */
     public int getNextEventId() {
-        return nextEventId;
+        return idAllocator.peekNext();
     }
 }
\ No newline at end of file
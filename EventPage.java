@@ -0,0 +1,60 @@
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of events ordered by start time and ID, with a token to fetch the next page
+ * Holds either the live Event instances or ImmutableEvent copies taken while the page was built.
+ */
+public class EventPage<E> {
+    private final List<E> events;
+    private final String nextToken;
+
+    public EventPage(List<E> events, String nextToken) {
+        this.events = Collections.unmodifiableList(events);
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Events on this page, in (start time, ID) order
+     */
+    public List<E> getEvents() {
+        return events;
+    }
+
+    /**
+     * Continuation token for the following page, or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasMore() {
+        return nextToken != null;
+    }
+
+    /**
+     * Encode the position after the given event as a continuation token
+     */
+    static String encodeToken(Event lastEvent) {
+        return lastEvent.getStartDateTime() + "_" + lastEvent.getEventId();
+    }
+
+    /**
+     * Decode a continuation token into a probe event holding its start time and ID
+     */
+    static Event decodeToken(String token) {
+        int separator = token.lastIndexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token);
+        }
+        try {
+            LocalDateTime start = IsoTimestampCodec.parse(token.substring(0, separator));
+            int eventId = Integer.parseInt(token.substring(separator + 1));
+            return new Event(eventId, null, null, start, start);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token);
+        }
+    }
+}
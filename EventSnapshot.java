@@ -0,0 +1,73 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consistent, immutable view of all events, or of those in a date range, at one point in time.
+ * A snapshot never changes after it is built, so it can be handed to any number of
+ * readers (and threads) without copying.
+ */
+public final class EventSnapshot {
+    private static final EventSnapshot EMPTY = new EventSnapshot(new ImmutableEvent[0], 0);
+
+    private final List<ImmutableEvent> events;
+    private final long version;
+
+    private EventSnapshot(ImmutableEvent[] events, long version) {
+        this.events = Collections.unmodifiableList(Arrays.asList(events));
+        this.version = version;
+    }
+
+    /**
+     * Build a snapshot from the current mutable events
+     */
+    public static EventSnapshot of(List<Event> source, long version) {
+        if (source.isEmpty()) {
+            return version == 0 ? EMPTY : new EventSnapshot(new ImmutableEvent[0], version);
+        }
+        ImmutableEvent[] copy = new ImmutableEvent[source.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = ImmutableEvent.of(source.get(i));
+        }
+        return new EventSnapshot(copy, version);
+    }
+
+    /**
+     * Get all events in the snapshot (unmodifiable)
+     */
+    public List<ImmutableEvent> getEvents() {
+        return events;
+    }
+
+    public Stream<ImmutableEvent> stream() {
+        return events.stream();
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    /**
+     * Modification version of the event collection this snapshot was taken from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Find event by ID within this snapshot
+     */
+    public ImmutableEvent findById(int eventId) {
+        for (ImmutableEvent event : events) {
+            if (event.eventId() == eventId) {
+                return event;
+            }
+        }
+        return null;
+    }
+}
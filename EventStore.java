@@ -0,0 +1,50 @@
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Primary storage of events and their recurring configurations
+ * CSVHandler keeps them in CSV files and LsmEventStore in an embedded key-value store; CSVHandler
+ * passes these calls on to the key-value store when calendar.storage=lsm.
+ */
+public interface EventStore {
+    /**
+     * Read every stored event
+     */
+    List<Event> readEvents();
+
+    /**
+     * Read the events that start at or after from and before to
+     */
+    List<Event> readEventsStartingBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Replace all stored events
+     */
+    void writeEvents(EventSnapshot snapshot);
+
+    /**
+     * Read every recurring configuration
+     */
+    List<RecurringEvent> readRecurringEvents();
+
+    /**
+     * Replace all recurring configurations
+     */
+    void writeRecurringEvents(List<RecurringEvent> recurringEvents);
+
+    /**
+     * Store the events of a change set and delete its deleted IDs, as EventManager applies a
+     * differential backup: the change set's recurring configurations replace those of their
+     * events, and deleted events lose theirs. Returns false if nothing could be written.
+     */
+    boolean applyChanges(BackupDiff changes);
+
+    /**
+     * Whether applyChanges only writes the changed records
+     * Stores without point updates rewrite everything, so callers holding all events in memory
+     * should write them with writeEvents instead.
+     */
+    default boolean supportsPointUpdates() {
+        return false;
+    }
+}
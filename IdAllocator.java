@@ -0,0 +1,110 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allocates event IDs without scanning existing events.
+ * IDs are handed out with a CAS on an in-memory counter. The allocator reserves IDs in
+ * blocks and persists the end of the reserved block (the high-water mark) before any ID
+ * from it is used, so the file is written once per block and IDs are never reused after
+ * a restart. Unused IDs of the last block are skipped after a restart.
+ */
+public class IdAllocator {
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final CSVHandler csvHandler;
+    private final int blockSize;
+    private final AtomicInteger next = new AtomicInteger(1);
+    private volatile int reservedLimit = 1; // exclusive
+
+    public IdAllocator(CSVHandler csvHandler) {
+        this(csvHandler, DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdAllocator(CSVHandler csvHandler, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.csvHandler = csvHandler;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Continue from the persisted high-water mark
+     * Returns false if no high-water mark has been saved yet
+     */
+    public boolean load() {
+        int highWaterMark = csvHandler.readIdHighWaterMark();
+        if (highWaterMark < 1) {
+            return false;
+        }
+        synchronized (this) {
+            next.set(highWaterMark);
+            reservedLimit = highWaterMark;
+        }
+        return true;
+    }
+
+    /**
+     * Get the next ID
+     */
+    public int allocate() {
+        return allocateBlock(1);
+    }
+
+    /**
+     * Reserve count consecutive IDs and return the first one
+     */
+    public int allocateBlock(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("ID count must be positive: " + count);
+        }
+        while (true) {
+            int current = next.get();
+            int end = current + count;
+            if (end <= reservedLimit) {
+                if (next.compareAndSet(current, end)) {
+                    return current;
+                }
+            } else {
+                reserveUpTo(end);
+            }
+        }
+    }
+
+    /**
+     * Persist a new high-water mark covering at least the given ID (exclusive)
+     */
+    private synchronized void reserveUpTo(int end) {
+        if (end <= reservedLimit) {
+            return; // Another thread already reserved the block
+        }
+        int limit = Math.max(end, next.get() + 1) + blockSize;
+        csvHandler.writeIdHighWaterMark(limit);
+        reservedLimit = limit;
+    }
+
+    /**
+     * Make sure the next ID is greater than any existing ID
+     */
+    public synchronized void ensureAbove(int existingId) {
+        int current = next.get();
+        if (existingId >= current) {
+            next.set(existingId + 1);
+        }
+    }
+
+    /**
+     * Restart numbering at the given ID
+     */
+    public synchronized void reset(int nextId) {
+        next.set(nextId);
+        reservedLimit = nextId;
+        csvHandler.writeIdHighWaterMark(nextId);
+    }
+
+    /**
+     * Get the ID that will be allocated next
+     */
+    public int peekNext() {
+        return next.get();
+    }
+}
@@ -0,0 +1,45 @@
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only value copy of an Event that can be cached and shared between threads
+ */
+public record ImmutableEvent(int eventId, String title, String description,
+                             LocalDateTime startDateTime, LocalDateTime endDateTime) {
+
+    /**
+     * Capture the current state of a mutable event
+     */
+    public static ImmutableEvent of(Event event) {
+        return new ImmutableEvent(event.getEventId(), event.getTitle(), event.getDescription(),
+                event.getStartDateTime(), event.getEndDateTime());
+    }
+
+    /**
+     * Create a mutable Event with the same values
+     */
+    public Event toEvent() {
+        return new Event(eventId, title, description, startDateTime, endDateTime);
+    }
+
+    /**
+     * Convert event to CSV format
+     */
+    public String toCSV() {
+        return Event.toCSV(eventId, title, description, startDateTime, endDateTime);
+    }
+
+    /**
+     * Append the CSV line of this event, without line break
+     */
+    public void appendCSV(Appendable out) throws IOException {
+        Event.appendCSV(out, eventId, title, description, startDateTime, endDateTime);
+    }
+
+    /**
+     * Check if this event overlaps the given time interval
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return start.isBefore(endDateTime) && end.isAfter(startDateTime);
+    }
+}
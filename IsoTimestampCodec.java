@@ -0,0 +1,322 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * ISO-8601 local timestamps as the data files and user input use them, without DateTimeFormatter
+ * Text is laid out as yyyy-MM-ddTHH:mm, optionally followed by :ss and a fraction of up to nine
+ * digits, so parsing reads fixed positions and checks the ranges by hand; ' ' is accepted in
+ * place of the T. tryParse returns null instead of throwing, so invalid input costs no exception.
+ * Formatting writes the same text as LocalDateTime.toString(). Years outside 0000-9999 are
+ * rare enough to go through the java.time methods. Epoch seconds are counted in UTC, the
+ * convention of the key-value store.
+ */
+public final class IsoTimestampCodec {
+    /**
+     * Longest text format writes for years 0000-9999: yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+     */
+    public static final int MAX_LENGTH = 29;
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private IsoTimestampCodec() {
+    }
+
+    /**
+     * Parse a timestamp, throwing DateTimeParseException like LocalDateTime.parse
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        LocalDateTime value = tryParse(text);
+        if (value == null) {
+            throw new DateTimeParseException("Text '" + text + "' could not be parsed as a date and time", text, 0);
+        }
+        return value;
+    }
+
+    /**
+     * Parse a timestamp, or return null if the text is not one
+     */
+    public static LocalDateTime tryParse(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        if (length > 0 && (text.charAt(0) == '+' || text.charAt(0) == '-')) {
+            return parseExpandedYear(text);
+        }
+        long fields = scanDateTime(text, 0, length);
+        if (fields < 0) {
+            return null;
+        }
+        int nano = length > 20 ? fraction(text, 20, length) : 0;
+        return LocalDateTime.of(year(fields), month(fields), day(fields),
+                (int) (fields >> 12) & 0x1F, (int) (fields >> 6) & 0x3F, (int) fields & 0x3F, nano);
+    }
+
+    /**
+     * Whether tryParse accepts the text
+     */
+    public static boolean isValid(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        if (text.length() > 0 && (text.charAt(0) == '+' || text.charAt(0) == '-')) {
+            return parseExpandedYear(text) != null;
+        }
+        return scanDateTime(text, 0, text.length()) >= 0;
+    }
+
+    /**
+     * Parse a yyyy-MM-dd date, throwing DateTimeParseException like LocalDate.parse
+     */
+    public static LocalDate parseDate(CharSequence text) {
+        LocalDate value = tryParseDate(text);
+        if (value == null) {
+            throw new DateTimeParseException("Text '" + text + "' could not be parsed as a date", text, 0);
+        }
+        return value;
+    }
+
+    /**
+     * Parse a yyyy-MM-dd date, or return null if the text is not one
+     */
+    public static LocalDate tryParseDate(CharSequence text) {
+        if (text == null || text.length() != 10) {
+            return null;
+        }
+        return tryParseDate(text, 0);
+    }
+
+    /**
+     * Parse the yyyy-MM-dd date at start of a longer text, or return null
+     */
+    static LocalDate tryParseDate(CharSequence text, int start) {
+        if (text.length() < start + 10) {
+            return null;
+        }
+        long fields = scanDate(text, start);
+        return fields < 0 ? null : LocalDate.of(year(fields), month(fields), day(fields));
+    }
+
+    /**
+     * Seconds since 1970-01-01T00:00, counting the timestamp as UTC
+     */
+    public static long toEpochSecond(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Timestamp of a UTC epoch second and nanosecond
+     */
+    public static LocalDateTime ofEpochSecond(long epochSecond, int nano) {
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * Same text as LocalDateTime.toString(), or "null"
+     */
+    public static String format(LocalDateTime value) {
+        if (value == null || value.getYear() < 0 || value.getYear() > 9999) {
+            return String.valueOf(value);
+        }
+        byte[] bytes = new byte[MAX_LENGTH];
+        return new String(bytes, 0, encode(value, bytes, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Append the text of format() without creating it
+     */
+    public static void appendTo(Appendable out, LocalDateTime value) throws IOException {
+        if (value == null || value.getYear() < 0 || value.getYear() > 9999) {
+            out.append(String.valueOf(value));
+            return;
+        }
+        appendDigits(out, value.getYear(), 4);
+        out.append('-');
+        appendDigits(out, value.getMonthValue(), 2);
+        out.append('-');
+        appendDigits(out, value.getDayOfMonth(), 2);
+        out.append('T');
+        appendDigits(out, value.getHour(), 2);
+        out.append(':');
+        appendDigits(out, value.getMinute(), 2);
+        int second = value.getSecond();
+        int nano = value.getNano();
+        if (second > 0 || nano > 0) {
+            out.append(':');
+            appendDigits(out, second, 2);
+            if (nano > 0) {
+                out.append('.');
+                if (nano % 1_000_000 == 0) {
+                    appendDigits(out, nano / 1_000_000, 3);
+                } else if (nano % 1000 == 0) {
+                    appendDigits(out, nano / 1000, 6);
+                } else {
+                    appendDigits(out, nano, 9);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the ASCII text of format() into buffer at offset and return the offset after it
+     * The buffer needs MAX_LENGTH bytes of room, or that of toString() for other years.
+     */
+    public static int encode(LocalDateTime value, byte[] buffer, int offset) {
+        if (value == null || value.getYear() < 0 || value.getYear() > 9999) {
+            String text = String.valueOf(value);
+            for (int i = 0; i < text.length(); i++) {
+                buffer[offset++] = (byte) text.charAt(i);
+            }
+            return offset;
+        }
+        offset = encodeDigits(value.getYear(), 4, buffer, offset);
+        buffer[offset++] = '-';
+        offset = encodeDigits(value.getMonthValue(), 2, buffer, offset);
+        buffer[offset++] = '-';
+        offset = encodeDigits(value.getDayOfMonth(), 2, buffer, offset);
+        buffer[offset++] = 'T';
+        offset = encodeDigits(value.getHour(), 2, buffer, offset);
+        buffer[offset++] = ':';
+        offset = encodeDigits(value.getMinute(), 2, buffer, offset);
+        int second = value.getSecond();
+        int nano = value.getNano();
+        if (second > 0 || nano > 0) {
+            buffer[offset++] = ':';
+            offset = encodeDigits(second, 2, buffer, offset);
+            if (nano > 0) {
+                buffer[offset++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    offset = encodeDigits(nano / 1_000_000, 3, buffer, offset);
+                } else if (nano % 1000 == 0) {
+                    offset = encodeDigits(nano / 1000, 6, buffer, offset);
+                } else {
+                    offset = encodeDigits(nano, 9, buffer, offset);
+                }
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Validate text[start, end) and pack its fields as year<<26 | month<<22 | day<<17 | hour<<12 |
+     * minute<<6 | second, or return -1. A fraction after the seconds is validated but not packed.
+     */
+    private static long scanDateTime(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length != 16 && length != 19 && (length < 20 || length > 29)) {
+            return -1;
+        }
+        long date = scanDate(text, start);
+        char separator = text.charAt(start + 10);
+        if (date < 0 || (separator != 'T' && separator != ' ') || text.charAt(start + 13) != ':') {
+            return -1;
+        }
+        int hour = twoDigits(text, start + 11);
+        int minute = twoDigits(text, start + 14);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+        int second = 0;
+        if (length > 16) {
+            second = text.charAt(start + 16) == ':' ? twoDigits(text, start + 17) : -1;
+            if (second < 0 || second > 59) {
+                return -1;
+            }
+            if (length > 19 && (text.charAt(start + 19) != '.' || fraction(text, start + 20, end) < 0)) {
+                return -1;
+            }
+        }
+        return date | (long) hour << 12 | minute << 6 | second;
+    }
+
+    /**
+     * Validate the yyyy-MM-dd at start and pack it like scanDateTime, or return -1
+     */
+    private static long scanDate(CharSequence text, int start) {
+        int year = twoDigits(text, start);
+        int yearLow = twoDigits(text, start + 2);
+        int month = twoDigits(text, start + 5);
+        int day = twoDigits(text, start + 8);
+        if (year < 0 || yearLow < 0 || month < 1 || month > 12 || day < 1
+                || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return -1;
+        }
+        year = year * 100 + yearLow;
+        int maxDay = month == 2 && isLeapYear(year) ? 29 : DAYS_IN_MONTH[month - 1];
+        if (day > maxDay) {
+            return -1;
+        }
+        return (long) year << 26 | (long) month << 22 | (long) day << 17;
+    }
+
+    /**
+     * Nanoseconds of a fraction of up to 9 digits, or -1 if it has another character
+     */
+    private static int fraction(CharSequence text, int start, int end) {
+        int nano = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            nano = nano * 10 + digit;
+        }
+        for (int i = end - start; i < 9; i++) {
+            nano *= 10;
+        }
+        return nano;
+    }
+
+    private static int twoDigits(CharSequence text, int index) {
+        int tens = text.charAt(index) - '0';
+        int ones = text.charAt(index + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int year(long fields) {
+        return (int) (fields >> 26);
+    }
+
+    private static int month(long fields) {
+        return (int) (fields >> 22) & 0xF;
+    }
+
+    private static int day(long fields) {
+        return (int) (fields >> 17) & 0x1F;
+    }
+
+    private static LocalDateTime parseExpandedYear(CharSequence text) {
+        try {
+            return LocalDateTime.parse(text.toString().replace(' ', 'T'));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int encodeDigits(int value, int digits, byte[] buffer, int offset) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+
+    private static void appendDigits(Appendable out, int value, int digits) throws IOException {
+        for (int divisor = POWERS_OF_TEN[digits - 1]; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+}
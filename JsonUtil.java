@@ -0,0 +1,227 @@
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON encoding/decoding used by the HTTP service
+ * Only flat objects with string, number, boolean and null values are supported.
+ */
+public final class JsonUtil {
+
+    private JsonUtil() {
+    }
+
+    /**
+     * Append a JSON string literal
+     */
+    public static void appendString(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Append an event as a JSON object
+     */
+    public static void appendEvent(Appendable out, ImmutableEvent event) throws IOException {
+        appendEvent(out, event.eventId(), event.title(), event.description(), event.startDateTime(), event.endDateTime());
+    }
+
+    private static void appendEvent(Appendable out, int eventId, String title, String description,
+                                    LocalDateTime start, LocalDateTime end) throws IOException {
+        out.append("{\"eventId\":").append(Integer.toString(eventId));
+        out.append(",\"title\":");
+        appendString(out, title);
+        out.append(",\"description\":");
+        appendString(out, description);
+        out.append(",\"start\":\"").append(start.toString());
+        out.append("\",\"end\":\"").append(end.toString()).append("\"}");
+    }
+
+    public static String toJson(ImmutableEvent event) {
+        StringBuilder sb = new StringBuilder(128);
+        try {
+            appendEvent(sb, event);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Build a JSON object from alternating key/value arguments
+     * Numbers and booleans are written as-is, everything else as strings.
+     */
+    public static String object(Object... keyValues) {
+        StringBuilder sb = new StringBuilder("{");
+        try {
+            for (int i = 0; i < keyValues.length; i += 2) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendString(sb, String.valueOf(keyValues[i]));
+                sb.append(':');
+                Object value = keyValues[i + 1];
+                if (value == null || value instanceof Number || value instanceof Boolean) {
+                    sb.append(value);
+                } else {
+                    appendString(sb, value.toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Parse a flat JSON object into a map of raw values (numbers and booleans as text, null as null)
+     */
+    public static Map<String, String> parseObject(String json) {
+        Parser parser = new Parser(json);
+        Map<String, String> result = parser.parseObject();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("Unexpected trailing content");
+        }
+        return result;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private Map<String, String> parseObject() {
+            Map<String, String> result = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = parseString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                result.put(key, parseValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private String parseValue() {
+            char c = peek();
+            if (c == '"') {
+                return parseString();
+            }
+            int start = pos;
+            while (!atEnd() && ",}] \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return literal;
+            }
+            throw error("Unsupported value '" + literal + "'");
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Truncated unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(escaped);
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        private char peek() {
+            if (atEnd()) {
+                throw error("Unexpected end of input");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + message);
+        }
+    }
+}
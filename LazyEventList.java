@@ -0,0 +1,236 @@
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Read-only ObservableList for ListViews that loads events page by page as they are scrolled into view.
+ * Pages are fetched as ImmutableEvent copies and their cell text formatted on a background thread;
+ * rows are detached Event copies, so changes go through the EventManager by ID. Only the most recently
+ * used pages are kept in memory; evicted rows show as null (loading) until they are fetched again.
+ * The list grows as the user scrolls towards the end, so the full result is never materialized.
+ * Loading begins with start(); pages that fail are reported to the error handler and are only
+ * fetched again by retry(), so scrolling over them does not repeat the error. All methods must be called on the JavaFX application thread.
+ */
+public class LazyEventList extends ObservableListBase<Event> {
+    public static final int PAGE_SIZE = 50;
+    private static final int MAX_CACHED_PAGES = 10;
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Fetches one page of event copies after the given continuation token
+     */
+    @FunctionalInterface
+    public interface PageSource {
+        EventPage<ImmutableEvent> fetch(int limit, String continuationToken);
+    }
+
+    private static final class Page {
+        private final List<Event> events;
+        private final String[] texts;
+
+        private Page(List<Event> events, String[] texts) {
+            this.events = events;
+            this.texts = texts;
+        }
+    }
+
+    private final PageSource source;
+    private final Function<Event, String> formatter;
+    // Token for fetching page k is at index k; grows as pages are discovered
+    private final List<String> pageTokens = new ArrayList<>();
+    private final Map<Integer, Page> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> loading = new HashSet<>();
+    private final Set<Integer> failed = new HashSet<>();
+    private int size;
+    private boolean complete;
+    private boolean closed;
+    private Runnable onPageLoaded;
+    private Consumer<RuntimeException> onError;
+
+    public LazyEventList(PageSource source, Function<Event, String> formatter) {
+        this.source = source;
+        this.formatter = formatter;
+        pageTokens.add(null);
+    }
+
+    /**
+     * Begin loading the first page
+     */
+    public void start() {
+        requestPage(0);
+    }
+
+    @Override
+    public Event get(int index) {
+        Page page = pageFor(index);
+        int offset = index % PAGE_SIZE;
+        return page != null && offset < page.events.size() ? page.events.get(offset) : null;
+    }
+
+    /**
+     * Get the precomputed cell text for a row, or null if its page is still loading
+     */
+    public String getText(int index) {
+        Page page = pageFor(index);
+        int offset = index % PAGE_SIZE;
+        return page != null && offset < page.texts.length ? page.texts[offset] : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the last page has been reached, so size() is the total number of matches
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Run an action on the FX thread each time a page arrives (e.g. to update a result count)
+     */
+    public void setOnPageLoaded(Runnable onPageLoaded) {
+        this.onPageLoaded = onPageLoaded;
+    }
+
+    /**
+     * Run an action on the FX thread when a page cannot be loaded (e.g. to offer retry())
+     */
+    public void setOnError(Consumer<RuntimeException> onError) {
+        this.onError = onError;
+    }
+
+    /**
+     * Fetch the pages that failed to load again, including the first one
+     */
+    public void retry() {
+        List<Integer> pages = new ArrayList<>(failed);
+        failed.clear();
+        for (int pageIndex : pages) {
+            requestPage(pageIndex);
+        }
+    }
+
+    /**
+     * Stop loading; pages still in flight are discarded
+     */
+    public void close() {
+        closed = true;
+        cache.clear();
+    }
+
+    private Page pageFor(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int pageIndex = index / PAGE_SIZE;
+        Page page = cache.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+        }
+        // Prefetch the next page when the user scrolls into the last loaded one
+        if (!complete && pageIndex >= pageTokens.size() - 2) {
+            requestPage(pageTokens.size() - 1);
+        }
+        return page;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (closed || loading.contains(pageIndex) || failed.contains(pageIndex) || pageIndex >= pageTokens.size()) {
+            return;
+        }
+        loading.add(pageIndex);
+        String token = pageTokens.get(pageIndex);
+        LOADER.execute(() -> {
+            try {
+                EventPage<ImmutableEvent> eventPage = source.fetch(PAGE_SIZE, token);
+                List<Event> events = new ArrayList<>(eventPage.getEvents().size());
+                String[] texts = new String[eventPage.getEvents().size()];
+                for (ImmutableEvent copy : eventPage.getEvents()) {
+                    Event event = copy.toEvent();
+                    texts[events.size()] = formatter.apply(event);
+                    events.add(event);
+                }
+                Page page = new Page(events, texts);
+                Platform.runLater(() -> install(pageIndex, page, eventPage.getNextToken()));
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> fail(pageIndex, e));
+            }
+        });
+    }
+
+    /**
+     * Record a page that could not be loaded; its rows show as loading until retry() fetches it again
+     */
+    private void fail(int pageIndex, RuntimeException error) {
+        loading.remove(pageIndex);
+        if (closed) {
+            return;
+        }
+        failed.add(pageIndex);
+        System.err.println("Error loading events: " + error.getMessage());
+        if (onError != null) {
+            onError.accept(error);
+        }
+    }
+
+    private void install(int pageIndex, Page page, String nextToken) {
+        loading.remove(pageIndex);
+        if (closed) {
+            return;
+        }
+
+        cache.put(pageIndex, page);
+        if (cache.size() > MAX_CACHED_PAGES) {
+            Integer eldest = cache.keySet().iterator().next();
+            cache.remove(eldest);
+        }
+
+        boolean lastKnownPage = pageIndex == pageTokens.size() - 1;
+        if (lastKnownPage) {
+            if (nextToken != null) {
+                pageTokens.add(nextToken);
+            } else {
+                complete = true;
+            }
+        }
+
+        int from = pageIndex * PAGE_SIZE;
+        int to = from + page.events.size();
+        beginChange();
+        if (lastKnownPage && to > size) {
+            // Rows that already existed are refreshed, new rows are appended
+            for (int i = from; i < size; i++) {
+                nextUpdate(i);
+            }
+            nextAdd(Math.max(from, size), to);
+            size = to;
+        } else {
+            for (int i = from; i < Math.min(to, size); i++) {
+                nextUpdate(i);
+            }
+        }
+        endChange();
+
+        if (onPageLoaded != null) {
+            onPageLoaded.run();
+        }
+    }
+}
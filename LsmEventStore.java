@@ -0,0 +1,833 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32C;
+
+/**
+ * Embedded log-structured (LSM) key-value store for events and recurring configurations
+ *
+ * Records are keyed by event ID. Every change is appended to a write-ahead log (wal.log) and kept
+ * in a sorted in-memory table; once the log reaches FLUSH_BYTES the table is written out as an
+ * immutable segment sorted by key, and when more than MAX_SEGMENTS segments exist they are merged
+ * into one. MANIFEST lists the live segments, oldest first, and is replaced atomically, so a crash
+ * leaves either the old or the new set of segments; the log is replayed on open and a torn last
+ * batch is dropped. An update therefore writes the changed records only.
+ *
+ * The location, start and end of every live record are kept in memory: the key map serves point
+ * reads and the start-time index range reads, so neither scans the data files.
+ *
+ * Segment layout: the 8-byte magic "CALSEG1\n", the values, then a footer of
+ *   int count, count x (long key, long offset, int length, int crc32c, long start, long end)
+ * and a trailer of long footerOffset, int crc32c(footer). Length -1 marks a deleted record.
+ * Log layout: batches of int length, int crc32c, then length bytes of
+ *   (byte op, long key, [int valueLength, value]) records.
+ * Keys are (kind << 32 | event ID); start and end are epoch seconds (UTC) of event times.
+ */
+public final class LsmEventStore implements EventStore {
+    static final byte[] SEGMENT_MAGIC = {'C', 'A', 'L', 'S', 'E', 'G', '1', '\n'};
+    static final long FLUSH_BYTES = 4L * 1024 * 1024;
+    static final int MAX_SEGMENTS = 4;
+    private static final String MANIFEST_FILE = "MANIFEST";
+    private static final String LOG_FILE = "wal.log";
+    private static final int EVENT = 0;
+    private static final int RECURRING = 1;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte[] DELETED = new byte[0]; // Memtable marker, compared by identity
+
+    private final Path directory;
+    private final StringPool stringPool;
+    private final DurableFileWriter fileWriter;
+    private final List<Segment> segments = new ArrayList<>(); // Oldest first
+    private final NavigableMap<Long, byte[]> memtable = new TreeMap<>();
+    private final Map<Long, Location> locations = new HashMap<>(); // Live records only
+    private final NavigableSet<StartKey> startIndex = new TreeSet<>();
+    private final NavigableMap<YearMonth, CSVHandler.ShardInfo> monthIndex = new TreeMap<>();
+    private long logBytes;
+    private int nextSegmentNumber = 1;
+
+    /**
+     * Where a live record's value is: a segment position, or the memtable when segment is null
+     */
+    private record Location(Segment segment, int position, long start, long end) {
+    }
+
+    /**
+     * Start-time index entry
+     */
+    private record StartKey(long start, int eventId) implements Comparable<StartKey> {
+        @Override
+        public int compareTo(StartKey other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Integer.compare(eventId, other.eventId);
+        }
+    }
+
+    /**
+     * Record to write; a null value deletes the key
+     */
+    private record Entry(long key, byte[] value) {
+    }
+
+    /**
+     * Footer of an immutable segment file
+     */
+    private static final class Segment {
+        private final Path path;
+        private final long[] keys;
+        private final long[] offsets;
+        private final int[] lengths;
+        private final int[] crcs;
+        private final long[] starts;
+        private final long[] ends;
+
+        private Segment(Path path, int count) {
+            this.path = path;
+            this.keys = new long[count];
+            this.offsets = new long[count];
+            this.lengths = new int[count];
+            this.crcs = new int[count];
+            this.starts = new long[count];
+            this.ends = new long[count];
+        }
+    }
+
+    /**
+     * Open the store in a directory, creating it if needed, and replay its log
+     */
+    public LsmEventStore(Path directory, StringPool stringPool, DurableFileWriter fileWriter) throws IOException {
+        this.directory = directory;
+        this.stringPool = stringPool;
+        this.fileWriter = fileWriter;
+        Files.createDirectories(directory);
+
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        Set<String> liveFiles = new HashSet<>(Set.of(MANIFEST_FILE, LOG_FILE));
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                if (line.startsWith("next ")) {
+                    nextSegmentNumber = Integer.parseInt(line.substring(5).trim());
+                } else {
+                    segments.add(readSegment(directory.resolve(line.trim())));
+                    liveFiles.add(line.trim());
+                }
+            }
+        } else {
+            writeManifest();
+        }
+        deleteStrayFiles(liveFiles);
+
+        for (Segment segment : segments) {
+            for (int i = 0; i < segment.keys.length; i++) {
+                index(segment.keys[i], segment.lengths[i] < 0 ? null
+                        : new Location(segment, i, segment.starts[i], segment.ends[i]));
+            }
+        }
+        replayLog();
+    }
+
+    /**
+     * Whether a store has been created in the directory
+     */
+    public static boolean exists(Path directory) {
+        return Files.exists(directory.resolve(MANIFEST_FILE));
+    }
+
+    @Override
+    public boolean supportsPointUpdates() {
+        return true;
+    }
+
+    @Override
+    public synchronized List<Event> readEvents() {
+        return readEventsAt(keysOfKind(EVENT));
+    }
+
+    @Override
+    public synchronized List<Event> readEventsStartingBetween(LocalDateTime from, LocalDateTime to) {
+        List<Long> keys = new ArrayList<>();
+        for (StartKey start : startIndex.subSet(new StartKey(epochSecond(from), Integer.MIN_VALUE), true,
+                new StartKey(epochSecond(to), Integer.MIN_VALUE), false)) {
+            keys.add(key(EVENT, start.eventId()));
+        }
+        return readEventsAt(keys);
+    }
+
+    /**
+     * Event count and latest end per start month of the stored events, as in a shard index
+     * An end bound is only recomputed when the store is rewritten, so it may be later than needed.
+     */
+    public synchronized NavigableMap<YearMonth, CSVHandler.ShardInfo> getMonthIndex() {
+        return Collections.unmodifiableNavigableMap(new TreeMap<>(monthIndex));
+    }
+
+    @Override
+    public synchronized List<RecurringEvent> readRecurringEvents() {
+        List<RecurringEvent> recurringEvents = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, byte[]> record : readValues(keysOfKind(RECURRING)).entrySet()) {
+                recurringEvents.add(decodeRecurring(idOf(record.getKey()), record.getValue()));
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading recurring events from the event store: " + e.getMessage());
+        }
+        return recurringEvents;
+    }
+
+    /**
+     * Replace all events with a single new segment; recurring configurations are kept
+     */
+    @Override
+    public synchronized void writeEvents(EventSnapshot snapshot) {
+        try {
+            List<Entry> entries = new ArrayList<>(snapshot.size());
+            for (ImmutableEvent event : snapshot.getEvents()) {
+                entries.add(new Entry(key(EVENT, event.eventId()), encodeEvent(event)));
+            }
+            for (Map.Entry<Long, byte[]> record : readValues(keysOfKind(RECURRING)).entrySet()) {
+                entries.add(new Entry(record.getKey(), record.getValue()));
+            }
+            entries.sort((a, b) -> Long.compare(a.key(), b.key()));
+            replaceSegments(entries);
+        } catch (IOException e) {
+            System.err.println("Error writing events to the event store: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace all events and recurring configurations at once, e.g. for a restore
+     * Returns false, leaving the store unchanged, if the new segment could not be written.
+     */
+    public synchronized boolean replaceAll(List<ImmutableEvent> events, List<RecurringEvent> recurringEvents) {
+        List<Entry> entries = new ArrayList<>(events.size() + recurringEvents.size());
+        for (ImmutableEvent event : events) {
+            entries.add(new Entry(key(EVENT, event.eventId()), encodeEvent(event)));
+        }
+        for (RecurringEvent recurringEvent : recurringEvents) {
+            entries.add(new Entry(key(RECURRING, recurringEvent.getEventId()), encodeRecurring(recurringEvent)));
+        }
+        entries.sort((a, b) -> Long.compare(a.key(), b.key()));
+        try {
+            replaceSegments(entries);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing the event store: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replace all recurring configurations, logging only the difference to the stored ones
+     */
+    @Override
+    public synchronized void writeRecurringEvents(List<RecurringEvent> recurringEvents) {
+        Set<Long> removed = new HashSet<>(keysOfKind(RECURRING));
+        List<Entry> batch = new ArrayList<>();
+        for (RecurringEvent recurringEvent : recurringEvents) {
+            long key = key(RECURRING, recurringEvent.getEventId());
+            removed.remove(key);
+            batch.add(new Entry(key, encodeRecurring(recurringEvent)));
+        }
+        for (long key : removed) {
+            batch.add(new Entry(key, null));
+        }
+        writeBatch(batch);
+    }
+
+    @Override
+    public synchronized boolean applyChanges(BackupDiff changes) {
+        List<Entry> batch = new ArrayList<>();
+        for (ImmutableEvent event : changes.getEvents()) {
+            batch.add(new Entry(key(EVENT, event.eventId()), encodeEvent(event)));
+        }
+        for (RecurringEvent recurringEvent : changes.getRecurringEvents()) {
+            batch.add(new Entry(key(RECURRING, recurringEvent.getEventId()), encodeRecurring(recurringEvent)));
+        }
+        for (int eventId : changes.getDeletedIds()) {
+            for (long key : new long[] {key(EVENT, eventId), key(RECURRING, eventId)}) {
+                if (locations.containsKey(key)) {
+                    batch.add(new Entry(key, null));
+                }
+            }
+        }
+        return writeBatch(batch);
+    }
+
+    /**
+     * Append a batch to the log and apply it to the memtable
+     * The batch is framed with its length and checksum, so replay applies it completely or not at all.
+     */
+    private boolean writeBatch(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(bytes);
+        try {
+            for (Entry entry : batch) {
+                payload.writeByte(entry.value() != null ? PUT : DELETE);
+                payload.writeLong(entry.key());
+                if (entry.value() != null) {
+                    payload.writeInt(entry.value().length);
+                    payload.write(entry.value());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory stream
+        }
+        byte[] data = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+
+        Path logPath = directory.resolve(LOG_FILE);
+        try {
+            fileWriter.append(logPath, out -> {
+                DataOutputStream log = new DataOutputStream(out);
+                log.writeInt(data.length);
+                log.writeInt((int) crc.getValue());
+                log.write(data);
+                log.flush();
+            });
+        } catch (IOException e) {
+            System.err.println("Error writing event store log: " + e.getMessage());
+            truncateLog(logPath, logBytes); // Later batches must not follow a torn one
+            return false;
+        }
+        logBytes += 8 + data.length;
+        for (Entry entry : batch) {
+            applyToMemtable(entry);
+        }
+        if (logBytes >= FLUSH_BYTES) {
+            try {
+                flushMemtable();
+            } catch (IOException e) {
+                // The log still holds the changes; the next batch tries again
+                System.err.println("Error flushing event store memtable: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void applyToMemtable(Entry entry) {
+        if (entry.value() == null) {
+            memtable.put(entry.key(), DELETED);
+            index(entry.key(), null);
+        } else {
+            memtable.put(entry.key(), entry.value());
+            index(entry.key(), new Location(null, 0, startOf(entry), endOf(entry)));
+        }
+    }
+
+    /**
+     * Re-apply the batches logged since the last flush, dropping a torn or damaged tail
+     */
+    private void replayLog() throws IOException {
+        Path logPath = directory.resolve(LOG_FILE);
+        if (!Files.exists(logPath)) {
+            return;
+        }
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(logPath));
+        CRC32C crc = new CRC32C();
+        int valid = 0;
+        while (log.remaining() >= 8) {
+            int length = log.getInt();
+            int expectedCrc = log.getInt();
+            if (length < 0 || length > log.remaining()) {
+                break;
+            }
+            crc.reset();
+            crc.update(log.array(), log.position(), length);
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            ByteBuffer batch = log.slice(log.position(), length);
+            log.position(log.position() + length);
+            while (batch.hasRemaining()) {
+                byte op = batch.get();
+                long key = batch.getLong();
+                byte[] value = null;
+                if (op == PUT) {
+                    value = new byte[batch.getInt()];
+                    batch.get(value);
+                }
+                applyToMemtable(new Entry(key, value));
+            }
+            valid = log.position();
+        }
+        if (valid < log.capacity()) {
+            System.err.println("Event store log ends with an incomplete batch; dropped "
+                    + (log.capacity() - valid) + " bytes");
+            truncateLog(logPath, valid);
+        }
+        logBytes = valid;
+    }
+
+    private static void truncateLog(Path logPath, long length) {
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        } catch (IOException e) {
+            System.err.println("Error truncating event store log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the memtable out as a new segment and start an empty log
+     */
+    private void flushMemtable() throws IOException {
+        List<Entry> entries = new ArrayList<>(memtable.size());
+        for (Map.Entry<Long, byte[]> record : memtable.entrySet()) {
+            entries.add(new Entry(record.getKey(), record.getValue() == DELETED ? null : record.getValue()));
+        }
+        Segment segment = writeSegment(entries);
+        segments.add(segment);
+        try {
+            writeManifest();
+        } catch (IOException e) {
+            segments.remove(segments.size() - 1);
+            Files.deleteIfExists(segment.path);
+            throw e;
+        }
+        fileWriter.write(directory.resolve(LOG_FILE), out -> {
+        });
+        logBytes = 0;
+        memtable.clear();
+        relocate(segment);
+
+        if (segments.size() > MAX_SEGMENTS) {
+            compact();
+        }
+    }
+
+    /**
+     * Merge all segments into one that holds only the live records
+     */
+    private void compact() throws IOException {
+        List<Long> keys = new ArrayList<>();
+        for (Map.Entry<Long, Location> record : locations.entrySet()) {
+            if (record.getValue().segment() != null) {
+                keys.add(record.getKey());
+            }
+        }
+        Collections.sort(keys);
+        Map<Long, byte[]> values = readValues(keys);
+        List<Entry> entries = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            entries.add(new Entry(key, values.get(key)));
+        }
+
+        List<Segment> merged = new ArrayList<>(segments);
+        Segment segment = writeSegment(entries);
+        segments.clear();
+        segments.add(segment);
+        try {
+            writeManifest();
+        } catch (IOException e) {
+            segments.clear();
+            segments.addAll(merged);
+            Files.deleteIfExists(segment.path);
+            throw e;
+        }
+        relocate(segment);
+        for (Segment old : merged) {
+            deleteQuietly(old.path);
+        }
+    }
+
+    /**
+     * Replace the whole store with one segment of the given records, sorted by key
+     */
+    private void replaceSegments(List<Entry> entries) throws IOException {
+        List<Segment> replaced = new ArrayList<>(segments);
+        Segment segment = writeSegment(entries);
+        segments.clear();
+        segments.add(segment);
+        try {
+            writeManifest();
+        } catch (IOException e) {
+            segments.clear();
+            segments.addAll(replaced);
+            Files.deleteIfExists(segment.path);
+            throw e;
+        }
+        // Replaying the old log over the new segment would undo the replacement
+        fileWriter.write(directory.resolve(LOG_FILE), out -> {
+        });
+        logBytes = 0;
+        memtable.clear();
+        locations.clear();
+        startIndex.clear();
+        monthIndex.clear();
+        for (int i = 0; i < segment.keys.length; i++) {
+            index(segment.keys[i], new Location(segment, i, segment.starts[i], segment.ends[i]));
+        }
+        for (Segment old : replaced) {
+            deleteQuietly(old.path);
+        }
+    }
+
+    /**
+     * Point the live records written to a new segment at it; their times are unchanged
+     */
+    private void relocate(Segment segment) {
+        for (int i = 0; i < segment.keys.length; i++) {
+            if (segment.lengths[i] >= 0) {
+                locations.put(segment.keys[i], new Location(segment, i, segment.starts[i], segment.ends[i]));
+            }
+        }
+    }
+
+    /**
+     * Write records sorted by key to a new segment file
+     */
+    private Segment writeSegment(List<Entry> entries) throws IOException {
+        Path path = directory.resolve(String.format("seg-%06d.dat", nextSegmentNumber++));
+        Segment segment = new Segment(path, entries.size());
+        CRC32C crc = new CRC32C();
+        fileWriter.write(path, out -> {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            data.write(SEGMENT_MAGIC);
+            long offset = SEGMENT_MAGIC.length;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                segment.keys[i] = entry.key();
+                segment.offsets[i] = offset;
+                if (entry.value() == null) {
+                    segment.lengths[i] = -1;
+                    continue;
+                }
+                crc.reset();
+                crc.update(entry.value());
+                segment.lengths[i] = entry.value().length;
+                segment.crcs[i] = (int) crc.getValue();
+                segment.starts[i] = startOf(entry);
+                segment.ends[i] = endOf(entry);
+                data.write(entry.value());
+                offset += entry.value().length;
+            }
+
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream(4 + entries.size() * 40);
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeInt(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                footer.writeLong(segment.keys[i]);
+                footer.writeLong(segment.offsets[i]);
+                footer.writeInt(segment.lengths[i]);
+                footer.writeInt(segment.crcs[i]);
+                footer.writeLong(segment.starts[i]);
+                footer.writeLong(segment.ends[i]);
+            }
+            byte[] footerData = footerBytes.toByteArray();
+            crc.reset();
+            crc.update(footerData);
+            data.write(footerData);
+            data.writeLong(offset);
+            data.writeInt((int) crc.getValue());
+            data.flush();
+        });
+        return segment;
+    }
+
+    /**
+     * Read a segment's footer
+     */
+    private static Segment readSegment(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SEGMENT_MAGIC.length + 16
+                    || !readFully(channel, 0, SEGMENT_MAGIC.length).equals(ByteBuffer.wrap(SEGMENT_MAGIC))) {
+                throw new IOException("Event store segment " + path.getFileName() + " is not a segment file");
+            }
+            ByteBuffer trailer = readFully(channel, size - 12, 12);
+            long footerOffset = trailer.getLong();
+            int expectedCrc = trailer.getInt();
+            if (footerOffset < SEGMENT_MAGIC.length || footerOffset > size - 16) {
+                throw new IOException("Event store segment " + path.getFileName() + " has an invalid footer");
+            }
+            ByteBuffer footer = readFully(channel, footerOffset, (int) (size - 12 - footerOffset));
+            CRC32C crc = new CRC32C();
+            crc.update(footer.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Event store segment " + path.getFileName() + " is corrupted: footer checksum mismatch");
+            }
+            Segment segment = new Segment(path, footer.getInt());
+            for (int i = 0; i < segment.keys.length; i++) {
+                segment.keys[i] = footer.getLong();
+                segment.offsets[i] = footer.getLong();
+                segment.lengths[i] = footer.getInt();
+                segment.crcs[i] = footer.getInt();
+                segment.starts[i] = footer.getLong();
+                segment.ends[i] = footer.getLong();
+            }
+            return segment;
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(0, length));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of event store segment");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Read the values of live records, in key order
+     * A segment that holds many of the requested records is read in one pass, otherwise each
+     * record is read where it is.
+     */
+    private Map<Long, byte[]> readValues(List<Long> keys) throws IOException {
+        Map<Segment, List<Long>> bySegment = new HashMap<>();
+        for (long key : keys) {
+            Segment segment = locations.get(key).segment();
+            if (segment != null) {
+                bySegment.computeIfAbsent(segment, s -> new ArrayList<>()).add(key);
+            }
+        }
+        Map<Long, byte[]> values = new HashMap<>(Math.max(16, keys.size() * 2));
+        CRC32C crc = new CRC32C();
+        for (Map.Entry<Segment, List<Long>> group : bySegment.entrySet()) {
+            Segment segment = group.getKey();
+            boolean wholeFile = group.getValue().size() > segment.keys.length / 8;
+            byte[] file = wholeFile ? Files.readAllBytes(segment.path) : null;
+            try (FileChannel channel = wholeFile ? null : FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                for (long key : group.getValue()) {
+                    int position = locations.get(key).position();
+                    int offset = (int) segment.offsets[position];
+                    int length = segment.lengths[position];
+                    byte[] value;
+                    if (wholeFile) {
+                        value = new byte[length];
+                        System.arraycopy(file, offset, value, 0, length);
+                    } else {
+                        value = readFully(channel, segment.offsets[position], length).array();
+                    }
+                    crc.reset();
+                    crc.update(value);
+                    if ((int) crc.getValue() != segment.crcs[position]) {
+                        throw new IOException("Event store segment " + segment.path.getFileName()
+                                + " is corrupted: checksum mismatch in record " + position);
+                    }
+                    values.put(key, value);
+                }
+            }
+        }
+
+        Map<Long, byte[]> ordered = new TreeMap<>();
+        for (long key : keys) {
+            byte[] value = values.get(key);
+            ordered.put(key, value != null ? value : memtable.get(key));
+        }
+        return ordered;
+    }
+
+    private List<Event> readEventsAt(List<Long> keys) {
+        List<Event> events = new ArrayList<>(keys.size());
+        try {
+            for (Map.Entry<Long, byte[]> record : readValues(keys).entrySet()) {
+                events.add(decodeEvent(idOf(record.getKey()), record.getValue()));
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading events from the event store: " + e.getMessage());
+        }
+        return events;
+    }
+
+    private List<Long> keysOfKind(int kind) {
+        List<Long> keys = new ArrayList<>();
+        for (Long key : locations.keySet()) {
+            if (kindOf(key) == kind) {
+                keys.add(key);
+            }
+        }
+        Collections.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Point a key at its new location (null when deleted) and update the time indexes
+     */
+    private void index(long key, Location location) {
+        Location previous = location != null ? locations.put(key, location) : locations.remove(key);
+        if (kindOf(key) != EVENT) {
+            return;
+        }
+        int eventId = idOf(key);
+        if (previous != null) {
+            startIndex.remove(new StartKey(previous.start(), eventId));
+            YearMonth month = monthOf(previous.start());
+            CSVHandler.ShardInfo info = monthIndex.get(month);
+            if (info != null && info.count() > 1) {
+                monthIndex.put(month, new CSVHandler.ShardInfo(info.count() - 1, info.maxEnd()));
+            } else {
+                monthIndex.remove(month);
+            }
+        }
+        if (location != null) {
+            startIndex.add(new StartKey(location.start(), eventId));
+            YearMonth month = monthOf(location.start());
+            LocalDateTime end = IsoTimestampCodec.ofEpochSecond(location.end(), 0);
+            CSVHandler.ShardInfo info = monthIndex.get(month);
+            monthIndex.put(month, info == null ? new CSVHandler.ShardInfo(1, end)
+                    : new CSVHandler.ShardInfo(info.count() + 1, end.isAfter(info.maxEnd()) ? end : info.maxEnd()));
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        fileWriter.writeText(directory.resolve(MANIFEST_FILE), writer -> {
+            writer.write("next " + nextSegmentNumber);
+            writer.newLine();
+            for (Segment segment : segments) {
+                writer.write(segment.path.getFileName().toString());
+                writer.newLine();
+            }
+        });
+    }
+
+    /**
+     * Remove segments left behind by an interrupted flush or compaction
+     */
+    private void deleteStrayFiles(Set<String> liveFiles) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!liveFiles.contains(file.getFileName().toString())) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Error deleting event store file: " + e.getMessage());
+        }
+    }
+
+    private static long key(int kind, int eventId) {
+        return ((long) kind << 32) | (eventId & 0xFFFFFFFFL);
+    }
+
+    private static int kindOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int idOf(long key) {
+        return (int) key;
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return IsoTimestampCodec.toEpochSecond(dateTime);
+    }
+
+    private static YearMonth monthOf(long epochSecond) {
+        return YearMonth.from(IsoTimestampCodec.ofEpochSecond(epochSecond, 0));
+    }
+
+    // Event values start with the start and end times, so they are indexed without decoding the text
+    private static long startOf(Entry entry) {
+        return kindOf(entry.key()) == EVENT ? ByteBuffer.wrap(entry.value()).getLong(0) : 0;
+    }
+
+    private static long endOf(Entry entry) {
+        return kindOf(entry.key()) == EVENT ? ByteBuffer.wrap(entry.value()).getLong(12) : 0;
+    }
+
+    /**
+     * long startSecond, int startNano, long endSecond, int endNano, then title and description
+     */
+    private static byte[] encodeEvent(ImmutableEvent event) {
+        byte[] title = utf8(event.title());
+        byte[] description = utf8(event.description());
+        ByteBuffer buffer = ByteBuffer.allocate(24 + sizeOf(title) + sizeOf(description));
+        buffer.putLong(epochSecond(event.startDateTime())).putInt(event.startDateTime().getNano());
+        buffer.putLong(epochSecond(event.endDateTime())).putInt(event.endDateTime().getNano());
+        putString(buffer, title);
+        putString(buffer, description);
+        return buffer.array();
+    }
+
+    private Event decodeEvent(int eventId, byte[] value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        LocalDateTime start = IsoTimestampCodec.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        LocalDateTime end = IsoTimestampCodec.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        String title = stringPool.intern(getString(buffer));
+        String description = stringPool.intern(getString(buffer));
+        return new Event(eventId, title, description, start, end);
+    }
+
+    /**
+     * interval, int times, long end date as epoch day (Long.MIN_VALUE for none)
+     */
+    private static byte[] encodeRecurring(RecurringEvent recurringEvent) {
+        byte[] interval = utf8(recurringEvent.getRecurrentInterval());
+        ByteBuffer buffer = ByteBuffer.allocate(sizeOf(interval) + 12);
+        putString(buffer, interval);
+        buffer.putInt(recurringEvent.getRecurrentTimes());
+        LocalDate endDate = recurringEvent.getRecurrentEndDate();
+        buffer.putLong(endDate != null ? endDate.toEpochDay() : Long.MIN_VALUE);
+        return buffer.array();
+    }
+
+    private static RecurringEvent decodeRecurring(int eventId, byte[] value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        String interval = getString(buffer);
+        int times = buffer.getInt();
+        long endDay = buffer.getLong();
+        return new RecurringEvent(eventId, interval, times, endDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(endDay));
+    }
+
+    // Strings are an int byte length (-1 for null) and UTF-8 bytes
+    private static byte[] utf8(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int sizeOf(byte[] text) {
+        return 4 + (text != null ? text.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] text) {
+        if (text == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(text.length);
+            buffer.put(text);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String text = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return text;
+    }
+}
@@ -21,7 +21,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +33,7 @@ public class MainFX extends Application {
     private final DateTimeFormatter dateDisplayFmt = DateTimeFormatter.ofPattern("d MMM yyyy");
 
     private EventManager eventManager;
+    private MonthPrefetcher monthPrefetcher;
 
     private YearMonth currentYearMonth;
     private LocalDate selectedDate;
@@ -45,7 +45,14 @@ public class MainFX extends Application {
     @Override
     public void start(Stage primaryStage) {
         Application.setUserAgentStylesheet(Application.STYLESHEET_MODENA);
-        eventManager = new EventManager();
+        // List views load their pages on a background thread, so the manager must be thread-safe.
+        // With sharded storage only the months around today are read before the window opens;
+        // the rest is read in the background.
+        LocalDate today = LocalDate.now();
+        eventManager = new ConcurrentEventManager(today.minusMonths(1).withDayOfMonth(1),
+                today.plusMonths(2).withDayOfMonth(1).minusDays(1));
+        eventManager.loadRemainingInBackground();
+        monthPrefetcher = new MonthPrefetcher(eventManager);
 
         currentYearMonth = YearMonth.now();
         selectedDate = LocalDate.now();
@@ -156,21 +163,10 @@ public class MainFX extends Application {
         populateCalendar(currentYearMonth);
     }
 
-    // Helper method to parse date/time - accepts both 12-hour (with AM/PM) and 24-hour formats
-    private LocalDateTime parseDateTime(String dateTimeStr) throws DateTimeParseException {
-        dateTimeStr = dateTimeStr.trim();
-        try {
-            // Try 12-hour format with AM/PM first
-            return LocalDateTime.parse(dateTimeStr, dateTimeFmt);
-        } catch (DateTimeParseException e1) {
-            try {
-                // Try 24-hour format
-                return LocalDateTime.parse(dateTimeStr, dateTimeFmt24);
-            } catch (DateTimeParseException e2) {
-                // If both fail, throw exception
-                throw new DateTimeParseException("Invalid date/time format", dateTimeStr, 0);
-            }
-        }
+    // Helper method to parse date/time - accepts 12-hour (with AM/PM), 24-hour and date-only input
+    // Returns null for invalid input, so validating a field never builds an exception
+    private LocalDateTime parseDateTime(String dateTimeStr) {
+        return DateTimeInputParser.tryParse(dateTimeStr);
     }
 
     // Removed: selectDate and updateSidebar methods (sidebar functionality removed)
@@ -194,6 +190,7 @@ public class MainFX extends Application {
 
         int row = 1;
         int col = dayOfWeekValue - 1;
+        MonthPrefetcher.MonthData monthData = monthPrefetcher.getMonth(yearMonth);
 
         for (int day = 1; day <= daysInMonth; day++) {
             final LocalDate date = yearMonth.atDay(day);
@@ -214,7 +211,7 @@ public class MainFX extends Application {
             }
 
             // Create content based on whether day has events
-            if (!eventManager.searchEventsByDate(date).isEmpty()) {
+            if (monthData.hasEvents(date)) {
                 Circle dot = new Circle(6, Color.RED);
                 dot.setMouseTransparent(true); // Allow clicks to pass through
                 Label dayNum = new Label(String.valueOf(day));
@@ -266,6 +263,9 @@ public class MainFX extends Application {
                 row++;
             }
         }
+
+        // Have the neighbouring months ready so paging is instant
+        monthPrefetcher.prefetchAround(yearMonth);
     }
 
     private void showDayEventsDialog(LocalDate date) {
@@ -327,22 +327,21 @@ public class MainFX extends Application {
             @Override
             protected void updateItem(Event item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty || item == null) {
+                if (empty) {
                     setText(null);
                     setGraphic(null);
                     setStyle(""); // Clear any previous style
                     setPrefHeight(0); // Set height to 0 to hide empty cells
                     setMaxHeight(0);
                 } else {
-                    String displayText = String.format(
-                        "Event ID: %d\nTitle: %s\nDescription: %s\nDate: %s - %s",
-                        item.getEventId(),
-                        item.getTitle(),
-                        item.getDescription(),
-                        dateTimeFmt.format(item.getStartDateTime()),
-                        dateTimeFmt.format(item.getEndDateTime())
-                    );
-                    setText(displayText);
+                    // Lazily loaded lists carry text formatted off the FX thread
+                    String displayText = null;
+                    if (getListView().getItems() instanceof LazyEventList lazyItems) {
+                        displayText = lazyItems.getText(getIndex());
+                    } else if (item != null) {
+                        displayText = formatEventCell(item);
+                    }
+                    setText(displayText != null ? displayText : "Loading...");
                     setFont(Font.font("Arial", FontWeight.BOLD, 16));
                     setPrefHeight(120);
                     setMaxHeight(120);
@@ -352,6 +351,60 @@ public class MainFX extends Application {
         };
     }
 
+    // Text shown for an event in ListViews (may run on a background thread)
+    private String formatEventCell(Event item) {
+        return String.format(
+            "Event ID: %d\nTitle: %s\nDescription: %s\nDate: %s - %s",
+            item.getEventId(),
+            item.getTitle(),
+            item.getDescription(),
+            dateTimeFmt.format(item.getStartDateTime()),
+            dateTimeFmt.format(item.getEndDateTime())
+        );
+    }
+
+    // Replace a ListView's items with a lazily paged list, stopping any previous one
+    private LazyEventList showLazyResults(ListView<Event> list, LazyEventList.PageSource source) {
+        if (list.getItems() instanceof LazyEventList previous) {
+            previous.close();
+        }
+        LazyEventList items = new LazyEventList(source, this::formatEventCell);
+        list.setItems(items);
+        list.getSelectionModel().clearSelection();
+        list.setPlaceholder(null); // Drop an error left by a previous result
+        items.setOnError(error -> showLoadError(list, items, error));
+        // Pages are installed on this thread later, so callers can still set onPageLoaded
+        items.start();
+        return items;
+    }
+
+    // Offer to load failed pages again: in place of an empty list, or in a dialog over loaded rows
+    private void showLoadError(ListView<Event> list, LazyEventList items, RuntimeException error) {
+        String message = "Could not load events: " + error.getMessage();
+        if (!items.isEmpty()) {
+            if (showConfirm("Loading failed", message + "\nTry again?")) {
+                items.retry();
+            }
+            return;
+        }
+        Button retry = new Button("Retry");
+        retry.setOnAction(_ -> {
+            list.setPlaceholder(null);
+            items.retry();
+        });
+        VBox placeholder = new VBox(8, new Label(message), retry);
+        placeholder.setAlignment(Pos.CENTER);
+        list.setPlaceholder(placeholder);
+    }
+
+    // Result count text; the count is a lower bound until the last page has loaded
+    private String lazyCountText(LazyEventList items, String verb) {
+        if (items.isComplete()) {
+            return verb + " " + items.size() + " event(s)";
+        }
+        return verb + " " + items.size() + "+ event(s) - Scroll down to load more";
+    }
+
     private void showCreateDialog(Stage owner) {
         Dialog<Event> dialog = new Dialog<>();
         dialog.initOwner(owner);
@@ -399,48 +452,47 @@ public class MainFX extends Application {
     }
 
     private Event createEventFromInputs(String title, String desc, String startStr, String endStr) {
-        try {
-            // Validate title is not blank
-            if (title == null || title.trim().isEmpty()) {
-                System.out.println("Error: Title is blank");
-                showAlert("Missing Title", "Please enter a title name.");
-                return null;
-            }
+        // Validate title is not blank
+        if (title == null || title.trim().isEmpty()) {
+            System.out.println("Error: Title is blank");
+            showAlert("Missing Title", "Please enter a title name.");
+            return null;
+        }
 
-            System.out.println("Creating event: " + title);
-            System.out.println("Start: " + startStr + ", End: " + endStr);
+        System.out.println("Creating event: " + title);
+        System.out.println("Start: " + startStr + ", End: " + endStr);
 
-            LocalDateTime start = parseDateTime(startStr);
-            LocalDateTime end = parseDateTime(endStr);
+        LocalDateTime start = parseDateTime(startStr);
+        LocalDateTime end = parseDateTime(endStr);
+        if (start == null || end == null) {
+            System.out.println("Parse error: " + (start == null ? startStr : endStr));
+            showAlert("Invalid date/time", "Use format yyyy-MM-dd hh:mm AM/PM or yyyy-MM-dd HH:mm");
+            return null;
+        }
 
-            if (!end.isAfter(start)) {
-                System.out.println("Error: End time not after start time");
-                showAlert("Invalid range", "End time must be after start time.");
-                return null;
-            }
+        if (!end.isAfter(start)) {
+            System.out.println("Error: End time not after start time");
+            showAlert("Invalid range", "End time must be after start time.");
+            return null;
+        }
 
-            List<Event> conflicts = eventManager.checkConflicts(start, end);
-            if (!conflicts.isEmpty()) {
-                System.out.println("Found " + conflicts.size() + " conflicting events");
-                String summary = conflicts.stream()
-                        .limit(3)
-                        .map(ev -> dateTimeFmt.format(ev.getStartDateTime()) + " " + ev.getTitle())
-                        .collect(Collectors.joining("\n"));
-                boolean proceed = showConfirm("Time conflict", "Overlaps with existing events:\n" + summary + "\nCreate anyway?");
-                if (!proceed) {
-                    System.out.println("User cancelled due to conflict");
-                    return null;
-                }
+        List<Event> conflicts = eventManager.checkConflicts(start, end);
+        if (!conflicts.isEmpty()) {
+            System.out.println("Found " + conflicts.size() + " conflicting events");
+            String summary = conflicts.stream()
+                    .limit(3)
+                    .map(ev -> dateTimeFmt.format(ev.getStartDateTime()) + " " + ev.getTitle())
+                    .collect(Collectors.joining("\n"));
+            boolean proceed = showConfirm("Time conflict", "Overlaps with existing events:\n" + summary + "\nCreate anyway?");
+            if (!proceed) {
+                System.out.println("User cancelled due to conflict");
+                return null;
             }
-
-            Event createdEvent = eventManager.createEvent(title, desc, start, end);
-            System.out.println("Event created successfully with ID: " + createdEvent.getEventId());
-            return createdEvent;
-        } catch (DateTimeParseException ex) {
-            System.out.println("Parse error: " + ex.getMessage());
-            showAlert("Invalid date/time", "Use format yyyy-MM-dd hh:mm AM/PM or yyyy-MM-dd HH:mm");
-            return null;
         }
+
+        Event createdEvent = eventManager.createEvent(title, desc, start, end);
+        System.out.println("Event created successfully with ID: " + createdEvent.getEventId());
+        return createdEvent;
     }
 
     private void showRecurringDialog(Stage owner) {
@@ -567,6 +619,10 @@ public class MainFX extends Application {
 
             LocalDateTime start = parseDateTime(startStr);
             LocalDateTime end = parseDateTime(endStr);
+            if (start == null || end == null) {
+                showAlert("Invalid date/time", "Use format yyyy-MM-dd hh:mm AM/PM or yyyy-MM-dd HH:mm for start/end.");
+                return null;
+            }
             if (!end.isAfter(start)) {
                 showAlert("Invalid range", "End time must be after start time.");
                 return null;
@@ -579,9 +635,6 @@ public class MainFX extends Application {
             };
             int times = Integer.parseInt(timesStr);
             return eventManager.createRecurringEvent(title, desc, start, end, interval, times, null);
-        } catch (DateTimeParseException ex) {
-            showAlert("Invalid date/time", "Use format yyyy-MM-dd hh:mm AM/PM or yyyy-MM-dd HH:mm for start/end.");
-            return null;
         } catch (NumberFormatException ex) {
             showAlert("Invalid number", "Times must be a number.");
             return null;
@@ -630,16 +683,14 @@ public class MainFX extends Application {
         Runnable performSearch = () -> {
             System.out.println("\n=== SEARCHING EVENTS ===");
 
-            List<Event> matches = eventManager.getAllEvents();
-            System.out.println("Total events in system: " + matches.size());
-
             LocalDate startDate = null;
             LocalDate endDate = null;
-            try {
-                if (!startField.getText().isBlank()) startDate = LocalDate.parse(startField.getText(), dateFmt);
-                if (!endField.getText().isBlank()) endDate = LocalDate.parse(endField.getText(), dateFmt);
-            } catch (Exception ex) {
+            if (!startField.getText().isBlank()) startDate = DateTimeInputParser.tryParseDate(startField.getText());
+            if (!endField.getText().isBlank()) endDate = DateTimeInputParser.tryParseDate(endField.getText());
+            if ((startDate == null && !startField.getText().isBlank()) || (endDate == null && !endField.getText().isBlank())) {
+                // An invalid date drops both date filters, as before
                 startDate = null;
+                endDate = null;
             }
             Integer idFilter = null;
             try {
@@ -674,57 +725,30 @@ public class MainFX extends Application {
             final String descKw = descField.getText().toLowerCase();
             final boolean upcomingOnly = upcomingBox.isSelected();
 
-            matches = matches.stream()
-                    .filter(ev -> {
-                        if (idFilterFinal != null && ev.getEventId() != idFilterFinal) return false;
-                        if (!titleKw.isBlank() && !ev.getTitle().toLowerCase().contains(titleKw)) return false;
-                        if (!descKw.isBlank() && !ev.getDescription().toLowerCase().contains(descKw)) return false;
-                        if (startDateFinal != null || endDateFinal != null) {
-                            LocalDate s = startDateFinal != null ? startDateFinal : LocalDate.MIN;
-                            LocalDate t = endDateFinal != null ? endDateFinal : LocalDate.MAX;
-                            LocalDate evStart = ev.getStartDateTime().toLocalDate();
-                            LocalDate evEnd = ev.getEndDateTime().toLocalDate();
-                            if (evStart.isAfter(t) || evEnd.isBefore(s)) return false;
-                        }
-                        return !upcomingOnly || ev.getStartDateTime().isAfter(LocalDateTime.now());
-                    })
-                    .sorted(java.util.Comparator.comparing(Event::getStartDateTime))
-                    .toList();
+            // Date bounds are applied through the start-time index, the rest as a filter
+            java.util.function.Predicate<Event> filter = ev -> {
+                if (idFilterFinal != null && ev.getEventId() != idFilterFinal) return false;
+                if (!titleKw.isBlank() && !ev.getTitle().toLowerCase().contains(titleKw)) return false;
+                if (!descKw.isBlank() && !ev.getDescription().toLowerCase().contains(descKw)) return false;
+                return !upcomingOnly || ev.getStartDateTime().isAfter(LocalDateTime.now());
+            };
 
-            // Log search results
-            System.out.println("\nSearch Results: " + matches.size() + " event(s) found");
-            if (!matches.isEmpty()) {
-                System.out.println("Found events:");
-                for (Event ev : matches) {
-                    System.out.println("  - ID: " + ev.getEventId() +
-                                     " | " + dateTimeFmt.format(ev.getStartDateTime()) +
-                                     " | \"" + ev.getTitle() + "\"");
-                }
-            } else {
-                System.out.println("  No events match the search criteria");
-            }
+            LazyEventList matches = showLazyResults(results, (limit, token) ->
+                    eventManager.getSnapshotPage(startDateFinal, endDateFinal, filter, limit, token));
+            System.out.println("GUI ListView now loads matching events page by page");
             System.out.println("========================\n");
 
-            results.getItems().setAll(matches);
-            System.out.println("GUI ListView updated with " + results.getItems().size() + " event(s)");
-
-            // Verify what's actually in the ListView
-            System.out.println("Verifying ListView contents:");
-            for (int i = 0; i < results.getItems().size(); i++) {
-                Event ev = results.getItems().get(i);
-                System.out.println("  ListView[" + i + "]: ID=" + ev.getEventId() +
-                                 ", Title=\"" + ev.getTitle() + "\"");
-            }
-            System.out.println();
-
-            // Update result count label
-            if (matches.isEmpty()) {
-                resultCountLabel.setText("No events found");
-                resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #e74c3c;");
-            } else {
-                resultCountLabel.setText("Found " + matches.size() + " event(s) - Scroll down to see all");
-                resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #27ae60;");
-            }
+            // Update result count label as pages arrive
+            matches.setOnPageLoaded(() -> {
+                System.out.println("Search Results: " + lazyCountText(matches, "loaded"));
+                if (matches.isEmpty()) {
+                    resultCountLabel.setText("No events found");
+                    resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #e74c3c;");
+                } else {
+                    resultCountLabel.setText(lazyCountText(matches, "Found"));
+                    resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #27ae60;");
+                }
+            });
         };
 
         run.setOnAction(_ -> {
@@ -758,29 +782,18 @@ public class MainFX extends Application {
             System.out.println("\n📋 SHOW ALL button clicked!");
             System.out.println("Loading all events...");
 
-            List<Event> allEvents = eventManager.getAllEvents().stream()
-                    .sorted(java.util.Comparator.comparing(Event::getStartDateTime))
-                    .toList();
+            LazyEventList allEvents = showLazyResults(results, (limit, token) ->
+                    eventManager.getSnapshotPage(null, null, null, limit, token));
 
-            System.out.println("Total events in system: " + allEvents.size());
-            if (!allEvents.isEmpty()) {
-                System.out.println("All events:");
-                for (Event ev : allEvents) {
-                    System.out.println("  - ID: " + ev.getEventId() +
-                                     " | " + dateTimeFmt.format(ev.getStartDateTime()) +
-                                     " | \"" + ev.getTitle() + "\"");
+            allEvents.setOnPageLoaded(() -> {
+                if (allEvents.isEmpty()) {
+                    resultCountLabel.setText("No events in system");
+                    resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #e74c3c;");
+                } else {
+                    resultCountLabel.setText(lazyCountText(allEvents, "Showing"));
+                    resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #27ae60;");
                 }
-            }
-
-            results.getItems().setAll(allEvents);
-
-            if (allEvents.isEmpty()) {
-                resultCountLabel.setText("No events in system");
-                resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #e74c3c;");
-            } else {
-                resultCountLabel.setText("Showing all " + allEvents.size() + " event(s) - Scroll down to see all");
-                resultCountLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #27ae60;");
-            }
+            });
             System.out.println("====================\n");
         });
 
@@ -1097,31 +1110,21 @@ public class MainFX extends Application {
         load.setOnAction(_ -> {
             try {
                 System.out.println("\nLoading events for list view...");
-                LocalDate s = LocalDate.parse(startField.getText(), dateFmt);
-                LocalDate t = LocalDate.parse(endField.getText(), dateFmt);
+                LocalDate s = DateTimeInputParser.tryParseDate(startField.getText());
+                LocalDate t = DateTimeInputParser.tryParseDate(endField.getText());
+                if (s == null || t == null) {
+                    System.out.println("✗ Invalid date format: " + (s == null ? startField.getText() : endField.getText()));
+                    showAlert("Invalid date", "Use yyyy-MM-dd");
+                    return;
+                }
 
                 System.out.println("Date range:");
                 System.out.println("  Start: " + dateFmt.format(s));
                 System.out.println("  End: " + dateFmt.format(t));
 
-                List<Event> events = eventManager.searchEventsByDateRange(s, t).stream()
-                        .sorted(java.util.Comparator.comparing(Event::getStartDateTime))
-                        .toList();
-
-                System.out.println("\nFound " + events.size() + " event(s) in date range");
-                if (!events.isEmpty()) {
-                    System.out.println("Events:");
-                    for (Event ev : events) {
-                        System.out.println("  - ID: " + ev.getEventId() +
-                                         " | " + dateTimeFmt.format(ev.getStartDateTime()) +
-                                         " | \"" + ev.getTitle() + "\"");
-                    }
-                } else {
-                    System.out.println("  No events in this date range");
-                }
-
-                list.getItems().setAll(events);
-                System.out.println("List view updated with " + events.size() + " event(s)");
+                // Pages are fetched as the user scrolls; the first one appears as soon as it is loaded
+                LazyEventList events = showLazyResults(list, (limit, token) -> eventManager.getSnapshotPage(s, t, null, limit, token));
+                events.setOnPageLoaded(() -> System.out.println("List view loaded " + events.size() + " event(s)"));
                 System.out.println("====================\n");
             } catch (Exception ex) {
                 System.out.println("✗ Invalid date format: " + ex.getMessage());
@@ -1397,14 +1400,16 @@ public class MainFX extends Application {
             }
         });
 
+        CheckBox compressBox = new CheckBox("Compress (smaller file, checksummed blocks)");
         Button backupBtn = new Button("Create Backup");
         backupBtn.getStyleClass().add("primary-button");
         backupBtn.setOnAction(_ -> {
             System.out.println("\nCreating backup...");
             System.out.println("  Backup file: " + backupPath.getText());
             System.out.println("  Total events: " + eventManager.getAllEvents().size());
+            System.out.println("  Compressed: " + (compressBox.isSelected() ? "Yes" : "No"));
 
-            boolean ok = eventManager.createBackup(backupPath.getText());
+            boolean ok = eventManager.createBackup(backupPath.getText(), compressBox.isSelected());
 
             if (ok) {
                 System.out.println("✓ Backup created successfully!");
@@ -1437,6 +1442,8 @@ public class MainFX extends Application {
         });
 
         CheckBox appendBox = new CheckBox("Append (otherwise replace)");
+        CheckBox skipDuplicatesBox = new CheckBox("Skip events identical to existing ones");
+        skipDuplicatesBox.disableProperty().bind(appendBox.selectedProperty().not());
         Button restoreBtn = new Button("Restore");
         restoreBtn.getStyleClass().add("primary-button");
         restoreBtn.setOnAction(_ -> {
@@ -1445,7 +1452,8 @@ public class MainFX extends Application {
             System.out.println("  Mode: " + (appendBox.isSelected() ? "Append" : "Replace"));
             System.out.println("  Current events before restore: " + eventManager.getAllEvents().size());
 
-            boolean ok = eventManager.restoreFromBackup(restorePath.getText(), appendBox.isSelected());
+            boolean ok = eventManager.restoreFromBackup(restorePath.getText(), appendBox.isSelected(),
+                    skipDuplicatesBox.isSelected());
 
             if (ok) {
                 System.out.println("✓ Restore completed successfully!");
@@ -1462,10 +1470,12 @@ public class MainFX extends Application {
         VBox box = new VBox(15,
                 new Label("📁 BACKUP"),
                 new HBox(8, new Label("Save to:"), backupPath, browseSaveBtn, backupBtn),
+                compressBox,
                 new Separator(),
                 new Label("📂 RESTORE"),
                 new HBox(8, new Label("Open from:"), restorePath, browseOpenBtn, restoreBtn),
-                appendBox);
+                appendBox,
+                skipDuplicatesBox);
         box.setPadding(new Insets(15));
         dialog.getDialogPane().setContent(box);
         dialog.showAndWait();
@@ -1516,6 +1526,7 @@ public class MainFX extends Application {
         sb.append("╚════════════════════════════════════════════════════════╝\n\n");
         sb.append("Total Events: ").append(all.size()).append("\n");
         sb.append("Next Event ID: ").append(eventManager.getNextEventId()).append("\n");
+        sb.append("Text Dedup: ").append(eventManager.getStringPool().getStats()).append("\n");
         // Reuse already calculated variables
         sb.append("  ✓ Completed: ").append(past).append("\n");
         sb.append("  → Ongoing: ").append(ongoing).append("\n");
@@ -1720,48 +1731,47 @@ public class MainFX extends Application {
 
         dialog.setResultConverter(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    LocalDateTime start = parseDateTime(startField.getText());
-                    LocalDateTime end = parseDateTime(endField.getText());
-                    if (!end.isAfter(start)) {
-                        showAlert("Invalid range", "End time must be after start time.");
+                LocalDateTime start = parseDateTime(startField.getText());
+                LocalDateTime end = parseDateTime(endField.getText());
+                if (start == null || end == null) {
+                    System.out.println("✗ Invalid date/time format: " + (start == null ? startField.getText() : endField.getText()));
+                    showAlert("Invalid date/time", "Use format yyyy-MM-dd hh:mm AM/PM or yyyy-MM-dd HH:mm");
+                    return false;
+                }
+                if (!end.isAfter(start)) {
+                    showAlert("Invalid range", "End time must be after start time.");
+                    return false;
+                }
+                List<Event> conflicts = eventManager.checkConflicts(start, end).stream()
+                        .filter(ev -> ev.getEventId() != sel.getEventId())
+                        .toList();
+                if (!conflicts.isEmpty()) {
+                    System.out.println("Time conflict detected with " + conflicts.size() + " event(s)");
+                    String summary = conflicts.stream().limit(3)
+                            .map(ev -> dateTimeFmt.format(ev.getStartDateTime()) + " " + ev.getTitle())
+                            .collect(Collectors.joining("\n"));
+                    if (!showConfirm("Time conflict", "Overlaps with existing events:\n" + summary + "\nSave anyway?")) {
+                        System.out.println("Edit cancelled due to conflict");
                         return false;
                     }
-                    List<Event> conflicts = eventManager.checkConflicts(start, end).stream()
-                            .filter(ev -> ev.getEventId() != sel.getEventId())
-                            .toList();
-                    if (!conflicts.isEmpty()) {
-                        System.out.println("Time conflict detected with " + conflicts.size() + " event(s)");
-                        String summary = conflicts.stream().limit(3)
-                                .map(ev -> dateTimeFmt.format(ev.getStartDateTime()) + " " + ev.getTitle())
-                                .collect(Collectors.joining("\n"));
-                        if (!showConfirm("Time conflict", "Overlaps with existing events:\n" + summary + "\nSave anyway?")) {
-                            System.out.println("Edit cancelled due to conflict");
-                            return false;
-                        }
-                    }
+                }
 
-                    System.out.println("\nUpdating event ID " + sel.getEventId() + ":");
-                    System.out.println("  Old Title: \"" + sel.getTitle() + "\" → New Title: \"" + titleField.getText() + "\"");
-                    System.out.println("  Old Description: \"" + sel.getDescription() + "\" → New Description: \"" + descField.getText() + "\"");
-                    System.out.println("  Old Start: " + dateTimeFmt.format(sel.getStartDateTime()) + " → New Start: " + dateTimeFmt.format(start));
-                    System.out.println("  Old End: " + dateTimeFmt.format(sel.getEndDateTime()) + " → New End: " + dateTimeFmt.format(end));
+                System.out.println("\nUpdating event ID " + sel.getEventId() + ":");
+                System.out.println("  Old Title: \"" + sel.getTitle() + "\" → New Title: \"" + titleField.getText() + "\"");
+                System.out.println("  Old Description: \"" + sel.getDescription() + "\" → New Description: \"" + descField.getText() + "\"");
+                System.out.println("  Old Start: " + dateTimeFmt.format(sel.getStartDateTime()) + " → New Start: " + dateTimeFmt.format(start));
+                System.out.println("  Old End: " + dateTimeFmt.format(sel.getEndDateTime()) + " → New End: " + dateTimeFmt.format(end));
 
-                    boolean success = eventManager.updateEvent(sel.getEventId(), titleField.getText(), descField.getText(), start, end);
-                    if (success) {
-                        System.out.println("✓ Event updated successfully!");
-                        showAlert("Success", "Event updated successfully!");
-                    } else {
-                        System.out.println("✗ Failed to update event - event not found");
-                        showAlert("Error", "Failed to update event. Event not found.");
-                    }
-                    System.out.println("==================\n");
-                    return success;
-                } catch (DateTimeParseException ex) {
-                    System.out.println("✗ Invalid date/time format: " + ex.getMessage());
-                    showAlert("Invalid date/time", "Use format yyyy-MM-dd hh:mm AM/PM or yyyy-MM-dd HH:mm");
-                    return false;
+                boolean success = eventManager.updateEvent(sel.getEventId(), titleField.getText(), descField.getText(), start, end);
+                if (success) {
+                    System.out.println("✓ Event updated successfully!");
+                    showAlert("Success", "Event updated successfully!");
+                } else {
+                    System.out.println("✗ Failed to update event - event not found");
+                    showAlert("Error", "Failed to update event. Event not found.");
                 }
+                System.out.println("==================\n");
+                return success;
             }
             System.out.println("Edit cancelled by user");
             return false;
@@ -1793,7 +1803,6 @@ public class MainFX extends Application {
         // Create a runnable for searching/refreshing the list
         Runnable performSearch = () -> {
             System.out.println("\nSearching for events to delete...");
-            List<Event> all = eventManager.getAllEvents();
             Integer idVal = null;
             try {
                 if (!idField.getText().isBlank()) idVal = Integer.parseInt(idField.getText());
@@ -1809,22 +1818,12 @@ public class MainFX extends Application {
                 System.out.println("  Search by Title: \"" + titleKw + "\"");
             }
 
-            List<Event> matches = all.stream()
-                    .filter(ev -> {
+            LazyEventList matches = showLazyResults(results, (limit, token) ->
+                    eventManager.getSnapshotPage(null, null, ev -> {
                         if (idValFinal != null && ev.getEventId() != idValFinal) return false;
                         return titleKw.isBlank() || ev.getTitle().toLowerCase().contains(titleKw);
-                    })
-                    .toList();
-
-            System.out.println("Found " + matches.size() + " event(s) matching criteria");
-            if (!matches.isEmpty()) {
-                for (Event ev : matches) {
-                    System.out.println("  - ID: " + ev.getEventId() + " | \"" + ev.getTitle() + "\" | " + dateTimeFmt.format(ev.getStartDateTime()));
-                }
-            }
-
-            results.getItems().setAll(matches);
-            results.getSelectionModel().clearSelection(); // Clear selection after refresh
+                    }, limit, token));
+            matches.setOnPageLoaded(() -> System.out.println(lazyCountText(matches, "Found") + " matching criteria"));
         };
 
         Button findBtn = new Button("Find");
@@ -0,0 +1,150 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caches per-day event occurrences by month and precomputes the neighbouring months in the background.
+ * Months are computed from an immutable EventSnapshot taken on the caller's thread, so the background
+ * work never touches EventManager itself. Cached months are tagged with the snapshot version and are
+ * recomputed after any mutation. Snapshots hold only the months computed from them, taken from the
+ * start-time index, so a month costs its own events and a lazily loaded manager reads just its shards.
+ */
+public class MonthPrefetcher {
+    private static final int MAX_CACHED_MONTHS = 12;
+
+    private final EventManager eventManager;
+    private final ExecutorService executor;
+    private final Map<YearMonth, MonthData> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, MonthData> eldest) {
+            return size() > MAX_CACHED_MONTHS;
+        }
+    };
+
+    /**
+     * Events of one month grouped by every day they occur on
+     */
+    public static final class MonthData {
+        private final long version;
+        private final List<ImmutableEvent> events;
+        private final Map<LocalDate, List<ImmutableEvent>> eventsByDay;
+
+        private MonthData(long version, List<ImmutableEvent> events, Map<LocalDate, List<ImmutableEvent>> eventsByDay) {
+            this.version = version;
+            this.events = events;
+            this.eventsByDay = eventsByDay;
+        }
+
+        /**
+         * Events overlapping the month, ordered by start time
+         */
+        public List<ImmutableEvent> getEvents() {
+            return events;
+        }
+
+        /**
+         * Events overlapping the given day, ordered by start time
+         */
+        public List<ImmutableEvent> getEventsOn(LocalDate date) {
+            return eventsByDay.getOrDefault(date, List.of());
+        }
+
+        public boolean hasEvents(LocalDate date) {
+            return eventsByDay.containsKey(date);
+        }
+    }
+
+    public MonthPrefetcher(EventManager eventManager) {
+        this.eventManager = eventManager;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "month-prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the occurrences of a month, computing them now if they are not cached
+     */
+    public MonthData getMonth(YearMonth month) {
+        EventSnapshot snapshot = eventManager.getSnapshot(month.atDay(1), month.atEndOfMonth());
+        MonthData data = cached(month, snapshot.getVersion());
+        if (data == null) {
+            data = compute(snapshot, month);
+            store(month, data);
+        }
+        return data;
+    }
+
+    /**
+     * Precompute the months before and after the given one in the background
+     */
+    public void prefetchAround(YearMonth month) {
+        EventSnapshot snapshot = eventManager.getSnapshot(month.minusMonths(1).atDay(1),
+                month.plusMonths(1).atEndOfMonth());
+        executor.execute(() -> {
+            for (YearMonth neighbour : List.of(month.minusMonths(1), month.plusMonths(1))) {
+                if (cached(neighbour, snapshot.getVersion()) == null) {
+                    store(neighbour, compute(snapshot, neighbour));
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop all cached months
+     */
+    public synchronized void invalidate() {
+        cache.clear();
+    }
+
+    private synchronized MonthData cached(YearMonth month, long version) {
+        MonthData data = cache.get(month);
+        return data != null && data.version == version ? data : null;
+    }
+
+    private synchronized void store(YearMonth month, MonthData data) {
+        MonthData existing = cache.get(month);
+        // Never replace a month computed from a newer snapshot
+        if (existing == null || existing.version <= data.version) {
+            cache.put(month, data);
+        }
+    }
+
+    /**
+     * Group the snapshot's events by the days of the month they overlap, in one pass
+     * The snapshot is in start-time order and holds at most the month and its neighbours.
+     */
+    private static MonthData compute(EventSnapshot snapshot, YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+
+        List<ImmutableEvent> events = new ArrayList<>();
+        for (ImmutableEvent event : snapshot.getEvents()) {
+            LocalDate start = event.startDateTime().toLocalDate();
+            LocalDate end = event.endDateTime().toLocalDate();
+            if (!start.isAfter(last) && !end.isBefore(first)) {
+                events.add(event);
+            }
+        }
+
+        Map<LocalDate, List<ImmutableEvent>> eventsByDay = new HashMap<>();
+        for (ImmutableEvent event : events) {
+            LocalDate start = event.startDateTime().toLocalDate();
+            LocalDate end = event.endDateTime().toLocalDate();
+            LocalDate day = start.isBefore(first) ? first : start;
+            LocalDate stop = end.isAfter(last) ? last : end;
+            for (; !day.isAfter(stop); day = day.plusDays(1)) {
+                eventsByDay.computeIfAbsent(day, d -> new ArrayList<>()).add(event);
+            }
+        }
+        return new MonthData(snapshot.getVersion(), Collections.unmodifiableList(events), eventsByDay);
+    }
+}
@@ -0,0 +1,244 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+
+/**
+ * A RecurringEvent's interval, compiled once instead of re-read for every occurrence
+ * Occurrence n is the first one advanced n times, the way the instances have always been
+ * generated: months are added step by step, so a series that starts on the 31st keeps the
+ * shorter day once a month has clamped it. Day and week rules jump to an occurrence with one
+ * addition; month rules work out the clamped day with integer arithmetic, so only the result is
+ * created either way.
+ */
+public final class RecurrenceRule {
+    public enum Unit {
+        DAYS, WEEKS, MONTHS
+    }
+
+    private final Unit unit;
+    private final int step;
+    private final int limit; // 0 for no limit
+    private final LocalDate endDate; // null for no end date
+
+    private RecurrenceRule(Unit unit, int step, int limit, LocalDate endDate) {
+        this.unit = unit;
+        this.step = step;
+        this.limit = limit;
+        this.endDate = endDate;
+    }
+
+    /**
+     * Compile an interval such as "1d", "2w" or "1m" with its occurrence limit and end date
+     */
+    public static RecurrenceRule compile(String interval, int times, LocalDate endDate) {
+        if (interval == null || interval.length() < 2) {
+            throw new IllegalArgumentException("Invalid recurring interval: " + interval);
+        }
+        char type = interval.charAt(interval.length() - 1);
+        Unit unit;
+        switch (type) {
+            case 'd':
+                unit = Unit.DAYS;
+                break;
+            case 'w':
+                unit = Unit.WEEKS;
+                break;
+            case 'm':
+                unit = Unit.MONTHS;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid recurring interval type: " + type);
+        }
+        int step = Integer.parseInt(interval.substring(0, interval.length() - 1));
+        return new RecurrenceRule(unit, step, Math.max(times, 0), endDate);
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * The date/time one interval after dateTime
+     */
+    public LocalDateTime next(LocalDateTime dateTime) {
+        switch (unit) {
+            case DAYS:
+                return dateTime.plusDays(step);
+            case WEEKS:
+                return dateTime.plusWeeks(step);
+            default:
+                return dateTime.plusMonths(step);
+        }
+    }
+
+    /**
+     * The date/time of occurrence n of a series whose first occurrence is at first
+     * Same as calling next() n times, without the intermediate values.
+     */
+    public LocalDateTime nth(LocalDateTime first, long n) {
+        if (n == 0) {
+            return first;
+        }
+        if (unit != Unit.MONTHS) {
+            return first.plusDays(Math.multiplyExact(n, stepDays()));
+        }
+        LocalDateTime shifted = first.plusMonths(Math.multiplyExact(n, (long) step));
+        int day = clampedDay(first.toLocalDate(), n);
+        return day < shifted.getDayOfMonth() ? shifted.withDayOfMonth(day) : shifted;
+    }
+
+    /**
+     * Index of the first occurrence starting on or after date, or -1 if the series never
+     * reaches it; the limit and end date are not applied, see isWithinBounds
+     */
+    public long indexOnOrAfter(LocalDateTime first, LocalDate date) {
+        LocalDate firstDate = first.toLocalDate();
+        if (!firstDate.isBefore(date)) {
+            return 0;
+        }
+        if (step <= 0) {
+            return -1;
+        }
+        if (unit != Unit.MONTHS) {
+            return Math.ceilDiv(date.toEpochDay() - firstDate.toEpochDay(), stepDays());
+        }
+        // Occurrence k falls in month monthIndex(first) + k * step; only its day can be early
+        long index = Math.ceilDiv(monthIndex(date) - monthIndex(firstDate), (long) step);
+        return nth(first, index).toLocalDate().isBefore(date) ? index + 1 : index;
+    }
+
+    /**
+     * Whether occurrence index, starting at start, is within the limit and end date
+     */
+    public boolean isWithinBounds(long index, LocalDateTime start) {
+        return (limit == 0 || index < limit) && (endDate == null || !start.toLocalDate().isAfter(endDate));
+    }
+
+    /**
+     * Iterate over the occurrences of a series, starting with the given first one
+     */
+    public Occurrences occurrences(LocalDateTime firstStart, LocalDateTime firstEnd) {
+        return new Occurrences(firstStart, firstEnd);
+    }
+
+    private long stepDays() {
+        return unit == Unit.WEEKS ? 7L * step : step;
+    }
+
+    /**
+     * Day of month of occurrence n: the first day, clamped by the shortest month visited
+     */
+    private int clampedDay(LocalDate first, long n) {
+        int day = first.getDayOfMonth();
+        if (day <= 28 || step == 0) {
+            return day;
+        }
+        long month = monthIndex(first);
+        boolean februaryVisited = false;
+        for (long k = 1; k <= n && day > 28; k++) {
+            if (k > 12 && !februaryVisited) {
+                break; // Every month of the year the series visits has been seen
+            }
+            long index = month + k * step;
+            int monthOfYear = (int) Math.floorMod(index, 12L) + 1;
+            int length;
+            if (monthOfYear == 2) {
+                februaryVisited = true;
+                length = Year.isLeap(Math.floorDiv(index, 12L)) ? 29 : 28;
+            } else {
+                length = monthOfYear == 4 || monthOfYear == 6 || monthOfYear == 9 || monthOfYear == 11 ? 30 : 31;
+            }
+            day = Math.min(day, length);
+        }
+        return day;
+    }
+
+    private static long monthIndex(LocalDate date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Cursor over the occurrences of a series within the rule's limit and end date
+     * One cursor serves the whole series; each next() creates only the two date/times it returns.
+     */
+    public final class Occurrences {
+        private final LocalDateTime firstStart;
+        private final LocalDateTime firstEnd;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private long index = -1;
+        private boolean positioned; // start and end already hold the next occurrence
+        private boolean exhausted;
+
+        private Occurrences(LocalDateTime firstStart, LocalDateTime firstEnd) {
+            this.firstStart = firstStart;
+            this.firstEnd = firstEnd;
+            this.start = firstStart;
+            this.end = firstEnd;
+            this.positioned = true;
+        }
+
+        /**
+         * Move to the next occurrence, returning false after the last one
+         */
+        public boolean next() {
+            if (exhausted) {
+                return false;
+            }
+            if (positioned) {
+                positioned = false;
+            } else {
+                start = RecurrenceRule.this.next(start);
+                end = RecurrenceRule.this.next(end);
+            }
+            index++;
+            exhausted = !isWithinBounds(index, start);
+            return !exhausted;
+        }
+
+        /**
+         * Jump ahead so that next() moves to the first occurrence starting on or after date
+         */
+        public void skipTo(LocalDate date) {
+            long target = indexOnOrAfter(firstStart, date);
+            if (target < 0 || (limit > 0 && target >= limit)) {
+                exhausted = true;
+                return;
+            }
+            if (target <= index + 1) {
+                return;
+            }
+            start = nth(firstStart, target);
+            end = nth(firstEnd, target);
+            index = target - 1;
+            positioned = true;
+        }
+
+        /**
+         * Index of the current occurrence; the first one is 0
+         */
+        public long index() {
+            return index;
+        }
+
+        public LocalDateTime start() {
+            return start;
+        }
+
+        public LocalDateTime end() {
+            return end;
+        }
+    }
+}
@@ -8,6 +8,7 @@ public class RecurringEvent {
     private String recurrentInterval; // e.g., "1d", "1w", "2w", "1m"
     private int recurrentTimes; // 0 for indefinite until end date
     private LocalDate recurrentEndDate; // null if using recurrentTimes
+    private RecurrenceRule rule; // Compiled on first use, cleared when the configuration changes
 
     public RecurringEvent() {
     }
@@ -34,6 +35,7 @@ public class RecurringEvent {
 
     public void setRecurrentInterval(String recurrentInterval) {
         this.recurrentInterval = recurrentInterval;
+        this.rule = null;
     }
 
     public int getRecurrentTimes() {
@@ -42,6 +44,7 @@ public class RecurringEvent {
 
     public void setRecurrentTimes(int recurrentTimes) {
         this.recurrentTimes = recurrentTimes;
+        this.rule = null;
     }
 
     public LocalDate getRecurrentEndDate() {
@@ -50,6 +53,7 @@ public class RecurringEvent {
 
     public void setRecurrentEndDate(LocalDate recurrentEndDate) {
         this.recurrentEndDate = recurrentEndDate;
+        this.rule = null;
     }
 
     @Override
@@ -81,7 +85,7 @@ public class RecurringEvent {
 
         LocalDate endDate = null;
         if (!parts[3].equals("0")) {
-            endDate = LocalDate.parse(parts[3]);
+            endDate = IsoTimestampCodec.parseDate(parts[3]);
         }
 
         return new RecurringEvent(
@@ -92,6 +96,18 @@ public class RecurringEvent {
         );
     }
 
+    /**
+     * The compiled interval, limit and end date, for generating occurrences
+     */
+    public RecurrenceRule getRule() {
+        RecurrenceRule compiled = rule;
+        if (compiled == null) {
+            compiled = RecurrenceRule.compile(recurrentInterval, recurrentTimes, recurrentEndDate);
+            rule = compiled;
+        }
+        return compiled;
+    }
+
     /**
      * Get interval type and value
      */
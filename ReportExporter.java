@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Renders month, week and list views for a date span to text files in parallel
+ * Events are grouped once into a shared EventDateIndex; each worker thread renders with its own
+ * CalendarView and buffer and writes every file in a single write.
+ *
+ * Output files: month-yyyy-MM.txt and list-yyyy-MM.txt for every month touching the span,
+ * week-yyyy-MM-dd.txt (named after the Monday) for every week touching the span.
+ * Usage: java CalendarApp --export fromDate toDate outputDir [threads]
+ */
+public class ReportExporter {
+    private final EventManager eventManager;
+    private final ThreadLocal<CalendarView> views = ThreadLocal.withInitial(CalendarView::new);
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+
+    /**
+     * Totals of one export run
+     */
+    public record Summary(int files, long bytes, long elapsedNanos, int threads) {
+        public double seconds() {
+            return elapsedNanos / 1_000_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = Math.max(seconds(), 1e-9);
+            return String.format("Exported %d files (%.1f KB) in %.3f s with %d threads: %.0f files/s, %.2f MB/s",
+                    files, bytes / 1024.0, seconds(), threads, files / seconds, bytes / seconds / (1024 * 1024));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Report {
+        void render(CalendarView view, StringBuilder out) throws IOException;
+    }
+
+    public ReportExporter(EventManager eventManager) {
+        this.eventManager = eventManager;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: java CalendarApp --export <fromDate yyyy-MM-dd> <toDate yyyy-MM-dd> <outputDir> [threads]");
+            return;
+        }
+        try {
+            LocalDate from = LocalDate.parse(args[0]);
+            LocalDate to = LocalDate.parse(args[1]);
+            int threads = args.length > 3 ? Integer.parseInt(args[3])
+                    : Runtime.getRuntime().availableProcessors();
+            Summary summary = new ReportExporter(new EventManager()).export(from, to, Path.of(args[2]), threads);
+            System.out.println(summary);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Render every month, week and list report touching [from, to] into outputDir
+     */
+    public Summary export(LocalDate from, LocalDate to, Path outputDir, int threads) throws IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        long startTime = System.nanoTime();
+        Files.createDirectories(outputDir);
+
+        YearMonth firstMonth = YearMonth.from(from);
+        YearMonth lastMonth = YearMonth.from(to);
+        LocalDate firstMonday = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate lastMonday = to.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        // Week grids start on the Sunday before their Monday, so index from there
+        LocalDate indexStart = min(firstMonth.atDay(1), firstMonday.minusDays(1));
+        LocalDate indexEnd = max(lastMonth.atEndOfMonth(), lastMonday.plusDays(5));
+        EventDateIndex index = EventDateIndex.of(eventManager.groupEventsByStartDay(indexStart, indexEnd));
+
+        List<Path> paths = new ArrayList<>();
+        List<Report> reports = new ArrayList<>();
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            YearMonth current = month;
+            LocalDate listStart = max(current.atDay(1), from);
+            LocalDate listEnd = min(current.atEndOfMonth(), to);
+            paths.add(outputDir.resolve("month-" + current + ".txt"));
+            reports.add((view, out) -> view.renderMonthView(out, current, index));
+            paths.add(outputDir.resolve("list-" + current + ".txt"));
+            reports.add((view, out) -> view.renderListView(out, listStart, listEnd, index));
+        }
+        for (LocalDate monday = firstMonday; !monday.isAfter(lastMonday); monday = monday.plusWeeks(1)) {
+            LocalDate current = monday;
+            paths.add(outputDir.resolve("week-" + current + ".txt"));
+            reports.add((view, out) -> view.renderWeekCalendarView(out, current, index));
+        }
+
+        long bytes = 0;
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<Long>> results = new ArrayList<>(reports.size());
+            for (int i = 0; i < reports.size(); i++) {
+                Path path = paths.get(i);
+                Report report = reports.get(i);
+                results.add(pool.submit(() -> write(path, report)));
+            }
+            for (Future<Long> result : results) {
+                bytes += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Export failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return new Summary(reports.size(), bytes, System.nanoTime() - startTime, threads);
+    }
+
+    /**
+     * Render one report into this thread's buffer and write it out at once
+     */
+    private long write(Path path, Report report) throws IOException {
+        StringBuilder out = buffers.get();
+        out.setLength(0);
+        report.render(views.get(), out);
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(path, bytes);
+        return bytes.length;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
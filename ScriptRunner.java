@@ -0,0 +1,268 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-interactive batch mode: applies commands read from a file or stdin as one batch
+ * Usage: java CalendarApp --script <file|->
+ *
+ * One command per line; arguments are separated by spaces, use double quotes for text with
+ * spaces (\" and \\ escape inside quotes). Blank lines and lines starting with # are ignored.
+ *   create    <title> <description> <start> <end>
+ *   recurring <title> <description> <start> <end> <interval> <times> [endDate]
+ *   update    <id> <title> <description> <start> <end>
+ *   delete    <id>
+ *   search    date <yyyy-MM-dd> | range <from> <to> | title <keyword>
+ *   backup    <file>
+ *   diffbackup <file> <previousBackup>
+ * Times are ISO (2026-01-20T14:30). Every command prints one JSON object per line with its
+ * line number and status; a final {"status":"done",...} line summarises the run.
+ * Changes are kept in memory and saved once at the end; backups are taken from memory.
+ */
+public class ScriptRunner {
+    private final EventManager eventManager;
+    private final Writer out;
+    private int commands;
+    private int errors;
+
+    public ScriptRunner(EventManager eventManager, Writer out) {
+        this.eventManager = eventManager;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java CalendarApp --script <file|->");
+            return;
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        try (BufferedReader in = args[0].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            new ScriptRunner(new EventManager(), out).run(in);
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Execute every command of the script inside a single batch
+     */
+    public void run(BufferedReader in) throws IOException {
+        long startTime = System.nanoTime();
+        int lineNumber = 0;
+        eventManager.beginBatch();
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                commands++;
+                execute(lineNumber, trimmed);
+            }
+        } finally {
+            eventManager.commitBatch();
+        }
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        out.write(JsonUtil.object("status", "done", "commands", commands, "errors", errors,
+                "events", eventManager.getSnapshot().size(), "elapsedMs", elapsedMillis));
+        out.write('\n');
+    }
+
+    private void execute(int lineNumber, String line) throws IOException {
+        String command = "";
+        try {
+            List<String> args = tokenize(line);
+            command = args.get(0).toLowerCase();
+            switch (command) {
+                case "create": {
+                    expectArgs(args, 5, 5);
+                    LocalDateTime start = parseDateTime(args.get(3));
+                    LocalDateTime end = parseDateTime(args.get(4));
+                    validateInterval(start, end);
+                    Event event = eventManager.createEvent(args.get(1), args.get(2), start, end);
+                    ok(lineNumber, command, "eventId", event.getEventId());
+                    break;
+                }
+                case "recurring": {
+                    expectArgs(args, 7, 8);
+                    String interval = args.get(5);
+                    if (!interval.matches("\\d+[dwm]")) {
+                        throw new IllegalArgumentException("Invalid interval, expected e.g. 1d, 2w or 1m: " + interval);
+                    }
+                    int times = Integer.parseInt(args.get(6));
+                    LocalDate endDate = args.size() > 7 ? LocalDate.parse(args.get(7)) : null;
+                    if (times <= 0 && endDate == null) {
+                        throw new IllegalArgumentException("Recurring events need times > 0 or an end date");
+                    }
+                    LocalDateTime start = parseDateTime(args.get(3));
+                    LocalDateTime end = parseDateTime(args.get(4));
+                    validateInterval(start, end);
+                    Event event = eventManager.createRecurringEvent(args.get(1), args.get(2),
+                            start, end, interval, times, endDate);
+                    ok(lineNumber, command, "eventId", event.getEventId());
+                    break;
+                }
+                case "update": {
+                    expectArgs(args, 6, 6);
+                    int eventId = Integer.parseInt(args.get(1));
+                    LocalDateTime start = parseDateTime(args.get(4));
+                    LocalDateTime end = parseDateTime(args.get(5));
+                    validateInterval(start, end);
+                    if (!eventManager.updateEvent(eventId, args.get(2), args.get(3), start, end)) {
+                        throw new IllegalArgumentException("Event not found: " + eventId);
+                    }
+                    ok(lineNumber, command, "eventId", eventId);
+                    break;
+                }
+                case "delete": {
+                    expectArgs(args, 2, 2);
+                    int eventId = Integer.parseInt(args.get(1));
+                    if (!eventManager.deleteEvent(eventId)) {
+                        throw new IllegalArgumentException("Event not found: " + eventId);
+                    }
+                    ok(lineNumber, command, "eventId", eventId);
+                    break;
+                }
+                case "search":
+                    search(lineNumber, args);
+                    break;
+                case "backup": {
+                    expectArgs(args, 2, 2);
+                    if (!eventManager.createBackup(args.get(1))) {
+                        throw new IllegalArgumentException("Backup failed: " + args.get(1));
+                    }
+                    ok(lineNumber, command, "file", args.get(1));
+                    break;
+                }
+                case "diffbackup": {
+                    expectArgs(args, 3, 3);
+                    if (!eventManager.createDifferentialBackup(args.get(1), args.get(2), false)) {
+                        throw new IllegalArgumentException("Differential backup failed: " + args.get(1));
+                    }
+                    ok(lineNumber, command, "file", args.get(1));
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown command: " + args.get(0));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException is an IllegalArgumentException
+            errors++;
+            out.write(JsonUtil.object("line", lineNumber, "command", command, "status", "error",
+                    "error", e.getMessage()));
+            out.write('\n');
+        }
+    }
+
+    private void search(int lineNumber, List<String> args) throws IOException {
+        if (args.size() < 3) {
+            throw new IllegalArgumentException("Usage: search date <d> | range <from> <to> | title <keyword>");
+        }
+        List<Event> results;
+        switch (args.get(1).toLowerCase()) {
+            case "date":
+                expectArgs(args, 3, 3);
+                results = eventManager.searchEventsByDate(LocalDate.parse(args.get(2)));
+                break;
+            case "range":
+                expectArgs(args, 4, 4);
+                results = eventManager.searchEventsByDateRange(LocalDate.parse(args.get(2)), LocalDate.parse(args.get(3)));
+                break;
+            case "title":
+                expectArgs(args, 3, 3);
+                results = eventManager.searchEventsByTitle(args.get(2));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown search type: " + args.get(1));
+        }
+
+        // Same object as ok() with an extra "events" array
+        String header = JsonUtil.object("line", lineNumber, "command", "search", "status", "ok", "count", results.size());
+        out.write(header, 0, header.length() - 1);
+        out.write(",\"events\":[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            JsonUtil.appendEvent(out, ImmutableEvent.of(results.get(i)));
+        }
+        out.write("]}\n");
+    }
+
+    private void ok(int lineNumber, String command, String key, Object value) throws IOException {
+        out.write(JsonUtil.object("line", lineNumber, "command", command, "status", "ok", key, value));
+        out.write('\n');
+    }
+
+    private static void expectArgs(List<String> args, int min, int max) {
+        if (args.size() < min || args.size() > max) {
+            throw new IllegalArgumentException("Wrong number of arguments for " + args.get(0));
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        return IsoTimestampCodec.parse(value.trim());
+    }
+
+    private static void validateInterval(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End time cannot be before start time");
+        }
+    }
+
+    /**
+     * Split a command line on spaces, keeping double-quoted text together
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean inQuotes = false;
+        boolean hasToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '\\' && i + 1 < line.length()) {
+                    token.append(line.charAt(++i));
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+                hasToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (hasToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    hasToken = false;
+                }
+            } else {
+                token.append(c);
+                hasToken = true;
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (hasToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
@@ -269,6 +269,7 @@ public class StatisticsManager {
         System.out.println("Past Events: " + pastEvents);
         System.out.println("Ongoing Events: " + ongoingEvents);
         System.out.println("Upcoming Events: " + upcomingEvents);
+        System.out.println("Text Deduplication: " + eventManager.getStringPool().getStats());
     }
 
     /**
@@ -0,0 +1,95 @@
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates repeated event text (titles and descriptions) so identical strings share one instance
+ * Strings are held weakly: text that no event uses any more, e.g. after an update or delete,
+ * leaves the pool when it is garbage collected, so a long-running process does not accumulate it.
+ */
+public class StringPool {
+    // Approximate heap cost of a String object plus its backing array header
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    // The key and the reference are the same instance, so the entry goes when the string does
+    private final Map<String, WeakReference<String>> pool = new WeakHashMap<>(); // Guarded by this
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder savedChars = new LongAdder();
+
+    /**
+     * Return the pooled instance equal to the given value, adding it if it is new
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookups.increment();
+
+        String existing;
+        synchronized (this) {
+            WeakReference<String> reference = pool.get(value);
+            existing = reference != null ? reference.get() : null;
+            if (existing == null) {
+                pool.put(value, new WeakReference<>(value));
+                return value;
+            }
+        }
+        if (existing != value) {
+            hits.increment();
+            savedChars.add(value.length());
+        }
+        return existing;
+    }
+
+    /**
+     * Number of distinct strings held by the pool that are still in use
+     */
+    public synchronized int size() {
+        return pool.size();
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Percentage of lookups that were answered by an existing instance
+     */
+    public double getHitRate() {
+        long total = getLookups();
+        return total == 0 ? 0.0 : (getHits() * 100.0) / total;
+    }
+
+    /**
+     * Estimated heap bytes saved by sharing duplicates instead of keeping separate copies
+     */
+    public long getEstimatedBytesSaved() {
+        return getHits() * STRING_OVERHEAD_BYTES + savedChars.sum();
+    }
+
+    /**
+     * Drop all pooled strings and reset the counters
+     */
+    public void clear() {
+        synchronized (this) {
+            pool.clear();
+        }
+        lookups.reset();
+        hits.reset();
+        savedChars.reset();
+    }
+
+    /**
+     * One-line summary of the pool savings
+     */
+    public String getStats() {
+        return String.format("%d unique strings, %d/%d lookups deduplicated (%.1f%%), ~%.1f KB saved",
+                size(), getHits(), getLookups(), getHitRate(), getEstimatedBytesSaved() / 1024.0);
+    }
+}
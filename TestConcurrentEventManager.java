@@ -0,0 +1,210 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Stress test for ConcurrentEventManager: concurrent writers and readers must not
+ * lose updates or hand out duplicate event IDs.
+ * Run it from an empty working directory, it rewrites events.csv and recurrent.csv.
+ */
+public class TestConcurrentEventManager {
+    private static final int WRITERS = 8;
+    private static final int EVENTS_PER_WRITER = 200;
+    private static final int READERS = 4;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Testing ConcurrentEventManager under contention...");
+
+        ConcurrentEventManager eventManager = new ConcurrentEventManager();
+        int initialCount = eventManager.getAllEvents().size();
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writersDone = new AtomicBoolean(false);
+        AtomicLong reads = new AtomicLong();
+
+        List<Future<List<Integer>>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            final int writer = w;
+            writers.add(pool.submit(() -> {
+                start.await();
+                List<Integer> ids = new ArrayList<>();
+                LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0).plusDays(writer);
+                for (int i = 0; i < EVENTS_PER_WRITER; i++) {
+                    Event event = eventManager.createEvent("Writer " + writer, "Event " + i,
+                            base.plusHours(i), base.plusHours(i).plusMinutes(30));
+                    ids.add(event.getEventId());
+                }
+                // Every writer updates its own events, none of these updates may be lost
+                for (int id : ids) {
+                    Event event = eventManager.findEventById(id);
+                    eventManager.updateEvent(id, "Updated " + id, event.getDescription(),
+                            event.getStartDateTime(), event.getEndDateTime());
+                }
+                return ids;
+            }));
+        }
+
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                while (!writersDone.get()) {
+                    EventSnapshot snapshot = eventManager.getSnapshot();
+                    if (snapshot.size() < initialCount) {
+                        throw new IllegalStateException("Snapshot lost events: " + snapshot.size());
+                    }
+                    eventManager.searchEventsByDate(LocalDate.of(2026, 1, 3));
+                    eventManager.searchEventsByTitle("writer");
+                    reads.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+
+        Set<Integer> allIds = new HashSet<>();
+        boolean passed = true;
+        for (Future<List<Integer>> writer : writers) {
+            for (int id : writer.get()) {
+                if (!allIds.add(id)) {
+                    System.out.println("FAIL: duplicate event ID " + id);
+                    passed = false;
+                }
+            }
+        }
+        writersDone.set(true);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        pool.shutdown();
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+
+        int expected = initialCount + WRITERS * EVENTS_PER_WRITER;
+        int actual = eventManager.getAllEvents().size();
+        if (actual != expected) {
+            System.out.println("FAIL: expected " + expected + " events in memory, found " + actual);
+            passed = false;
+        }
+        for (int id : allIds) {
+            Event event = eventManager.findEventById(id);
+            if (event == null || !event.getTitle().equals("Updated " + id)) {
+                System.out.println("FAIL: lost update for event " + id);
+                passed = false;
+            }
+        }
+
+        // The last flush must contain every event
+        int persisted = new EventManager().getAllEvents().size();
+        if (persisted != expected) {
+            System.out.println("FAIL: expected " + expected + " events on disk, found " + persisted);
+            passed = false;
+        }
+
+        System.out.printf("%d writes and %d read rounds in %d ms%n",
+                WRITERS * EVENTS_PER_WRITER * 2, reads.get(), elapsedMs);
+        passed &= testContinuationTokens(eventManager);
+        if (!passed) {
+            System.exit(1);
+        }
+        System.out.println("All concurrency tests passed!");
+    }
+
+    /**
+     * Paging through getEventsPage: events sharing a start time are ordered by ID, a token stays
+     * valid when its event is deleted, malformed tokens are rejected and a filter may skip pages
+     */
+    private static boolean testContinuationTokens(ConcurrentEventManager eventManager) {
+        boolean passed = true;
+        LocalDate day = LocalDate.of(2031, 5, 1); // No other test creates events in 2031
+        LocalDateTime tie = day.atTime(10, 0);
+        List<Integer> expected = new ArrayList<>();
+        expected.add(eventManager.createEvent("Early", "", tie.minusHours(1), tie).getEventId());
+        for (int i = 0; i < 23; i++) {
+            expected.add(eventManager.createEvent("Tie " + i, "", tie, tie.plusMinutes(30)).getEventId());
+        }
+        expected.add(eventManager.createEvent("Late", "", tie.plusHours(1), tie.plusHours(2)).getEventId());
+
+        for (int limit : new int[]{1, 5, 7, 25, 100}) {
+            List<Integer> paged = pageIds(eventManager, day, null, limit);
+            if (!paged.equals(expected)) {
+                System.out.println("FAIL: pages of " + limit + " gave " + paged + ", expected " + expected);
+                passed = false;
+            }
+        }
+
+        // Delete the event a token points at: the next page continues right after it
+        EventPage<Event> first = eventManager.getEventsPage(day, day, 5, null);
+        int tokenEvent = first.getEvents().get(4).getEventId();
+        eventManager.deleteEvent(tokenEvent);
+        List<Integer> rest = new ArrayList<>();
+        for (Event event : eventManager.getEventsPage(day, day, 100, first.getNextToken()).getEvents()) {
+            rest.add(event.getEventId());
+        }
+        if (!rest.equals(expected.subList(5, expected.size()))) {
+            System.out.println("FAIL: after deleting event " + tokenEvent + " the next page was " + rest);
+            passed = false;
+        }
+        expected.remove(Integer.valueOf(tokenEvent));
+
+        for (String token : new String[]{"", "garbage", "2031-05-01T10:00", "2031-05-01T10:00_x", "2031-13-01T10:00_5"}) {
+            try {
+                eventManager.getEventsPage(day, day, 5, token);
+                System.out.println("FAIL: malformed token '" + token + "' was accepted");
+                passed = false;
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+
+        // Matches far apart: whole pages' worth of events are skipped between them
+        Set<Integer> every10th = new HashSet<>();
+        for (int i = 0; i < expected.size(); i += 10) {
+            every10th.add(expected.get(i));
+        }
+        List<Integer> filtered = pageIds(eventManager, day, event -> every10th.contains(event.getEventId()), 1);
+        if (filtered.size() != every10th.size() || !every10th.containsAll(filtered)) {
+            System.out.println("FAIL: filtered pages gave " + filtered + ", expected " + every10th);
+            passed = false;
+        }
+        // The last match ends the last full page, so no token may be handed out for an empty page
+        int lastMatch = expected.get(expected.size() - 1);
+        EventPage<Event> last = eventManager.getEventsPage(day, day, event -> event.getEventId() == lastMatch, 1, null);
+        if (last.getEvents().size() != 1 || last.hasMore()) {
+            System.out.println("FAIL: single match page had " + last.getEvents().size() + " events, more " + last.hasMore());
+            passed = false;
+        }
+        EventPage<Event> none = eventManager.getEventsPage(day, day, event -> false, 3, null);
+        if (!none.getEvents().isEmpty() || none.hasMore()) {
+            System.out.println("FAIL: a filter rejecting everything must give one empty last page");
+            passed = false;
+        }
+        return passed;
+    }
+
+    private static List<Integer> pageIds(EventManager eventManager, LocalDate day,
+                                         Predicate<Event> filter, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        String token = null;
+        do {
+            EventPage<Event> page = eventManager.getEventsPage(day, day, filter, limit, token);
+            for (Event event : page.getEvents()) {
+                ids.add(event.getEventId());
+            }
+            token = page.getNextToken();
+        } while (token != null && ids.size() < 1000); // A token that does not advance must not hang the test
+        return ids;
+    }
+}
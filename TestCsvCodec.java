@@ -0,0 +1,126 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the CSV codec: quoted rows must round-trip, and rows written before fields were
+ * quoted must still load one line per event, whatever commas and quotes their text holds.
+ */
+public class TestCsvCodec {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 1, 11, 0);
+
+    private static boolean passed = true;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("Testing CsvCodec...");
+
+        testLegacyRows();
+        testQuotedRoundTrip();
+        testWriterMatchesToCSV();
+
+        if (!passed) {
+            System.exit(1);
+        }
+        System.out.println("All CSV codec tests passed!");
+    }
+
+    /**
+     * Rows as the baseline wrote them: commas and quotes in the text, nothing escaped
+     */
+    private static void testLegacyRows() throws IOException {
+        String file = "1,24\" monitor,buy it,2024-01-01T10:00,2024-01-01T11:00\n"
+                + "2,Lunch, with team,bring notes, and slides,2024-01-01T10:00,2024-01-01T11:00\n"
+                + "3,\"Big\" sale,50% off,2024-01-01T10:00,2024-01-01T11:00\n"
+                + "4,Quote: \"hello,world\",said twice,2024-01-01T10:00,2024-01-01T11:00\n"
+                + "5,Plain,Row,2024-01-01T10:00,2024-01-01T11:00\n";
+        List<Event> events = readAll(file);
+        check(events.size() == 5, "legacy file read as " + events.size() + " events, expected 5");
+        if (events.size() != 5) {
+            return;
+        }
+        expect(events.get(0), 1, "24\" monitor", "buy it");
+        expect(events.get(1), 2, "Lunch", "with team,bring notes, and slides");
+        expect(events.get(2), 3, "\"Big\" sale", "50% off");
+        expect(events.get(3), 4, "Quote: \"hello", "world\",said twice");
+        expect(events.get(4), 5, "Plain", "Row");
+    }
+
+    /**
+     * Text that needs quoting must come back unchanged, including line breaks
+     */
+    private static void testQuotedRoundTrip() throws IOException {
+        String[][] texts = {
+                {"Team, meeting", "Agenda: \"Q1\" goals"},
+                {"\"Quoted\"", "\"\""},
+                {"Two\nlines", "Three\nline\ndescription, with comma"},
+                {"  padded  ", " leading"},
+                {"", "trailing quote\""},
+                {"Ünïcödé, ✓", "emoji 😀 \"x\""},
+        };
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < texts.length; i++) {
+            file.append(new Event(i + 1, texts[i][0], texts[i][1], START, END).toCSV()).append('\n');
+        }
+        List<Event> events = readAll(file.toString());
+        check(events.size() == texts.length, "quoted file read as " + events.size() + " events, expected " + texts.length);
+        for (int i = 0; i < Math.min(events.size(), texts.length); i++) {
+            expect(events.get(i), i + 1, texts[i][0], texts[i][1]);
+        }
+    }
+
+    /**
+     * CsvEventWriter must write the same bytes as toCSV lines
+     */
+    private static void testWriterMatchesToCSV() throws IOException {
+        List<Event> events = new ArrayList<>();
+        events.add(new Event(1, "Plain", "Row", START, END));
+        events.add(new Event(2, "Team, meeting", "Say \"hi\"", START, END.withSecond(30)));
+        events.add(new Event(3, "Two\nlines", "Ünïcödé 😀", START.withNano(5_000_000), END));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StringBuilder expected = new StringBuilder();
+        try (CsvEventWriter writer = new CsvEventWriter(bytes)) {
+            for (Event event : events) {
+                writer.write(event);
+                expected.append(event.toCSV()).append(System.lineSeparator());
+            }
+        }
+        check(bytes.toString(StandardCharsets.UTF_8).equals(expected.toString()),
+                "CsvEventWriter output differs from toCSV");
+    }
+
+    private static List<Event> readAll(String file) throws IOException {
+        List<Event> events = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(file))) {
+            String record;
+            while ((record = CsvCodec.readRecord(reader)) != null) {
+                try {
+                    events.add(Event.fromCSV(record));
+                } catch (RuntimeException e) {
+                    check(false, "could not read record [" + record + "]: " + e.getMessage());
+                }
+            }
+        }
+        return events;
+    }
+
+    private static void expect(Event event, int id, String title, String description) {
+        check(event.getEventId() == id && event.getTitle().equals(title)
+                        && event.getDescription().equals(description)
+                        && event.getStartDateTime().equals(START) && event.getEndDateTime().equals(END),
+                "expected " + id + " [" + title + "] [" + description + "], got " + event.getEventId()
+                        + " [" + event.getTitle() + "] [" + event.getDescription() + "]");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.out.println("FAIL: " + message);
+            passed = false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Tests for DateTimeInputParser: text the dialogs' formatters accepted must give the same value,
+ * and the cases where the parser deliberately differs from them must behave as documented.
+ */
+public class TestDateTimeInputParser {
+    private static final DateTimeFormatter TWELVE_HOUR = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a", Locale.US);
+    private static final DateTimeFormatter TWENTY_FOUR_HOUR = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm", Locale.US);
+    private static final String MUTATIONS = "0123456789 :-APMapmx";
+
+    private static final TestHarness TEST = new TestHarness("DateTimeInputParser");
+
+    public static void main(String[] args) {
+        testIntendedDifferences();
+        testDates();
+        TEST.fuzz(49, 50_000, TestDateTimeInputParser::randomValue);
+        TEST.finish("All date/time input tests passed!");
+    }
+
+    /**
+     * Inputs the formatters handled differently on purpose
+     */
+    private static void testIntendedDifferences() {
+        // Days past the end of the month and 24:00 are rejected instead of adjusted
+        expect("2026-04-31 10:00", null);
+        expect("2026-02-29 10:00 AM", null);
+        expect("2024-02-29 10:00 AM", LocalDateTime.of(2024, 2, 29, 10, 0));
+        expect("2026-01-20 24:00", null);
+        expect("2026-01-20 13:00 PM", null);
+        // AM/PM in any case, with or without the space, and a one-digit hour
+        expect("2026-01-20 09:05 pm", LocalDateTime.of(2026, 1, 20, 21, 5));
+        expect("2026-01-20 09:05 Am", LocalDateTime.of(2026, 1, 20, 9, 5));
+        expect("2026-01-20 9:05 PM", LocalDateTime.of(2026, 1, 20, 21, 5));
+        expect("2026-01-20 12:30PM", LocalDateTime.of(2026, 1, 20, 12, 30));
+        expect("2026-01-20 12:00 AM", LocalDateTime.of(2026, 1, 20, 0, 0));
+        expect("2026-01-20 00:10 AM", LocalDateTime.of(2026, 1, 20, 0, 10)); // 00 is read as 12, as before
+        // A date alone is the start of that day
+        expect("2026-01-20", LocalDateTime.of(2026, 1, 20, 0, 0));
+        expect("  2026-01-20  ", LocalDateTime.of(2026, 1, 20, 0, 0));
+        // Any other timestamp IsoTimestampCodec reads
+        expect("2026-01-20T10:00", LocalDateTime.of(2026, 1, 20, 10, 0));
+        expect("2026-01-20 10:00:30", LocalDateTime.of(2026, 1, 20, 10, 0, 30));
+
+        String[] invalid = {
+                null, "", "   ", "AM", "xAM", "PM", "2026-01-20 10:00 XM", "2026-01-20 10:0 AM",
+                "2026-01-20 100:00 AM", "2026-01-20T10:00 AM", "2026-01-20 10:60 AM", "2026-01-2010:00",
+                "2026-1-20 10:00", "2026-01-20 10:00 AMM", "20260120", "2026-13-01",
+        };
+        for (String text : invalid) {
+            expect(text, null);
+        }
+    }
+
+    private static void testDates() {
+        TEST.check(Objects.equals(DateTimeInputParser.tryParseDate(" 2026-01-20 "), LocalDate.of(2026, 1, 20)),
+                "tryParseDate must trim the text");
+        TEST.check(DateTimeInputParser.tryParseDate("2026-04-31") == null, "tryParseDate must reject 2026-04-31");
+        TEST.check(DateTimeInputParser.tryParseDate(null) == null, "tryParseDate(null) must give null");
+        TEST.check(DateTimeInputParser.tryParseDate("2026-01-20 10:00") == null, "tryParseDate must reject a time");
+    }
+
+    /**
+     * A value the dialog formatters write must parse back, with or without surrounding blanks,
+     * and a one-character mutation of it must either be rejected or parse as the formatters did
+     */
+    private static void randomValue(Random random) {
+        LocalDateTime value = LocalDateTime.of(1900 + random.nextInt(300), 1 + random.nextInt(12),
+                1, random.nextInt(24), random.nextInt(60)).plusDays(random.nextInt(31));
+        String text = (random.nextBoolean() ? TWELVE_HOUR : TWENTY_FOUR_HOUR).format(value);
+        expect(random.nextInt(10) == 0 ? " " + text + " " : text, value);
+
+        char[] chars = text.toCharArray();
+        chars[random.nextInt(chars.length)] = MUTATIONS.charAt(random.nextInt(MUTATIONS.length()));
+        String mutated = new String(chars);
+        LocalDateTime expected = parseWithFormatters(mutated);
+        LocalDateTime actual = DateTimeInputParser.tryParse(mutated);
+        if (expected != null && !adjustedByFormatters(mutated)) {
+            TEST.check(expected.equals(actual), "'" + mutated + "': formatters " + expected + ", parser " + actual);
+        }
+    }
+
+    /**
+     * How the dialogs read input before: ISO first, then the 12-hour and 24-hour formatters
+     */
+    private static LocalDateTime parseWithFormatters(String text) {
+        text = text.trim();
+        LocalDateTime value = IsoTimestampCodec.tryParse(text);
+        if (value != null) {
+            return value;
+        }
+        try {
+            return LocalDateTime.parse(text, TWELVE_HOUR);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(text, TWENTY_FOUR_HOUR);
+            } catch (DateTimeParseException e2) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Whether the formatters adjusted the text rather than read it: they moved 04-31 to 04-30
+     * and 24:00 to midnight of the next day, which the parser rejects
+     */
+    private static boolean adjustedByFormatters(String text) {
+        text = text.trim();
+        return text.length() < 13 || IsoTimestampCodec.tryParseDate(text.substring(0, 10)) == null
+                || text.startsWith("24", 11);
+    }
+
+    private static void expect(String text, LocalDateTime expected) {
+        LocalDateTime actual = DateTimeInputParser.tryParse(text);
+        TEST.check(Objects.equals(expected, actual), "'" + text + "': expected " + expected + ", parser " + actual);
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Shared plumbing of the main-style tests: reports failed checks, runs seeded random rounds and
+ * exits with status 1 if anything failed.
+ */
+final class TestHarness {
+    private static final int MAX_FAILURES = 20;
+
+    private int failures;
+
+    /**
+     * Print the test header
+     */
+    TestHarness(String subject) {
+        System.out.println("Testing " + subject + "...");
+    }
+
+    /**
+     * Report a failed check; returns the condition, so a loop can stop after its first failure
+     */
+    boolean check(boolean condition, String message) {
+        if (!condition) {
+            System.out.println("FAIL: " + message);
+            failures++;
+        }
+        return condition;
+    }
+
+    /**
+     * Run a check against random input, rounds times with one fixed seed, so a failure repeats;
+     * stops early once MAX_FAILURES checks have failed
+     */
+    void fuzz(long seed, int rounds, Consumer<Random> round) {
+        Random random = new Random(seed);
+        for (int i = 0; i < rounds && failures < MAX_FAILURES; i++) {
+            round.accept(random);
+        }
+    }
+
+    /**
+     * Exit with status 1 if a check failed, otherwise print the success message
+     */
+    void finish(String successMessage) {
+        if (failures > 0) {
+            System.exit(1);
+        }
+        System.out.println(successMessage);
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Equivalence tests for IsoTimestampCodec against java.time: formatting must match
+ * LocalDateTime.toString() and parsing must accept exactly what LocalDateTime.parse accepts
+ * (with ' ' allowed in place of the T).
+ */
+public class TestIsoTimestampCodec {
+    private static final String MUTATIONS = "0123456789T :.-+x";
+
+    private static final TestHarness TEST = new TestHarness("IsoTimestampCodec");
+
+    public static void main(String[] args) {
+        testEdgeCases();
+        testDates();
+        TEST.fuzz(48, 100_000, TestIsoTimestampCodec::randomValue);
+        TEST.finish("All timestamp codec tests passed!");
+    }
+
+    private static void testEdgeCases() {
+        String[] texts = {
+                "2026-01-20T10:00", "2026-01-20 10:00", "2026-01-20T10:00:00", "2026-01-20T10:00:59",
+                "2026-01-20T10:00:05.", "2026-01-20T10:00:05.1", "2026-01-20T10:00:05.123456789",
+                "2026-01-20T10:00:05.1234567890", "2024-02-29T00:00", "2023-02-29T00:00", "1900-02-29T00:00",
+                "2000-02-29T00:00", "2026-04-31T10:00", "2026-04-30T23:59", "2026-01-20T24:00",
+                "2026-01-20T23:60", "2026-01-20T10:00:60", "2026-13-01T10:00", "2026-00-01T10:00",
+                "2026-01-00T10:00", "2026-1-20T10:00", "2026-01-20T9:00", "2026-01-20", "2026-01-20T",
+                "2026-01-20x10:00", "0000-01-01T00:00", "9999-12-31T23:59:59.999999999",
+                "+10000-01-01T00:00", "-0001-12-31T23:59", "+2026-01-20T10:00", "", " 2026-01-20T10:00",
+                "2026-01-20T10:00 ", "2026-01-20T10:00:5", "2026-01-20T10:00:05,5",
+        };
+        for (String text : texts) {
+            expectParse(text);
+        }
+        TEST.check(IsoTimestampCodec.tryParse(null) == null && !IsoTimestampCodec.isValid(null),
+                "null text must not parse");
+        try {
+            IsoTimestampCodec.parse("2026-01-20T24:00");
+            TEST.check(false, "parse must throw for 2026-01-20T24:00");
+        } catch (DateTimeParseException e) {
+            // Expected
+        }
+
+        LocalDateTime[] values = {
+                LocalDateTime.of(2026, 1, 20, 10, 0), LocalDateTime.of(2026, 1, 20, 10, 0, 1),
+                LocalDateTime.of(2026, 1, 20, 10, 0, 0, 1), LocalDateTime.of(2026, 1, 20, 10, 0, 0, 1_000),
+                LocalDateTime.of(2026, 1, 20, 10, 0, 0, 1_000_000), LocalDateTime.of(2026, 1, 20, 10, 0, 0, 120_000_000),
+                LocalDateTime.of(0, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(10_000, 1, 1, 0, 0), LocalDateTime.of(-1, 6, 15, 12, 30),
+                LocalDateTime.MIN, LocalDateTime.MAX,
+        };
+        for (LocalDateTime value : values) {
+            expectFormat(value);
+        }
+        TEST.check(IsoTimestampCodec.format(null).equals("null"), "format(null) must give null");
+    }
+
+    private static void testDates() {
+        String[] texts = {
+                "2024-02-29", "2023-02-29", "1900-02-29", "2000-02-29", "2026-04-31", "2026-12-31",
+                "2026-13-01", "2026-1-01", "0000-01-01", "9999-12-31", "2026-01-20T10:00", "2026/01/20", "",
+        };
+        for (String text : texts) {
+            LocalDate expected;
+            try {
+                expected = LocalDate.parse(text);
+            } catch (DateTimeParseException e) {
+                expected = null;
+            }
+            LocalDate actual = IsoTimestampCodec.tryParseDate(text);
+            TEST.check(Objects.equals(expected, actual), "date '" + text + "': java.time " + expected + ", codec " + actual);
+        }
+    }
+
+    /**
+     * A random timestamp in one of the layouts toString() writes, and a one-character mutation of it
+     */
+    private static void randomValue(Random random) {
+        int year = random.nextInt(30) == 0 ? random.nextInt(40_000) - 20_000 : random.nextInt(10_000);
+        int[] precisions = {1_000_000_000, 1_000_000, 1000, 1}; // Whole seconds, millis, micros or nanos
+        int precision = precisions[random.nextInt(precisions.length)];
+        int nano = random.nextInt(1_000_000_000 / precision) * precision;
+        LocalDateTime value = LocalDateTime.of(year, 1 + random.nextInt(12), 1, random.nextInt(24),
+                random.nextInt(60), random.nextBoolean() ? 0 : random.nextInt(60), nano).plusDays(random.nextInt(31));
+        expectFormat(value);
+        String text = value.toString();
+        expectParse(random.nextBoolean() ? text : text.replace('T', ' '));
+
+        char[] chars = text.toCharArray();
+        chars[random.nextInt(chars.length)] = MUTATIONS.charAt(random.nextInt(MUTATIONS.length()));
+        expectParse(random.nextInt(10) == 0
+                ? new String(chars, 0, random.nextInt(chars.length + 1))
+                : new String(chars));
+    }
+
+    private static void expectParse(String text) {
+        LocalDateTime expected;
+        try {
+            expected = LocalDateTime.parse(text.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            expected = null;
+        }
+        LocalDateTime actual = IsoTimestampCodec.tryParse(text);
+        TEST.check(Objects.equals(expected, actual) && IsoTimestampCodec.isValid(text) == (actual != null),
+                "parse '" + text + "': java.time " + expected + ", codec " + actual);
+    }
+
+    private static void expectFormat(LocalDateTime value) {
+        String expected = value.toString();
+        StringBuilder appended = new StringBuilder();
+        try {
+            IsoTimestampCodec.appendTo(appended, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        byte[] buffer = new byte[expected.length() + 2];
+        int end = IsoTimestampCodec.encode(value, buffer, 2); // At an offset, as in a larger buffer
+        String encoded = new String(buffer, 2, end - 2, StandardCharsets.US_ASCII);
+        TEST.check(IsoTimestampCodec.format(value).equals(expected) && appended.toString().equals(expected)
+                        && encoded.equals(expected),
+                "format " + expected + ": format " + IsoTimestampCodec.format(value) + ", appendTo " + appended
+                        + ", encode " + encoded);
+    }
+}
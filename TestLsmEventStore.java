@@ -0,0 +1,336 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests for LsmEventStore: changes must survive a reopen, a torn log tail must be dropped,
+ * deletions must survive a flush until compaction drops them, and the start-time and month
+ * indexes must follow updates. Also checks that CSVHandler imports CSV data into a new store.
+ * Run it from an empty working directory, the migration test writes the CSV files and store/.
+ */
+public class TestLsmEventStore {
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2026, 1, 15, 9, 0);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2026, 3, 10, 14, 30);
+
+    private static boolean passed = true;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("Testing LsmEventStore...");
+
+        Path root = Files.createTempDirectory("lsm-test");
+        try {
+            testRoundTripAcrossReopen(root.resolve("round-trip"));
+            testTornLogTail(root.resolve("torn-log"));
+            testTombstonesAndCompaction(root.resolve("compaction"));
+            testEventMovedToAnotherMonth(root.resolve("months"));
+        } finally {
+            deleteRecursively(root);
+        }
+        testMigrationFromCsv();
+
+        if (!passed) {
+            System.exit(1);
+        }
+        System.out.println("All event store tests passed!");
+    }
+
+    /**
+     * Put, update and delete through the log, then read everything back from a new instance
+     */
+    private static void testRoundTripAcrossReopen(Path directory) throws IOException {
+        LsmEventStore store = open(directory);
+        ImmutableEvent meeting = event(1, "Team, meeting", "Agenda: \"Q1\"", JANUARY);
+        ImmutableEvent lunch = event(2, "Lunch", "Ünïcödé ✓", JANUARY.plusDays(1));
+        ImmutableEvent dentist = event(3, "Dentist", "", MARCH);
+        RecurringEvent weekly = new RecurringEvent(2, "1w", 4, null);
+        check(store.applyChanges(changes(List.of(meeting, lunch, dentist), List.of(weekly), List.of())),
+                "round trip: put was not written");
+
+        ImmutableEvent renamed = event(1, "Renamed meeting", "Moved to the big room", JANUARY.plusHours(2));
+        check(store.applyChanges(changes(List.of(renamed), List.of(), List.of(3))),
+                "round trip: update and delete were not written");
+        expectEvents(store, "round trip before reopen", renamed, lunch);
+
+        LsmEventStore reopened = open(directory);
+        expectEvents(reopened, "round trip after reopen", renamed, lunch);
+        List<RecurringEvent> recurring = reopened.readRecurringEvents();
+        check(recurring.size() == 1 && recurring.get(0).toCSV().equals(weekly.toCSV()),
+                "round trip: recurring configurations read back as " + recurring);
+    }
+
+    /**
+     * A crash while appending leaves part of a batch; replay keeps the complete batches only
+     */
+    private static void testTornLogTail(Path directory) throws IOException {
+        LsmEventStore store = open(directory);
+        ImmutableEvent first = event(1, "First", "batch", JANUARY);
+        ImmutableEvent second = event(2, "Second", "batch", JANUARY.plusDays(1));
+        ImmutableEvent torn = event(3, "Torn", "batch", JANUARY.plusDays(2));
+        store.applyChanges(changes(List.of(first), List.of(), List.of()));
+        store.applyChanges(changes(List.of(second), List.of(), List.of()));
+        Path log = directory.resolve("wal.log");
+        long validLength = Files.size(log);
+        store.applyChanges(changes(List.of(torn), List.of(), List.of()));
+
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        LsmEventStore reopened = open(directory);
+        expectEvents(reopened, "torn log", first, second);
+        check(Files.size(log) == validLength, "torn log: log was not truncated to its last complete batch");
+
+        // Batches written after the truncation must replay too
+        ImmutableEvent after = event(4, "After", "recovery", MARCH);
+        reopened.applyChanges(changes(List.of(after), List.of(), List.of()));
+        expectEvents(open(directory), "torn log after recovery", first, second, after);
+    }
+
+    /**
+     * A deletion flushed to a newer segment hides the record in an older one, also after a
+     * reopen; compaction then writes neither the record nor its tombstone
+     */
+    private static void testTombstonesAndCompaction(Path directory) throws IOException {
+        LsmEventStore store = open(directory);
+        ImmutableEvent deleted = event(1, "Deleted", "soon", JANUARY);
+        ImmutableEvent kept = event(2, "Kept", "always", MARCH);
+        store.applyChanges(changes(List.of(deleted, kept), List.of(), List.of()));
+        forceFlush(store);
+        check(segmentNames(directory).size() == 1, "compaction: expected 1 segment after the first flush");
+
+        store.applyChanges(changes(List.of(), List.of(), List.of(1)));
+        forceFlush(store);
+        List<String> segments = segmentNames(directory);
+        check(segments.size() == 2, "compaction: expected 2 segments after the second flush, found " + segments);
+        check(segments.size() == 2 && deletedIds(directory.resolve(segments.get(1))).contains(1),
+                "compaction: the flushed segment has no tombstone for the deleted event");
+        expectEvents(open(directory), "tombstone after reopen", kept, filler());
+
+        // MAX_SEGMENTS flushed segments trigger a compaction into one
+        for (int i = segments.size(); i <= LsmEventStore.MAX_SEGMENTS; i++) {
+            forceFlush(store);
+        }
+        segments = segmentNames(directory);
+        check(segments.size() == 1, "compaction: expected 1 segment after compaction, found " + segments);
+        if (segments.size() == 1) {
+            Path segment = directory.resolve(segments.get(0));
+            check(deletedIds(segment).isEmpty(), "compaction: the merged segment still holds tombstones");
+            check(!storedIds(segment).contains(1), "compaction: the merged segment still holds the deleted event");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            long segmentFiles = files.filter(file -> file.getFileName().toString().startsWith("seg-")).count();
+            check(segmentFiles == 1, "compaction: " + segmentFiles + " segment files left on disk");
+        }
+        expectEvents(open(directory), "compaction after reopen", kept, filler());
+    }
+
+    /**
+     * Moving an event to another month must move it in the start-time and month indexes, both
+     * while it is in the log and once it has been flushed
+     */
+    private static void testEventMovedToAnotherMonth(Path directory) throws IOException {
+        LsmEventStore store = open(directory);
+        ImmutableEvent event = event(1, "Review", "quarterly", JANUARY);
+        ImmutableEvent other = event(2, "Standup", "daily", JANUARY.plusDays(3));
+        store.applyChanges(changes(List.of(event, other), List.of(), List.of()));
+        ImmutableEvent moved = event(1, "Review", "quarterly", MARCH);
+        store.applyChanges(changes(List.of(moved), List.of(), List.of()));
+        expectMonths(store, "moved in log", other, moved);
+        expectMonths(open(directory), "moved after reopen", other, moved);
+
+        forceFlush(store);
+        ImmutableEvent movedBack = event(2, "Standup", "daily", MARCH.plusDays(1));
+        store.applyChanges(changes(List.of(movedBack), List.of(), List.of()));
+        LsmEventStore reopened = open(directory);
+        List<Event> january = reopened.readEventsStartingBetween(
+                LocalDate.of(2026, 1, 1).atStartOfDay(), LocalDate.of(2026, 2, 1).atStartOfDay());
+        check(january.isEmpty(), "moved after flush: January still holds " + january);
+        List<Event> march = reopened.readEventsStartingBetween(
+                LocalDate.of(2026, 3, 1).atStartOfDay(), LocalDate.of(2026, 4, 1).atStartOfDay());
+        check(march.size() == 2, "moved after flush: March holds " + march.size() + " events, expected 2");
+        CSVHandler.ShardInfo info = reopened.getMonthIndex().get(YearMonth.of(2026, 3));
+        check(!reopened.getMonthIndex().containsKey(YearMonth.of(2026, 1)) && info != null && info.count() == 2,
+                "moved after flush: month index is " + reopened.getMonthIndex());
+    }
+
+    /**
+     * With calendar.storage=lsm, CSVHandler imports events.csv and recurrent.csv into store/ and
+     * renames them; a new handler then reads from the store
+     */
+    private static void testMigrationFromCsv() throws IOException {
+        if (Files.exists(Paths.get("store")) || Files.exists(Paths.get("events"))) {
+            check(false, "migration: run from an empty working directory");
+            return;
+        }
+        List<String> eventLines = List.of(
+                new Event(1, "Team, meeting", "Agenda: \"Q1\"", JANUARY, JANUARY.plusHours(1)).toCSV(),
+                new Event(2, "Lunch", "with team", JANUARY.plusDays(1), JANUARY.plusDays(1).plusHours(1)).toCSV(),
+                new Event(3, "Standup", "daily", MARCH, MARCH.plusMinutes(15)).toCSV());
+        Files.write(Paths.get("events.csv"), eventLines, StandardCharsets.UTF_8);
+        Files.write(Paths.get("recurrent.csv"), List.of(new RecurringEvent(3, "1d", 5, null).toCSV()),
+                StandardCharsets.UTF_8);
+
+        String storage = System.getProperty(CSVHandler.STORAGE_PROPERTY);
+        System.setProperty(CSVHandler.STORAGE_PROPERTY, "lsm");
+        try {
+            CSVHandler handler = new CSVHandler(new StringPool(), DurableFileWriter.never());
+            check(LsmEventStore.exists(Paths.get("store")), "migration: no store was created");
+            check(!Files.exists(Paths.get("events.csv")) && Files.exists(Paths.get("events.csv.migrated")),
+                    "migration: events.csv was not renamed");
+            check(!Files.exists(Paths.get("recurrent.csv")) && Files.exists(Paths.get("recurrent.csv.migrated")),
+                    "migration: recurrent.csv was not renamed");
+            expectCsv(handler.readEvents(), eventLines, "migration");
+
+            CSVHandler reopened = new CSVHandler(new StringPool(), DurableFileWriter.never());
+            expectCsv(reopened.readEvents(), eventLines, "migration after reopen");
+            List<RecurringEvent> recurring = reopened.readRecurringEvents();
+            check(recurring.size() == 1 && recurring.get(0).toCSV().equals("3,1d,5,0"),
+                    "migration: recurring configurations read back as " + recurring);
+        } finally {
+            if (storage == null) {
+                System.clearProperty(CSVHandler.STORAGE_PROPERTY);
+            } else {
+                System.setProperty(CSVHandler.STORAGE_PROPERTY, storage);
+            }
+        }
+    }
+
+    private static LsmEventStore open(Path directory) throws IOException {
+        return new LsmEventStore(directory, new StringPool(), DurableFileWriter.never());
+    }
+
+    /**
+     * Write one batch large enough to reach FLUSH_BYTES, so the memtable is flushed to a segment
+     */
+    private static void forceFlush(LsmEventStore store) {
+        check(store.applyChanges(changes(List.of(filler()), List.of(), List.of())), "could not write the filler event");
+    }
+
+    private static ImmutableEvent filler() {
+        return event(99, "Filler", "x".repeat((int) LsmEventStore.FLUSH_BYTES), LocalDateTime.of(2027, 6, 1, 0, 0));
+    }
+
+    private static ImmutableEvent event(int eventId, String title, String description, LocalDateTime start) {
+        return new ImmutableEvent(eventId, title, description, start, start.plusHours(1));
+    }
+
+    private static BackupDiff changes(List<ImmutableEvent> events, List<RecurringEvent> recurringEvents,
+                                      List<Integer> deletedIds) {
+        return new BackupDiff(0, 1, events, recurringEvents, deletedIds);
+    }
+
+    private static void expectEvents(LsmEventStore store, String name, ImmutableEvent... expected) {
+        List<String> actual = new ArrayList<>();
+        for (Event event : store.readEvents()) {
+            actual.add(event.toCSV());
+        }
+        List<String> wanted = new ArrayList<>();
+        for (ImmutableEvent event : expected) {
+            wanted.add(event.toCSV());
+        }
+        actual.sort(Comparator.naturalOrder());
+        wanted.sort(Comparator.naturalOrder());
+        check(actual.equals(wanted), name + ": expected " + abbreviate(wanted) + ", found " + abbreviate(actual));
+    }
+
+    private static void expectMonths(LsmEventStore store, String name, ImmutableEvent january, ImmutableEvent march) {
+        List<Event> inJanuary = store.readEventsStartingBetween(
+                LocalDate.of(2026, 1, 1).atStartOfDay(), LocalDate.of(2026, 2, 1).atStartOfDay());
+        List<Event> inMarch = store.readEventsStartingBetween(
+                LocalDate.of(2026, 3, 1).atStartOfDay(), LocalDate.of(2026, 4, 1).atStartOfDay());
+        check(inJanuary.size() == 1 && inJanuary.get(0).toCSV().equals(january.toCSV()),
+                name + ": January holds " + inJanuary);
+        check(inMarch.size() == 1 && inMarch.get(0).toCSV().equals(march.toCSV()),
+                name + ": March holds " + inMarch);
+        CSVHandler.ShardInfo januaryInfo = store.getMonthIndex().get(YearMonth.of(2026, 1));
+        CSVHandler.ShardInfo marchInfo = store.getMonthIndex().get(YearMonth.of(2026, 3));
+        check(januaryInfo != null && januaryInfo.count() == 1 && marchInfo != null && marchInfo.count() == 1,
+                name + ": month index is " + store.getMonthIndex());
+    }
+
+    private static void expectCsv(List<Event> events, List<String> expected, String name) {
+        List<String> actual = new ArrayList<>();
+        for (Event event : events) {
+            actual.add(event.toCSV());
+        }
+        actual.sort(Comparator.naturalOrder());
+        List<String> wanted = new ArrayList<>(expected);
+        wanted.sort(Comparator.naturalOrder());
+        check(actual.equals(wanted), name + ": expected " + wanted + ", found " + actual);
+    }
+
+    private static List<String> segmentNames(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(directory.resolve("MANIFEST"), StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("next ")) {
+                names.add(line.trim());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Event IDs with a tombstone (length -1) in a segment's footer
+     */
+    private static List<Integer> deletedIds(Path segment) throws IOException {
+        return footerIds(segment, true);
+    }
+
+    /**
+     * Event IDs with a value in a segment's footer
+     */
+    private static List<Integer> storedIds(Path segment) throws IOException {
+        return footerIds(segment, false);
+    }
+
+    // Footer: int count, count x (long key, long offset, int length, int crc32c, long start, long end),
+    // then long footerOffset and int crc32c
+    private static List<Integer> footerIds(Path segment, boolean deleted) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int footer = (int) data.getLong(data.capacity() - 12);
+        int count = data.getInt(footer);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int entry = footer + 4 + i * 40;
+            long key = data.getLong(entry);
+            boolean isDeleted = data.getInt(entry + 16) < 0;
+            if ((key >>> 32) == 0 && isDeleted == deleted) {
+                ids.add((int) key);
+            }
+        }
+        return ids;
+    }
+
+    private static String abbreviate(List<String> lines) {
+        List<String> shown = new ArrayList<>();
+        for (String line : lines) {
+            shown.add(line.length() > 80 ? line.substring(0, 80) + "..." : line);
+        }
+        return shown.toString();
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.out.println("FAIL: " + message);
+            passed = false;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Equivalence tests for RecurrenceRule against adding the interval one step at a time, the way
+ * occurrences were generated before: nth, indexOnOrAfter and the Occurrences cursor must agree
+ * with it, above all for month rules that start late in the month, where the day is clamped.
+ */
+public class TestRecurrenceRule {
+    private static final int OCCURRENCES = 400;
+
+    private static final TestHarness TEST = new TestHarness("RecurrenceRule");
+
+    public static void main(String[] args) {
+        testMonthEnds();
+        testLeapDay();
+        testDaysAndWeeks();
+        testBounds();
+        testCompile();
+        TEST.fuzz(50, 5000, TestRecurrenceRule::randomSeries);
+        TEST.finish("All recurrence rule tests passed!");
+    }
+
+    /**
+     * Series starting on the 29th to the 31st of every month, with steps that do and do not
+     * reach February, including whole years
+     */
+    private static void testMonthEnds() {
+        int[] steps = {1, 2, 3, 4, 5, 6, 7, 11, 12, 13, 24, 25, 36, 48};
+        for (int month = 1; month <= 12; month++) {
+            for (int day = 29; day <= 31; day++) {
+                for (int year : new int[]{2023, 2024}) {
+                    if (day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+                        continue;
+                    }
+                    for (int step : steps) {
+                        expectSequential(step + "m", LocalDateTime.of(year, month, day, 9, 30));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Series starting on Feb 29 stay on the 29th only while every February they visit is a leap one
+     */
+    private static void testLeapDay() {
+        int[] years = {2024, 2000, 1896, 2096};
+        int[] steps = {12, 24, 36, 48, 96, 120, 1200};
+        for (int year : years) {
+            for (int step : steps) {
+                expectSequential(step + "m", LocalDateTime.of(year, 2, 29, 23, 59));
+            }
+        }
+        RecurrenceRule rule = RecurrenceRule.compile("48m", 0, null);
+        LocalDateTime first = LocalDateTime.of(2024, 2, 29, 10, 0);
+        TEST.check(rule.nth(first, 1).equals(LocalDateTime.of(2028, 2, 29, 10, 0)), "48m from 2024-02-29 must stay on the 29th");
+        TEST.check(rule.nth(first, 19).equals(LocalDateTime.of(2100, 2, 28, 10, 0)), "48m from 2024-02-29 must clamp in 2100");
+        TEST.check(rule.nth(first, 20).equals(LocalDateTime.of(2104, 2, 28, 10, 0)), "48m must keep the clamped day after 2100");
+        rule = RecurrenceRule.compile("12m", 0, null);
+        TEST.check(rule.nth(first, 4).equals(LocalDateTime.of(2028, 2, 28, 10, 0)), "12m from 2024-02-29 must keep the 28th");
+    }
+
+    private static void testDaysAndWeeks() {
+        String[] intervals = {"1d", "2d", "7d", "30d", "365d", "1w", "2w", "52w"};
+        for (String interval : intervals) {
+            expectSequential(interval, LocalDateTime.of(2024, 1, 31, 8, 0));
+            expectSequential(interval, LocalDateTime.of(2024, 2, 29, 0, 0));
+        }
+    }
+
+    /**
+     * The limit and end date stop the cursor, and skipTo never moves past them
+     */
+    private static void testBounds() {
+        LocalDateTime first = LocalDateTime.of(2024, 1, 31, 10, 0);
+        LocalDateTime firstEnd = first.plusHours(1);
+        RecurrenceRule limited = RecurrenceRule.compile("1m", 5, null);
+        TEST.check(count(limited.occurrences(first, firstEnd)) == 5, "1m with limit 5 must give 5 occurrences");
+        RecurrenceRule.Occurrences occurrences = limited.occurrences(first, firstEnd);
+        occurrences.skipTo(LocalDate.of(2024, 6, 1));
+        TEST.check(!occurrences.next(), "skipTo past the limit must end the series");
+
+        RecurrenceRule ending = RecurrenceRule.compile("1w", 0, LocalDate.of(2024, 3, 1));
+        occurrences = ending.occurrences(first, firstEnd);
+        LocalDateTime last = null;
+        while (occurrences.next()) {
+            last = occurrences.start();
+        }
+        TEST.check(LocalDateTime.of(2024, 2, 28, 10, 0).equals(last), "1w ending 2024-03-01 must end on 2024-02-28, got " + last);
+        occurrences = ending.occurrences(first, firstEnd);
+        occurrences.skipTo(LocalDate.of(2024, 3, 2));
+        TEST.check(!occurrences.next(), "skipTo past the end date must end the series");
+
+        RecurrenceRule endsOnOccurrence = RecurrenceRule.compile("1d", 0, LocalDate.of(2024, 2, 2));
+        TEST.check(count(endsOnOccurrence.occurrences(first, firstEnd)) == 3, "the end date must be inclusive");
+
+        RecurrenceRule still = RecurrenceRule.compile("0d", 3, null);
+        TEST.check(still.indexOnOrAfter(first, LocalDate.of(2024, 2, 1)) == -1, "a zero step never reaches a later date");
+        TEST.check(still.indexOnOrAfter(first, LocalDate.of(2024, 1, 1)) == 0, "an earlier date gives the first occurrence");
+    }
+
+    private static void testCompile() {
+        String[] invalid = {null, "", "d", "1y", "xm", "1.5w"};
+        for (String interval : invalid) {
+            try {
+                RecurrenceRule.compile(interval, 0, null);
+                TEST.check(false, "compile must reject '" + interval + "'");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+        RecurrenceRule rule = RecurrenceRule.compile("3w", -1, null);
+        TEST.check(rule.getUnit() == RecurrenceRule.Unit.WEEKS && rule.getStep() == 3 && rule.getLimit() == 0,
+                "3w with limit -1 must compile to 3 weeks without a limit");
+    }
+
+    /**
+     * A random series with a limit or end date, walked in full and entered with skipTo
+     */
+    private static void randomSeries(Random random) {
+        char unit = "dwm".charAt(random.nextInt(3));
+        int step = random.nextInt(10) == 0 ? 12 * (1 + random.nextInt(5)) : 1 + random.nextInt(unit == 'm' ? 50 : 20);
+        int times = random.nextInt(3) == 0 ? 0 : random.nextInt(200);
+        LocalDateTime start = LocalDateTime.of(1990 + random.nextInt(80), 1 + random.nextInt(12), 1,
+                random.nextInt(24), random.nextInt(60));
+        int lastDay = start.toLocalDate().lengthOfMonth();
+        start = start.withDayOfMonth(Math.max(1, lastDay - random.nextInt(random.nextBoolean() ? 4 : 31)));
+        LocalDateTime end = start.plusMinutes(random.nextInt(3 * 24 * 60));
+        LocalDate endDate = times == 0 || random.nextBoolean()
+                ? start.toLocalDate().plusDays(random.nextInt(3000) - 10) : null;
+        RecurrenceRule rule = RecurrenceRule.compile(step + "" + unit, times, endDate);
+        String name = step + "" + unit + " x" + times + " until " + endDate + " from " + start;
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        LocalDateTime s = start;
+        LocalDateTime e = end;
+        while ((times == 0 || starts.size() < times) && (endDate == null || !s.toLocalDate().isAfter(endDate))) {
+            starts.add(s);
+            ends.add(e);
+            s = rule.next(s);
+            e = rule.next(e);
+        }
+
+        RecurrenceRule.Occurrences occurrences = rule.occurrences(start, end);
+        int index = 0;
+        while (occurrences.next() && index < starts.size()) {
+            TEST.check(occurrences.index() == index && occurrences.start().equals(starts.get(index))
+                            && occurrences.end().equals(ends.get(index))
+                            && rule.nth(start, index).equals(starts.get(index))
+                            && rule.nth(end, index).equals(ends.get(index)),
+                    name + ": occurrence " + index + " is " + occurrences.start() + ", expected " + starts.get(index));
+            index++;
+        }
+        TEST.check(index == starts.size() && !occurrences.next(),
+                name + ": " + index + " occurrences, expected " + starts.size());
+
+        for (int q = 0; q < 5; q++) {
+            LocalDate target = start.toLocalDate().plusDays(random.nextInt(4000) - 20);
+            int expected = -1;
+            for (int k = 0; k < starts.size(); k++) {
+                if (!starts.get(k).toLocalDate().isBefore(target)) {
+                    expected = k;
+                    break;
+                }
+            }
+            occurrences = rule.occurrences(start, end);
+            occurrences.skipTo(target);
+            boolean found = occurrences.next();
+            if (expected < 0) {
+                TEST.check(!found, name + ": skipTo " + target + " must end the series, got " + occurrences.start());
+                continue;
+            }
+            TEST.check(found && occurrences.index() == expected && occurrences.start().equals(starts.get(expected))
+                            && occurrences.end().equals(ends.get(expected)),
+                    name + ": skipTo " + target + " gave " + occurrences.start() + ", expected " + starts.get(expected));
+            for (int k = expected + 1; k < Math.min(starts.size(), expected + 5); k++) {
+                TEST.check(occurrences.next() && occurrences.start().equals(starts.get(k)),
+                        name + ": occurrence " + k + " after skipTo " + target + " is " + occurrences.start());
+            }
+        }
+    }
+
+    /**
+     * Compare nth and indexOnOrAfter with adding the interval step by step for OCCURRENCES steps
+     */
+    private static void expectSequential(String interval, LocalDateTime first) {
+        RecurrenceRule rule = RecurrenceRule.compile(interval, 0, null);
+        LocalDateTime current = first;
+        LocalDate previous = first.toLocalDate().minusDays(1);
+        for (int n = 0; n < OCCURRENCES; n++) {
+            LocalDateTime actual = rule.nth(first, n);
+            if (!TEST.check(actual.equals(current), interval + " from " + first + ": occurrence " + n + " is "
+                    + actual + ", expected " + current)) {
+                return; // Every later occurrence would fail as well
+            }
+            // Every date after the previous occurrence, up to this one, leads to this one
+            LocalDate date = current.toLocalDate();
+            for (LocalDate target : new LocalDate[]{previous.plusDays(1), date.minusDays(1), date}) {
+                if (target.isAfter(previous)) {
+                    long index = rule.indexOnOrAfter(first, target);
+                    TEST.check(index == n, interval + " from " + first + ": indexOnOrAfter " + target + " is " + index
+                            + ", expected " + n);
+                }
+            }
+            previous = date;
+            current = rule.next(current);
+        }
+    }
+
+    private static int count(RecurrenceRule.Occurrences occurrences) {
+        int count = 0;
+        while (occurrences.next()) {
+            count++;
+        }
+        return count;
+    }
+}